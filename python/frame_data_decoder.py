@@ -0,0 +1,110 @@
+"""
+Decoder for the binary frame data returned by FrameData.toByteArray().
+
+A Python AI normally reads the game state through one py4j call per value,
+e.g. frameData.getCharacter(True).getHp(), and every call is a round trip
+over the socket. FrameData.toByteArray() instead returns the whole frame data
+in a single transfer, and decode_frame_data() turns it into plain Python
+objects:
+
+    from frame_data_decoder import decode_frame_data
+
+    def getInformation(self, frameData, isControl):
+        self.frameData = decode_frame_data(frameData.toByteArray())
+        me = self.frameData.characters[0 if self.player else 1]
+        print(me.hp, me.x, me.action)
+
+The layout is documented in FrameData.toByteBuffer() on the Java side.
+All values are big-endian. The key histories of the characters are not
+included.
+"""
+
+import struct
+from collections import namedtuple
+
+# The layout version this decoder understands (FrameData.BINARY_FORMAT_VERSION)
+FORMAT_VERSION = 1
+
+# The names of enumerate.State and enumerate.Action in the order of their ordinals
+STATES = ('STAND', 'CROUCH', 'AIR', 'DOWN')
+
+ACTIONS = (
+    'NEUTRAL', 'STAND', 'FORWARD_WALK', 'DASH', 'BACK_STEP', 'CROUCH', 'JUMP', 'FOR_JUMP', 'BACK_JUMP', 'AIR',
+    'STAND_GUARD', 'CROUCH_GUARD', 'AIR_GUARD', 'STAND_GUARD_RECOV', 'CROUCH_GUARD_RECOV', 'AIR_GUARD_RECOV',
+    'STAND_RECOV', 'CROUCH_RECOV', 'AIR_RECOV', 'CHANGE_DOWN', 'DOWN', 'RISE', 'LANDING',
+    'THROW_A', 'THROW_B', 'THROW_HIT', 'THROW_SUFFER',
+    'STAND_A', 'STAND_B', 'CROUCH_A', 'CROUCH_B', 'AIR_A', 'AIR_B', 'AIR_DA', 'AIR_DB',
+    'STAND_FA', 'STAND_FB', 'CROUCH_FA', 'CROUCH_FB', 'AIR_FA', 'AIR_FB', 'AIR_UA', 'AIR_UB',
+    'STAND_D_DF_FA', 'STAND_D_DF_FB', 'STAND_F_D_DFA', 'STAND_F_D_DFB', 'STAND_D_DB_BA', 'STAND_D_DB_BB',
+    'AIR_D_DF_FA', 'AIR_D_DF_FB', 'AIR_F_D_DFA', 'AIR_F_D_DFB', 'AIR_D_DB_BA', 'AIR_D_DB_BB',
+    'STAND_D_DF_FC',
+)
+
+_HEADER = struct.Struct('>bBhiiiq')
+_CHARACTER = struct.Struct('>Bbh16i')
+_ATTACK = struct.Struct('>Bbh24i')
+
+HitArea = namedtuple('HitArea', 'left right top bottom')
+
+AttackData = namedtuple('AttackData', [
+    'player_number', 'down_prop', 'is_projectile', 'attack_type',
+    'setting_hit_area', 'current_hit_area',
+    'setting_speed_x', 'setting_speed_y', 'current_frame', 'speed_x', 'speed_y',
+    'start_up', 'active', 'hit_damage', 'guard_damage', 'start_add_energy',
+    'hit_add_energy', 'guard_add_energy', 'give_energy', 'impact_x', 'impact_y', 'give_guard_recov',
+])
+
+CharacterData = namedtuple('CharacterData', [
+    'player_number', 'front', 'control', 'hit_confirm', 'state', 'action',
+    'hp', 'energy', 'x', 'y', 'left', 'right', 'top', 'bottom', 'speed_x', 'speed_y',
+    'remaining_frame', 'graphic_size_x', 'graphic_size_y', 'graphic_adjust_x',
+    'hit_count', 'last_hit_frame', 'attack',
+])
+
+FrameData = namedtuple('FrameData', [
+    'empty', 'frame_number', 'round', 'remaining_frames', 'state_hash', 'characters', 'projectiles',
+])
+
+
+def _name(names, ordinal):
+    return names[ordinal] if 0 <= ordinal < len(names) else None
+
+
+def _decode_attack(data, offset):
+    values = _ATTACK.unpack_from(data, offset)
+    flags = values[0]
+    return AttackData(bool(flags & 1), bool(flags & 2), bool(flags & 4), values[1],
+                      HitArea(*values[3:7]), HitArea(*values[7:11]), *values[11:])
+
+
+def _decode_character(data, offset):
+    values = _CHARACTER.unpack_from(data, offset)
+    flags = values[0]
+    if not flags & 1:
+        return None
+    return CharacterData(bool(flags & 2), bool(flags & 4), bool(flags & 8), bool(flags & 16),
+                         _name(STATES, values[1]), _name(ACTIONS, values[2]), *values[3:],
+                         attack=_decode_attack(data, offset + _CHARACTER.size))
+
+
+def decode_frame_data(data):
+    """
+    Decodes the bytes returned by FrameData.toByteArray().
+    :param data: bytes, bytearray or memoryview holding the encoded frame data
+    :return: FrameData whose characters are a (P1, P2) tuple, each None if not set,
+             and whose projectiles are a list of AttackData
+    """
+    version, flags, projectile_count, frame_number, round_number, remaining_frames, state_hash = \
+        _HEADER.unpack_from(data, 0)
+    if version != FORMAT_VERSION:
+        raise ValueError('Unsupported frame data format version: %d' % version)
+
+    character_size = _CHARACTER.size + _ATTACK.size
+    offset = _HEADER.size
+    characters = (_decode_character(data, offset), _decode_character(data, offset + character_size))
+
+    offset += 2 * character_size
+    projectiles = [_decode_attack(data, offset + i * _ATTACK.size) for i in range(projectile_count)]
+
+    return FrameData(bool(flags & 1), frame_number, round_number, remaining_frames, state_hash,
+                     characters, projectiles)
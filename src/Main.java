@@ -1,5 +1,8 @@
 import core.Game;
+import core.HeadlessMatch;
+import core.Tournament;
 import manager.DisplayManager;
+import setting.FlagSetting;
 
 /**
  * FightingICEのメインメソッドを持つクラス．
@@ -16,6 +19,17 @@ public class Main {
 	public static void main(String[] options) {
 		Game game = new Game();
 		game.setOptions(options);
+
+		// ウィンドウを生成せずに試合を行う
+		if (FlagSetting.headlessFlag) {
+			if (FlagSetting.allCombinationFlag) {
+				Tournament.launch();
+			} else {
+				HeadlessMatch.launch();
+			}
+			System.exit(0);
+		}
+
 		DisplayManager displayManager = new DisplayManager();
 
 		// ゲームの開始
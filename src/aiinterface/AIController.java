@@ -1,18 +1,19 @@
 package aiinterface;
 
-import java.util.LinkedList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import informationcontainer.RoundResult;
 import py4j.Py4JException;
+import setting.MatchContext;
 import struct.FrameData;
 import struct.GameData;
 import struct.Key;
 import struct.ScreenData;
 
 /**
- * AIのスレッドや処理を管理するクラス．
+ * AIのスレッドや処理を管理するクラス．<br>
+ * 通常はこのクラス自身をスレッドとして開始するが, {@link AIExecutor}を用いて仮想スレッドで実行することもできる．
  */
 public class AIController extends Thread {
 
@@ -30,22 +31,27 @@ public class AIController extends Thread {
 	/**
 	 * 対戦が始まっているかどうかを表すフラグ．
 	 */
-	private boolean isFighting;
+	private volatile boolean isFighting;
 
 	/**
 	 * 入力されたキー．
 	 */
 	private Key key;
 
+	/**
+	 * 既定の遅れフレーム．
+	 */
+	public final static int DEFAULT_DELAY = 15;
+
 	/**
 	 * 遅れフレーム．
 	 */
-	private final static int DELAY = 15;
+	private final int delay;
 
 	/**
-	 * フレームデータを格納するリスト．
+	 * フレームデータを遅れフレームだけ遅らせてAIに渡すためのリングバッファ．
 	 */
-	private LinkedList<FrameData> framesData;
+	private FrameDelayBuffer framesData;
 
 	/**
 	 * 画面情報を格納したデータ．
@@ -53,9 +59,34 @@ public class AIController extends Thread {
 	private ScreenData screenData;
 
 	/**
-	 * 各AIの処理を同時に始めるための同期用オブジェクト．
+	 * 対戦処理とAIの処理をフレーム単位で同期させるスケジューラ．
+	 */
+	private FrameScheduler scheduler;
+
+	/**
+	 * スケジューラ上のこのAIの番号．
 	 */
-	private Object waitObj;
+	private int schedulerIndex;
+
+	/**
+	 * 最後に処理したフレームのスケジューラ上の番号．
+	 */
+	private long lastFrame;
+
+	/**
+	 * AIの名前．
+	 */
+	private String aiName;
+
+	/**
+	 * AIの各メソッドの処理時間などの統計．
+	 */
+	private AIStatistics statistics;
+
+	/**
+	 * AIの処理中に発生し, AIのスレッドを終了させた例外またはエラー．発生していない場合は{@code null}．
+	 */
+	private volatile Throwable failure;
 
 	/**
 	 * 引数に指定されたAIインタフェースをセットし，AIControllerを初期化するクラスコンストラクタ．
@@ -65,27 +96,74 @@ public class AIController extends Thread {
 	 * @see AIInterface
 	 */
 	public AIController(AIInterface ai) {
+		this(ai, DEFAULT_DELAY);
+	}
+
+	/**
+	 * 引数に指定されたAIインタフェースと遅れフレームをセットし，AIControllerを初期化するクラスコンストラクタ．
+	 *
+	 * @param ai
+	 *            AIに実装すべきメソッドを定義するインタフェース
+	 * @param delay
+	 *            AIに渡すフレームデータの遅れフレーム. 1以上である必要がある
+	 * @see AIInterface
+	 */
+	public AIController(AIInterface ai, int delay) {
+		if (delay < 1) {
+			throw new IllegalArgumentException("The delay must be positive: " + delay);
+		}
+
 		this.ai = ai;
+		this.delay = delay;
+		this.aiName = ai.getClass().getSimpleName();
+	}
+
+	/**
+	 * 引数で与えられたパラメータをセットし，初期化を行う．<br>
+	 * このAIをスケジューラの同期の対象に加えるため, スレッドを開始する前に対戦処理のスレッドから呼び出す．
+	 *
+	 * @param scheduler
+	 *            対戦処理とAIの処理をフレーム単位で同期させるスケジューラ
+	 * @param gameData
+	 *            ステージの画面幅や最大HPなどの，ゲーム内で不変の情報を格納したクラスのインスタンス
+	 * @param playerNumber
+	 *            the character's side flag.<br>
+	 *            {@code true} if the character is P1, or {@code false} if P2.
+	 *
+	 * @see GameData
+	 */
+	public void initialize(FrameScheduler scheduler, GameData gameData, boolean playerNumber) throws Py4JException{
+		initialize(new MatchContext(), scheduler, gameData, playerNumber);
 	}
 
 	/**
-	 * 引数で与えられたパラメータをセットし，初期化を行う．
+	 * 引数で与えられた試合の設定及びパラメータをセットし，初期化を行う．<br>
+	 * このAIをスケジューラの同期の対象に加えるため, スレッドを開始する前に対戦処理のスレッドから呼び出す．
+	 * 同時に複数の試合を行う場合は, 試合ごとに異なるスケジューラと名前を付けた試合の設定を用いる．
 	 *
-	 * @param waitFrame
-	 *            各AIの処理を同時に始めるための同期用オブジェクト
+	 * @param context
+	 *            試合の設定. 試合の名前はJMXに登録する統計の名前に用いられる
+	 * @param scheduler
+	 *            対戦処理とAIの処理をフレーム単位で同期させるスケジューラ
 	 * @param gameData
 	 *            ステージの画面幅や最大HPなどの，ゲーム内で不変の情報を格納したクラスのインスタンス
 	 * @param playerNumber
 	 *            the character's side flag.<br>
 	 *            {@code true} if the character is P1, or {@code false} if P2.
 	 *
+	 * @see MatchContext
 	 * @see GameData
 	 */
-	public void initialize(Object waitFrame, GameData gameData, boolean playerNumber) throws Py4JException{
+	public void initialize(MatchContext context, FrameScheduler scheduler, GameData gameData, boolean playerNumber)
+			throws Py4JException {
 		this.playerNumber = playerNumber;
-		this.waitObj = waitFrame;
+		this.scheduler = scheduler;
+		this.schedulerIndex = ThreadController.getIndex(playerNumber);
+		this.lastFrame = scheduler.register(this.schedulerIndex);
+		this.statistics = new AIStatistics(this.aiName, scheduler, this.schedulerIndex);
+		this.statistics.register(context.getName(), playerNumber ? "P1" : "P2");
 		this.key = new Key();
-		this.framesData = new LinkedList<FrameData>();
+		this.framesData = new FrameDelayBuffer(this.delay);
 		this.clear();
 		this.isFighting = true;
 //		boolean isInit = false;
@@ -102,35 +180,57 @@ public class AIController extends Thread {
 	@Override
 	public void run() {
 		Logger.getAnonymousLogger().log(Level.INFO, "Start to run");
+		try {
+			processingLoop();
+		} catch (Throwable e) {
+			// AbstractMethodErrorなどのエラーも含め, 対戦処理のスレッドが終了したAIの処理を待ち続けないようにする
+			Logger.getAnonymousLogger().log(Level.SEVERE, this.aiName + " stopped because of an exception", e);
+			this.failure = e;
+			this.scheduler.deregister(this.schedulerIndex);
+		}
+	}
+
+	/**
+	 * 対戦が終わるまで, フレームの開始を待ってAIの処理を行うことを繰り返す．
+	 */
+	private void processingLoop() {
 		while (isFighting) {
-			synchronized (this.waitObj) {
-				try {
-					this.waitObj.wait();
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
+			long frame = this.scheduler.awaitStart(this.schedulerIndex, this.lastFrame);
+			if (frame < 0) {
+				break;
 			}
+			this.lastFrame = frame;
 
 			boolean isControl;
 
 			try{
-				isControl =  this.framesData.getLast().getCharacter(this.playerNumber).isControl();
+				isControl =  this.framesData.peekLast().getCharacter(this.playerNumber).isControl();
 			} catch (NullPointerException e) {
 				// while game is not started
 				isControl = false;
 			}
 
 //			for no delay
-//			this.ai.getInformation(!this.framesData.isEmpty() ? this.framesData.removeFirst() : new FrameData(), isControl, this.framesData.getLast());
+//			this.ai.getInformation(this.framesData.poll(), isControl, this.framesData.peekLast());
 //          for delay
-			this.ai.getInformation(!this.framesData.isEmpty() ? this.framesData.removeFirst() : new FrameData(), isControl);
-			
+			long start = System.nanoTime();
+			this.ai.getInformation(this.framesData.poll(), isControl);
+			long informed = System.nanoTime();
 			this.ai.getScreenData(this.screenData);
+			long screened = System.nanoTime();
 			this.ai.processing();
-			setInput(this.ai.input());
-			ThreadController.getInstance().notifyEndProcess(this.playerNumber);
-		}
+			long processed = System.nanoTime();
+			Key input = this.ai.input();
+			long end = System.nanoTime();
 
+			setInput(input);
+			this.statistics.record(AIStatistics.GET_INFORMATION, informed - start);
+			this.statistics.record(AIStatistics.GET_SCREEN_DATA, screened - informed);
+			this.statistics.record(AIStatistics.PROCESSING, processed - screened);
+			this.statistics.record(AIStatistics.INPUT, end - processed);
+			this.statistics.record(AIStatistics.TOTAL, end - start);
+			this.scheduler.endFrame(this.schedulerIndex, frame);
+		}
 	}
 
 	/**
@@ -159,23 +259,26 @@ public class AIController extends Thread {
 	}
 
 	/**
-	 * 対戦処理後のフレームデータをリストにセットする．<br>
-	 * リストのサイズがDELAYより大きければ，最も古いフレームデータを削除する．
+	 * 対戦処理後のフレームデータをリングバッファにセットする．<br>
+	 * 遅れフレームより古いフレームデータは，AIに渡されずに読み飛ばされる．<br>
+	 * このメソッドはロックを取得しないため，対戦処理のスレッドからのみ呼び出す．
 	 *
 	 * @param fd
 	 *            対戦処理後のフレームデータ
 	 * @see FrameData
 	 */
-	public synchronized void setFrameData(FrameData fd) {
-		if(fd != null){
-			this.framesData.addLast(fd);
-		}else{
-			this.framesData.addLast(new FrameData());
-		}
+	public void setFrameData(FrameData fd) {
+		this.framesData.add(fd);
+	}
 
-		while (this.framesData.size() > DELAY) {
-			this.framesData.removeFirst();
-		}
+	/**
+	 * AIが共有の不変なフレームデータを受け取るかどうかを返す．
+	 *
+	 * @return AIが{@link ImmutableFrameDataAI}を実装している場合は{@code true}，そうでない場合は{@code false}
+	 * @see FrameData#toImmutable()
+	 */
+	public boolean isImmutableFrameDataAccepted() {
+		return this.ai instanceof ImmutableFrameDataAI;
 	}
 
 	/**
@@ -190,19 +293,24 @@ public class AIController extends Thread {
 	}
 
 	/**
-	 * リストに格納してあるフレームデータを削除する．<br>
-	 * その後，DELAY-1個の空のフレームデータをリストに格納する．
+	 * リングバッファに格納してあるフレームデータを読み飛ばし，遅れフレームの数だけ空のフレームデータを格納する．<br>
+	 * このメソッドはロックを取得しないため，対戦処理のスレッドからのみ呼び出す．
 	 */
-	public synchronized void clear() {
+	public void clear() {
 		if (this.framesData != null) {
 			this.framesData.clear();
-
-			while (this.framesData.size() < DELAY) {
-				this.framesData.add(new FrameData());
-			}
 		}
 	}
 
+	/**
+	 * AIに渡すフレームデータの遅れフレームを返す．
+	 *
+	 * @return 遅れフレーム
+	 */
+	public int getDelay() {
+		return this.delay;
+	}
+
 	/**
 	 * 現在のラウンド終了時の結果をAIに渡す．
 	 *
@@ -220,9 +328,52 @@ public class AIController extends Thread {
 	 */
 	public synchronized void gameEnd() {
 		this.isFighting = false;
-		synchronized (this.waitObj) {
-			this.ai.close();
-			this.waitObj.notifyAll();
+		this.ai.close();
+		if (this.scheduler != null) {
+			this.scheduler.deregister(this.schedulerIndex);
+		}
+		if (this.statistics != null) {
+			this.statistics.unregister();
 		}
 	}
+
+	/**
+	 * AIの名前をセットする．<br>
+	 * 名前は統計の表示に用いられる．既定値はAIのクラス名である．
+	 *
+	 * @param aiName
+	 *            AIの名前
+	 */
+	public void setAIName(String aiName) {
+		this.aiName = aiName;
+	}
+
+	/**
+	 * AIの名前を返す．
+	 *
+	 * @return AIの名前
+	 */
+	public String getAIName() {
+		return this.aiName;
+	}
+
+	/**
+	 * AIの各メソッドの処理時間などの統計を返す．<br>
+	 * {@link #initialize(FrameScheduler, GameData, boolean)}を呼び出す前は{@code null}を返す．
+	 *
+	 * @return AIの各メソッドの処理時間などの統計
+	 */
+	public AIStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * AIの処理中に発生し, AIのスレッドを終了させた例外またはエラーを返す．<br>
+	 * 例外が発生した場合, AIはそのフレーム以降キーを入力せず, 対戦処理はAIの処理を待たずに進む．
+	 *
+	 * @return AIのスレッドを終了させた例外またはエラー. 発生していない場合は{@code null}
+	 */
+	public Throwable getFailure() {
+		return this.failure;
+	}
 }
@@ -0,0 +1,122 @@
+package aiinterface;
+
+import java.util.ArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 1試合分のAIコントローラのスレッドを開始し, 試合の終了時にそれらの終了を待つクラス．<br>
+ * {@link #close(long)}は開始したスレッドの終了を上限の時間まで待つ．
+ * Javaではスレッドを強制的に止められないため, それまでにAIの処理から戻らなかったスレッドは警告を出力して見捨てる．
+ * 見捨てたスレッドには以降のフレームが渡されず, AIの処理から戻った時点で終了するが, それまでは試合の終了後も動き続ける．
+ * スレッドはすべてデーモンスレッドとして開始するため, 見捨てたスレッドが残っていてもJVMの終了は妨げられない．<br>
+ * 仮想スレッドを使用する場合, AIコントローラは1つのOSスレッドを占有せずに実行されるため, 1つのJVMで多数の試合を同時に行うことができる．
+ * 仮想スレッドを使用できないJava(21より前)では, 警告を出力して通常のスレッドで実行する．<br>
+ * Pythonから{@link python.PyManager#registerAI(String, AIInterface)}で登録したAIも, 他のAIと同様に実行される．
+ */
+public class AIExecutor {
+
+	/**
+	 * 仮想スレッドを生成するファクトリ．仮想スレッドを使用しない場合や使用できない場合は{@code null}．
+	 */
+	private final ThreadFactory virtualThreadFactory;
+
+	/**
+	 * 開始したスレッドのリスト．
+	 */
+	private final ArrayList<Thread> threads;
+
+	/**
+	 * 仮想スレッドを使用するかどうかを指定してインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param virtualThreads
+	 *            {@code true} 仮想スレッドでAIコントローラを実行する，{@code false} AIコントローラごとに通常のスレッドを使用する
+	 */
+	public AIExecutor(boolean virtualThreads) {
+		this.virtualThreadFactory = virtualThreads ? createVirtualThreadFactory() : null;
+		this.threads = new ArrayList<Thread>();
+	}
+
+	/**
+	 * 仮想スレッドを生成するファクトリを作成する．<br>
+	 * Java 21より前でもコンパイル及び実行できるよう, リフレクションを用いて{@code Thread.ofVirtual()}を呼び出す．
+	 *
+	 * @return 仮想スレッドを生成するファクトリ. 仮想スレッドを使用できない場合は{@code null}
+	 */
+	private static ThreadFactory createVirtualThreadFactory() {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "AIController-", 0L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			Logger.getAnonymousLogger().log(Level.WARNING,
+					"Virtual threads are not available on this Java runtime; using platform threads");
+			return null;
+		}
+	}
+
+	/**
+	 * 仮想スレッドでAIコントローラを実行するかどうかを返す．
+	 *
+	 * @return {@code true} 仮想スレッドで実行する，{@code false} 通常のスレッドで実行する
+	 */
+	public boolean isVirtual() {
+		return this.virtualThreadFactory != null;
+	}
+
+	/**
+	 * AIコントローラの処理をデーモンスレッドで開始する．<br>
+	 * 仮想スレッドを使用しない場合は, AIコントローラ自身をスレッドとして開始する．
+	 *
+	 * @param ai
+	 *            初期化済みのAIコントローラ
+	 */
+	public synchronized void start(AIController ai) {
+		Thread thread = this.virtualThreadFactory == null ? ai : this.virtualThreadFactory.newThread(ai);
+		// 仮想スレッドは常にデーモンスレッドである
+		if (!thread.isDaemon()) {
+			thread.setDaemon(true);
+		}
+		this.threads.add(thread);
+		thread.start();
+	}
+
+	/**
+	 * 開始したすべてのスレッドの終了を待つ．<br>
+	 * 各AIコントローラには, このメソッドを呼び出す前に{@link AIController#gameEnd()}で終了を通知しておく．
+	 * 処理から戻らないAIがいても試合の進行を止めないよう, 待つ時間には上限を設ける．
+	 * 上限までに終了しなかったスレッドは警告を出力して見捨てるため, このメソッドから戻った後も動き続けることがある．
+	 *
+	 * @param timeoutMillis
+	 *            すべてのスレッドの終了を待つ時間の上限(ミリ秒)
+	 *
+	 * @return {@code true} すべてのスレッドが終了した，{@code false} 終了しなかったスレッドがある
+	 */
+	public synchronized boolean close(long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		boolean terminated = true;
+
+		for (Thread thread : this.threads) {
+			try {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining > 0) {
+					thread.join(remaining);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			if (thread.isAlive()) {
+				Logger.getAnonymousLogger().log(Level.WARNING,
+						thread.getName() + " did not terminate and is abandoned; it stops when the AI returns");
+				terminated = false;
+			}
+		}
+
+		this.threads.clear();
+		return terminated;
+	}
+
+}
@@ -42,7 +42,9 @@ public interface AIInterface {
 	 * {@code !frameData.getEmptyFlag() && frameData.getRemainingTime() > 0}
 	 * holds; otherwise, NullPointerException will occur. <br>
 	 * You must also check the same condition when you use the CommandCenter
-	 * class.
+	 * class. <br>
+	 * The frame data is a copy owned by this AI unless the AI implements
+	 * {@link ImmutableFrameDataAI}.
 	 *
 	 * @param fd
 	 *            the data that will be changed each frame
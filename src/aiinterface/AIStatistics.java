@@ -0,0 +1,247 @@
+package aiinterface;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * 1つのAIについて, {@link AIController}から呼び出す各メソッドの処理時間と, 期限までに処理を終えなかったフレームの数を記録するクラス．<br>
+ * 処理時間は{@link #CALLBACKS}の処理ごとに{@link LatencyHistogram}に記録する．
+ * py4jを用いたAIの場合, {@link AIInterface#getInformation(struct.FrameData, boolean)}などの時間には, Python側とのデータのやり取りにかかる時間も含まれる．<br>
+ * 統計は{@link #register(String)}でJMXに登録して公開することができる．
+ */
+public class AIStatistics implements AIStatisticsMXBean {
+
+	/**
+	 * {@link AIInterface#getInformation(struct.FrameData, boolean)}の処理を表す番号．
+	 */
+	public static final int GET_INFORMATION = 0;
+
+	/**
+	 * {@link AIInterface#getScreenData(struct.ScreenData)}の処理を表す番号．
+	 */
+	public static final int GET_SCREEN_DATA = 1;
+
+	/**
+	 * {@link AIInterface#processing()}の処理を表す番号．
+	 */
+	public static final int PROCESSING = 2;
+
+	/**
+	 * {@link AIInterface#input()}の処理を表す番号．
+	 */
+	public static final int INPUT = 3;
+
+	/**
+	 * 1フレーム分の処理全体を表す番号．
+	 */
+	public static final int TOTAL = 4;
+
+	/**
+	 * 各処理の名前．インデックスは処理を表す番号である．
+	 */
+	public static final String[] CALLBACKS = { "getInformation", "getScreenData", "processing", "input", "total" };
+
+	/**
+	 * AIの名前．
+	 */
+	private final String aiName;
+
+	/**
+	 * 期限までに処理を終えなかったフレームの数を管理するスケジューラ．
+	 */
+	private final FrameScheduler scheduler;
+
+	/**
+	 * スケジューラ上のAIの番号．
+	 */
+	private final int schedulerIndex;
+
+	/**
+	 * 各処理の時間を記録するヒストグラム．
+	 */
+	private final LatencyHistogram[] histograms;
+
+	/**
+	 * 最後に統計をリセットした時点での, 期限までに処理を終えなかったフレームの数．
+	 */
+	private volatile long missedFrameBase;
+
+	/**
+	 * JMXに登録した名前．登録していない場合は{@code null}．
+	 */
+	private ObjectName objectName;
+
+	/**
+	 * AIの名前とスケジューラ上の番号を指定してインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param aiName
+	 *            AIの名前
+	 * @param scheduler
+	 *            期限までに処理を終えなかったフレームの数を管理するスケジューラ
+	 * @param schedulerIndex
+	 *            スケジューラ上のAIの番号
+	 */
+	public AIStatistics(String aiName, FrameScheduler scheduler, int schedulerIndex) {
+		this.aiName = aiName;
+		this.scheduler = scheduler;
+		this.schedulerIndex = schedulerIndex;
+		this.histograms = new LatencyHistogram[CALLBACKS.length];
+		for (int i = 0; i < CALLBACKS.length; i++) {
+			this.histograms[i] = new LatencyHistogram();
+		}
+		this.missedFrameBase = scheduler.getMissedFrames(schedulerIndex);
+	}
+
+	/**
+	 * 処理時間を記録する．AIのスレッドからのみ呼び出す．
+	 *
+	 * @param callback
+	 *            処理を表す番号
+	 * @param nanos
+	 *            処理時間(ナノ秒)
+	 */
+	public void record(int callback, long nanos) {
+		this.histograms[callback].record(nanos);
+	}
+
+	/**
+	 * 指定した処理の時間を記録したヒストグラムを返す．
+	 *
+	 * @param callback
+	 *            処理を表す番号
+	 *
+	 * @return 処理の時間を記録したヒストグラム
+	 */
+	public LatencyHistogram getHistogram(int callback) {
+		return this.histograms[callback];
+	}
+
+	@Override
+	public String getAIName() {
+		return this.aiName;
+	}
+
+	@Override
+	public long getProcessedFrames() {
+		return this.histograms[TOTAL].getCount();
+	}
+
+	@Override
+	public long getMissedFrames() {
+		return this.scheduler.getMissedFrames(this.schedulerIndex) - this.missedFrameBase;
+	}
+
+	@Override
+	public Map<String, Long> getMeanNanos() {
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < CALLBACKS.length; i++) {
+			values.put(CALLBACKS[i], this.histograms[i].getMean());
+		}
+		return values;
+	}
+
+	@Override
+	public Map<String, Long> getP50Nanos() {
+		return getPercentiles(50);
+	}
+
+	@Override
+	public Map<String, Long> getP99Nanos() {
+		return getPercentiles(99);
+	}
+
+	@Override
+	public Map<String, Long> getMaxNanos() {
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < CALLBACKS.length; i++) {
+			values.put(CALLBACKS[i], this.histograms[i].getMax());
+		}
+		return values;
+	}
+
+	/**
+	 * 各処理の時間の百分位数を返す．
+	 *
+	 * @param percentile
+	 *            百分位
+	 *
+	 * @return 処理の名前をキーとし, 百分位数を値とするマップ
+	 */
+	private Map<String, Long> getPercentiles(double percentile) {
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < CALLBACKS.length; i++) {
+			values.put(CALLBACKS[i], this.histograms[i].getPercentile(percentile));
+		}
+		return values;
+	}
+
+	@Override
+	public void reset() {
+		for (LatencyHistogram histogram : this.histograms) {
+			histogram.reset();
+		}
+		this.missedFrameBase = this.scheduler.getMissedFrames(this.schedulerIndex);
+	}
+
+	/**
+	 * 統計をJMXのプラットフォームMBeanサーバに登録する．<br>
+	 * 同じ名前で登録済みのものがあれば置き換える．登録に失敗した場合は警告を出力し, 対戦は続行する．
+	 *
+	 * @param name
+	 *            登録する名前に含めるプレイヤーの名前(例: P1)
+	 */
+	public void register(String name) {
+		register(null, name);
+	}
+
+	/**
+	 * 試合の名前を含めて, 統計をJMXのプラットフォームMBeanサーバに登録する．<br>
+	 * 同時に行う複数の試合の統計を区別するために用いる．
+	 *
+	 * @param match
+	 *            登録する名前に含める試合の名前. {@code null}の場合は含めない
+	 * @param name
+	 *            登録する名前に含めるプレイヤーの名前(例: P1)
+	 */
+	public synchronized void register(String match, String name) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			String properties = match == null ? "" : ",match=" + ObjectName.quote(match);
+			ObjectName objectName = new ObjectName("FightingICE:type=AIStatistics" + properties + ",name=" + name);
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(this, objectName);
+			this.objectName = objectName;
+		} catch (JMException e) {
+			Logger.getAnonymousLogger().log(Level.WARNING, "Cannot register the AI statistics: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * 統計をJMXのプラットフォームMBeanサーバから削除する．登録していない場合は何もしない．
+	 */
+	public synchronized void unregister() {
+		if (this.objectName == null) {
+			return;
+		}
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(this.objectName)) {
+				server.unregisterMBean(this.objectName);
+			}
+		} catch (JMException e) {
+			Logger.getAnonymousLogger().log(Level.WARNING, "Cannot unregister the AI statistics: " + e.getMessage());
+		}
+		this.objectName = null;
+	}
+
+}
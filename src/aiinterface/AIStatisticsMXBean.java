@@ -0,0 +1,68 @@
+package aiinterface;
+
+import java.util.Map;
+
+/**
+ * JMXを通じてAIの処理時間の統計を公開するためのインタフェース．<br>
+ * 各属性の値は, {@link AIStatistics#CALLBACKS}の名前をキーとし, 処理時間(ナノ秒)を値とするマップである．
+ * 統計はラウンドの開始時にリセットされる．
+ *
+ * @see AIStatistics
+ */
+public interface AIStatisticsMXBean {
+
+	/**
+	 * AIの名前を返す．
+	 *
+	 * @return AIの名前
+	 */
+	String getAIName();
+
+	/**
+	 * AIが処理したフレームの数を返す．
+	 *
+	 * @return AIが処理したフレームの数
+	 */
+	long getProcessedFrames();
+
+	/**
+	 * AIが期限までに処理を終えなかったフレームの数を返す．
+	 *
+	 * @return AIが期限までに処理を終えなかったフレームの数
+	 */
+	long getMissedFrames();
+
+	/**
+	 * 各処理の時間の平均を返す．
+	 *
+	 * @return 各処理の時間の平均
+	 */
+	Map<String, Long> getMeanNanos();
+
+	/**
+	 * 各処理の時間の中央値を返す．
+	 *
+	 * @return 各処理の時間の中央値
+	 */
+	Map<String, Long> getP50Nanos();
+
+	/**
+	 * 各処理の時間の99パーセンタイル値を返す．
+	 *
+	 * @return 各処理の時間の99パーセンタイル値
+	 */
+	Map<String, Long> getP99Nanos();
+
+	/**
+	 * 各処理の時間の最大値を返す．
+	 *
+	 * @return 各処理の時間の最大値
+	 */
+	Map<String, Long> getMaxNanos();
+
+	/**
+	 * 統計をリセットする．
+	 */
+	void reset();
+
+}
@@ -1,8 +1,14 @@
 package aiinterface;
 
+import java.util.Arrays;
 import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 
+import command.CommandRecognizer;
+import enumerate.Action;
 import struct.FrameData;
 import struct.Key;
 
@@ -12,6 +18,33 @@ import struct.Key;
  */
 public class CommandCenter {
 
+	/**
+	 * The key sequences of the actions when the character faces right.<br>
+	 * Each key is packed into the bits used by {@link CommandRecognizer}. The
+	 * sequences are built once from the command strings of the actions so that
+	 * {@link #commandCall(Action)} does not need to parse strings.
+	 */
+	private static final Map<Action, int[]> FRONT_KEYS = new EnumMap<Action, int[]>(Action.class);
+
+	/**
+	 * The key sequences of the actions when the character faces left.
+	 */
+	private static final Map<Action, int[]> BACK_KEYS = new EnumMap<Action, int[]>(Action.class);
+
+	/**
+	 * The map from the action names to the actions.
+	 */
+	private static final Map<String, Action> ACTIONS = new HashMap<String, Action>();
+
+	static {
+		for (Action action : Action.values()) {
+			String command = actionToCommand(action.name());
+			FRONT_KEYS.put(action, parseKeys(command, true));
+			BACK_KEYS.put(action, parseKeys(command, false));
+			ACTIONS.put(action.name(), action);
+		}
+	}
+
 	/**
 	 * The list storing the converted keys.
 	 */
@@ -37,6 +70,20 @@ public class CommandCenter {
 		this.playerNumber = true;
 	}
 
+	/**
+	 * The copy constructor that creates a new instance of the CommandCenter
+	 * class by copying the keys waiting to be executed, the frame data and the
+	 * side flag of the given instance.
+	 *
+	 * @param commandCenter
+	 *            an instance of the CommandCenter class
+	 */
+	public CommandCenter(CommandCenter commandCenter) {
+		this.skillKey = new LinkedList<Key>(commandCenter.skillKey);
+		this.frameData = commandCenter.frameData;
+		this.playerNumber = commandCenter.playerNumber;
+	}
+
 	/**
 	 * Converts the action name entered by AI into Key and stores it in the list of keys waiting to be executed.<br>
 	 * If there are unexecuted keys in the list, this method does nothing.
@@ -47,161 +94,185 @@ public class CommandCenter {
 	public void commandCall(String str) {
 		// If there is no unexecuted key in the list
 		if (this.skillKey.isEmpty()) {
-			actionToCommand(str);
+			Action action = ACTIONS.get(str);
+			if (action != null) {
+				addKeys(action);
+			} else {
+				addKeys(parseKeys(actionToCommand(str), isFront()));
+			}
+		}
+	}
+
+	/**
+	 * Converts the action entered by AI into Key and stores it in the list of
+	 * keys waiting to be executed.<br>
+	 * Unlike {@link #commandCall(String)}, this method uses the key sequence
+	 * precompiled for the action and does not parse any string.<br>
+	 * If there are unexecuted keys in the list, this method does nothing.
+	 *
+	 * @param action
+	 *            an action
+	 */
+	public void commandCall(Action action) {
+		// If there is no unexecuted key in the list
+		if (this.skillKey.isEmpty()) {
+			addKeys(action);
+		}
+	}
+
+	/**
+	 * Adds the precompiled key sequence of the action to the list of keys
+	 * waiting to be executed, according to the direction the character is
+	 * facing.
+	 *
+	 * @param action
+	 *            an action
+	 */
+	private void addKeys(Action action) {
+		addKeys(isFront() ? FRONT_KEYS.get(action) : BACK_KEYS.get(action));
+	}
+
+	/**
+	 * Adds new keys corresponding to the packed keys to the list of keys
+	 * waiting to be executed.
+	 *
+	 * @param keys
+	 *            the packed keys
+	 */
+	private void addKeys(int[] keys) {
+		for (int key : keys) {
+			this.skillKey.add(CommandRecognizer.unpack(key));
 		}
 	}
 
 	/**
-	 * Converts the action name to a command and creates a key corresponding to the command.
+	 * Returns whether the character is facing right in the current frame data.
+	 *
+	 * @return {@code true} if the character is facing right, {@code false}
+	 *         otherwise
+	 */
+	private boolean isFront() {
+		return this.frameData.getCharacter(this.playerNumber).isFront();
+	}
+
+	/**
+	 * Converts the action name to a command.<br>
+	 * A name that is not an action with a command is returned as is, so that
+	 * AI can also enter a command directly.
 	 *
 	 * @param str
 	 *            an action name
+	 *
+	 * @return the command corresponding to the action name
 	 */
-	private void actionToCommand(String str) {
+	private static String actionToCommand(String str) {
 		switch (str) {
 		case "FORWARD_WALK":
-			createKeys("6");
-			break;
+			return "6";
 		case "DASH":
-			createKeys("6 5 6");
-			break;
+			return "6 5 6";
 		case "BACK_STEP":
-			createKeys("4 5 4");
-			break;
+			return "4 5 4";
 		case "CROUCH":
-			createKeys("2");
-			break;
+			return "2";
 		case "JUMP":
-			createKeys("8");
-			break;
+			return "8";
 		case "FOR_JUMP":
-			createKeys("9");
-			break;
+			return "9";
 		case "BACK_JUMP":
-			createKeys("7");
-			break;
+			return "7";
 		case "STAND_GUARD":
-			createKeys("4");
-			break;
+			return "4";
 		case "CROUCH_GUARD":
-			createKeys("1");
-			break;
+			return "1";
 		case "AIR_GUARD":
-			createKeys("7");
-			break;
+			return "7";
 		case "THROW_A":
-			createKeys("4 _ A");
-			break;
+			return "4 _ A";
 		case "THROW_B":
-			createKeys("4 _ B");
-			break;
+			return "4 _ B";
 		case "STAND_A":
-			createKeys("A");
-			break;
+			return "A";
 		case "STAND_B":
-			createKeys("B");
-			break;
+			return "B";
 		case "CROUCH_A":
-			createKeys("2 _ A");
-			break;
+			return "2 _ A";
 		case "CROUCH_B":
-			createKeys("2 _ B");
-			break;
+			return "2 _ B";
 		case "AIR_A":
-			createKeys("A");
-			break;
+			return "A";
 		case "AIR_B":
-			createKeys("B");
-			break;
+			return "B";
 		case "AIR_DA":
-			createKeys("2 _ A");
-			break;
+			return "2 _ A";
 		case "AIR_DB":
-			createKeys("2 _ B");
-			break;
+			return "2 _ B";
 		case "STAND_FA":
-			createKeys("6 _ A");
-			break;
+			return "6 _ A";
 		case "STAND_FB":
-			createKeys("6 _ B");
-			break;
+			return "6 _ B";
 		case "CROUCH_FA":
-			createKeys("3 _ A");
-			break;
+			return "3 _ A";
 		case "CROUCH_FB":
-			createKeys("3 _ B");
-			break;
+			return "3 _ B";
 		case "AIR_FA":
-			createKeys("9 _ A");
-			break;
+			return "9 _ A";
 		case "AIR_FB":
-			createKeys("9 _ B");
-			break;
+			return "9 _ B";
 		case "AIR_UA":
-			createKeys("8 _ A");
-			break;
+			return "8 _ A";
 		case "AIR_UB":
-			createKeys("8 _ B");
-			break;
+			return "8 _ B";
 		case "STAND_D_DF_FA":
-			createKeys("2 3 6 _ A");
-			break;
+			return "2 3 6 _ A";
 		case "STAND_D_DF_FB":
-			createKeys("2 3 6 _ B");
-			break;
+			return "2 3 6 _ B";
 		case "STAND_F_D_DFA":
-			createKeys("6 2 3 _ A");
-			break;
+			return "6 2 3 _ A";
 		case "STAND_F_D_DFB":
-			createKeys("6 2 3 _ B");
-			break;
+			return "6 2 3 _ B";
 		case "STAND_D_DB_BA":
-			createKeys("2 1 4 _ A");
-			break;
+			return "2 1 4 _ A";
 		case "STAND_D_DB_BB":
-			createKeys("2 1 4 _ B");
-			break;
+			return "2 1 4 _ B";
 		case "AIR_D_DF_FA":
-			createKeys("2 3 6 _ A");
-			break;
+			return "2 3 6 _ A";
 		case "AIR_D_DF_FB":
-			createKeys("2 3 6 _ B");
-			break;
+			return "2 3 6 _ B";
 		case "AIR_F_D_DFA":
-			createKeys("6 2 3 _ A");
-			break;
+			return "6 2 3 _ A";
 		case "AIR_F_D_DFB":
-			createKeys("6 2 3 _ B");
-			break;
+			return "6 2 3 _ B";
 		case "AIR_D_DB_BA":
-			createKeys("2 1 4 _ A");
-			break;
+			return "2 1 4 _ A";
 		case "AIR_D_DB_BB":
-			createKeys("2 1 4 _ B");
-			break;
+			return "2 1 4 _ B";
 		case "STAND_D_DF_FC":
-			createKeys("2 3 6 _ C");
-			break;
+			return "2 3 6 _ C";
 		default:
-			createKeys(str);
-			break;
+			return str;
 		}
-
 	}
 
 	/**
-	 * Creates a key corresponding to a command name.
+	 * Creates the keys corresponding to a command.
 	 *
 	 * @param str
-	 *            a command name
+	 *            a command
+	 * @param isFront
+	 *            the direction the character is facing
+	 *
+	 * @return the keys packed into the bits used by {@link CommandRecognizer}
 	 */
-	private void createKeys(String str) {
+	private static int[] parseKeys(String str, boolean isFront) {
 		Key buf;
 		String[] commands = str.split(" ");
-		if (!this.frameData.getCharacter(playerNumber).isFront()) {
+		if (!isFront) {
 			commands = reverseKey(commands);
 		}
 
+		int[] keys = new int[commands.length];
+		int count = 0;
 		int index = 0;
 		while (index < commands.length) {
 			buf = new Key();
@@ -237,9 +308,10 @@ public class CommandCenter {
 			} else if (commands[index].equals("C")) {
 				buf.C = true;
 			}
-			skillKey.add(buf);
+			keys[count++] = CommandRecognizer.pack(buf);
 			index++;
 		}
+		return Arrays.copyOf(keys, count);
 	}
 
 	/**
@@ -288,6 +360,18 @@ public class CommandCenter {
 		return new LinkedList<Key>(this.skillKey);
 	}
 
+	/**
+	 * Replaces the list of keys waiting to be executed with a copy of the
+	 * given keys.<br>
+	 * This method is used by the simulator to restore a saved state.
+	 *
+	 * @param skillKeys
+	 *            the keys waiting to be executed
+	 */
+	public void setSkillKeys(Deque<Key> skillKeys) {
+		this.skillKey = new LinkedList<Key>(skillKeys);
+	}
+
 	/**
 	 * Deletes all the keys from the list of keys waiting to be executed.
 	 */
@@ -312,7 +396,7 @@ public class CommandCenter {
 	 *
 	 * @return an array that contains the command after processing
 	 */
-	private String[] reverseKey(String[] commands) {
+	private static String[] reverseKey(String[] commands) {
 		String[] buffer = new String[commands.length];
 		for (int i = 0; i < commands.length; i++) {
 			if (commands[i].equals("L") || commands[i].equals("4")) {
@@ -0,0 +1,128 @@
+package aiinterface;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import struct.FrameData;
+
+/**
+ * AIに渡すフレームデータを指定したフレーム数だけ遅らせるためのリングバッファ．<br>
+ * 対戦処理のスレッドのみが{@link #add(FrameData)}及び{@link #clear()}を呼び出し,
+ * AIのスレッドのみが{@link #poll()}及び{@link #peekLast()}を呼び出すことを前提とした, ロックを用いない単一生産者・単一消費者のキューである．<br>
+ * 配列は生成時に確保し, フレームデータの追加や取り出しでオブジェクトを生成しない．
+ * 保持しているフレームデータが遅れフレーム数を超えた場合は, 最も古いものから読み飛ばされる．
+ */
+public class FrameDelayBuffer {
+
+	/**
+	 * 空のフレームデータ．
+	 */
+	private static final FrameData EMPTY_FRAME_DATA = new FrameData().toImmutable();
+
+	/**
+	 * 遅れフレーム数．
+	 */
+	private final int delay;
+
+	/**
+	 * フレームデータを格納する配列．<br>
+	 * 書き込み中の要素を読み出していないことを確認できるよう, 遅れフレーム数より1つ長く確保する．
+	 */
+	private final AtomicReferenceArray<FrameData> slots;
+
+	/**
+	 * これまでに追加されたフレームデータの数．<br>
+	 * 対戦処理のスレッドのみが更新し, 配列への書き込みの後に更新することでAIのスレッドに書き込みを公開する．
+	 */
+	private volatile long writeCount;
+
+	/**
+	 * 次に取り出すフレームデータの通し番号．AIのスレッドのみが参照する．
+	 */
+	private long readCount;
+
+	/**
+	 * 遅れフレーム数を指定してインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param delay
+	 *            遅れフレーム数. 1以上である必要がある
+	 */
+	public FrameDelayBuffer(int delay) {
+		if (delay < 1) {
+			throw new IllegalArgumentException("The delay must be positive: " + delay);
+		}
+
+		this.delay = delay;
+		this.slots = new AtomicReferenceArray<FrameData>(delay + 1);
+		this.writeCount = 0;
+		this.readCount = 0;
+	}
+
+	/**
+	 * フレームデータを末尾に追加する．対戦処理のスレッドからのみ呼び出す．
+	 *
+	 * @param frameData
+	 *            フレームデータ. {@code null}の場合は空のフレームデータを追加する
+	 */
+	public void add(FrameData frameData) {
+		long count = this.writeCount;
+		this.slots.lazySet((int) (count % this.slots.length()), frameData != null ? frameData : EMPTY_FRAME_DATA);
+		this.writeCount = count + 1;
+	}
+
+	/**
+	 * 保持しているフレームデータを全て読み飛ばし, 遅れフレーム数だけ空のフレームデータを追加する．<br>
+	 * 対戦処理のスレッドからのみ呼び出す．
+	 */
+	public void clear() {
+		for (int i = 0; i < this.delay; i++) {
+			add(EMPTY_FRAME_DATA);
+		}
+	}
+
+	/**
+	 * 最も古いフレームデータを取り出す．AIのスレッドからのみ呼び出す．<br>
+	 * 遅れフレーム数より古いフレームデータは読み飛ばす．
+	 *
+	 * @return 最も古いフレームデータ. 保持しているフレームデータが無い場合は空のフレームデータ
+	 */
+	public FrameData poll() {
+		while (true) {
+			long count = this.writeCount;
+			long read = Math.max(this.readCount, count - this.delay);
+			if (read == count) {
+				this.readCount = read;
+				return EMPTY_FRAME_DATA;
+			}
+
+			FrameData frameData = this.slots.get((int) (read % this.slots.length()));
+			// 読み出している間に要素が上書きされていなければ, 取り出したフレームデータは正しい
+			if (this.writeCount - read < this.slots.length()) {
+				this.readCount = read + 1;
+				return frameData;
+			}
+		}
+	}
+
+	/**
+	 * 最も新しいフレームデータを, 取り出さずに返す．AIのスレッドからのみ呼び出す．
+	 *
+	 * @return 最も新しいフレームデータ. フレームデータが1つも追加されていない場合は空のフレームデータ
+	 */
+	public FrameData peekLast() {
+		long count = this.writeCount;
+		if (count == 0) {
+			return EMPTY_FRAME_DATA;
+		}
+		return this.slots.get((int) ((count - 1) % this.slots.length()));
+	}
+
+	/**
+	 * 遅れフレーム数を返す．
+	 *
+	 * @return 遅れフレーム数
+	 */
+	public int getDelay() {
+		return this.delay;
+	}
+
+}
@@ -0,0 +1,356 @@
+package aiinterface;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 対戦処理のスレッドと複数のAIのスレッドを, フレーム単位で同期させるクラス．<br>
+ * 対戦処理のスレッドは{@link #startFrame()}でフレームを開始し, Fastmodeでは{@link #awaitEnd(long, long)}で各AIの処理の終了を待つ．
+ * AIのスレッドは{@link #awaitStart(int, long)}でフレームの開始を待ち, 処理を終えると{@link #endFrame(int, long)}を呼び出す．<br>
+ * 同期はwait/notifyではなく, 単調に増加するフレームの番号を比較して行う．
+ * そのため, 待ち始める前に届いた通知が失われることはない．
+ * 待機中のスレッドは一定回数スピンした後にパークするため, 処理が短いAIとの同期ではコンテキストスイッチが発生しにくい．<br>
+ * 各AIについて, フレームの開始を待っていた時間と, フレームの開始から処理の終了までにかかった時間を記録する．<br>
+ * 期限を設けて待つ場合, 前のフレームの期限までに処理を終えなかったAIは, そのフレームの処理を終えるまで待たずにフレームを逃したものとして扱う．
+ * そのため, 応答しなくなったAIがいても, 1フレームあたりの待ち時間は期限を超えない．
+ */
+public class FrameScheduler {
+
+	/**
+	 * パークする前にスピンする回数．
+	 */
+	private static final int SPIN_COUNT = 128;
+
+	/**
+	 * 1つのAIのスレッドの同期の状態を表すクラス．
+	 */
+	private static class Slot {
+
+		/**
+		 * 対戦処理のスレッドがこのAIの処理の終了を待つかどうかのフラグ．
+		 */
+		volatile boolean registered;
+
+		/**
+		 * 処理を終えた最新のフレームの番号．
+		 */
+		volatile long completedFrame;
+
+		/**
+		 * フレームの開始を待っているAIのスレッド．
+		 */
+		volatile Thread thread;
+
+		/**
+		 * フレームの開始を待っていた時間の合計(ナノ秒)．
+		 */
+		volatile long waitNanos;
+
+		/**
+		 * フレームの開始から処理の終了までにかかった時間の合計(ナノ秒)．
+		 */
+		volatile long processingNanos;
+
+		/**
+		 * 処理を終えたフレームの数．
+		 */
+		volatile long processedFrames;
+
+		/**
+		 * 期限までに処理を終えなかったフレームの数．
+		 */
+		volatile long missedFrames;
+	}
+
+	/**
+	 * 各AIの同期の状態．
+	 */
+	private final Slot[] slots;
+
+	/**
+	 * 最後に開始したフレームの番号．
+	 */
+	private volatile long currentFrame;
+
+	/**
+	 * 最後にフレームを開始した時刻(ナノ秒)．
+	 */
+	private volatile long frameStartNanos;
+
+	/**
+	 * 各AIの処理の終了を待っている対戦処理のスレッド．
+	 */
+	private volatile Thread waiter;
+
+	/**
+	 * 同期するAIの数を指定してインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param controllerNumber
+	 *            同期するAIの数
+	 */
+	public FrameScheduler(int controllerNumber) {
+		this.slots = new Slot[controllerNumber];
+		for (int i = 0; i < controllerNumber; i++) {
+			this.slots[i] = new Slot();
+		}
+		this.currentFrame = 0;
+	}
+
+	/**
+	 * 指定したAIを同期の対象に加え, 記録した時間をリセットする．<br>
+	 * 対戦処理のスレッドから, AIのスレッドを開始する前に呼び出す．
+	 *
+	 * @param index
+	 *            AIの番号
+	 *
+	 * @return 現在のフレームの番号. AIのスレッドはこの番号より後のフレームの開始を待つ
+	 */
+	public long register(int index) {
+		Slot slot = this.slots[index];
+		long frame = this.currentFrame;
+		slot.completedFrame = frame;
+		slot.thread = null;
+		slot.waitNanos = 0;
+		slot.processingNanos = 0;
+		slot.processedFrames = 0;
+		slot.missedFrames = 0;
+		slot.registered = true;
+		return frame;
+	}
+
+	/**
+	 * 指定したAIを同期の対象から外し, フレームの開始を待っているAIのスレッドを再開させる．
+	 *
+	 * @param index
+	 *            AIの番号
+	 */
+	public void deregister(int index) {
+		Slot slot = this.slots[index];
+		slot.registered = false;
+		unpark(slot.thread);
+		unpark(this.waiter);
+	}
+
+	/**
+	 * 新たなフレームを開始し, フレームの開始を待っている全てのAIのスレッドを再開させる．<br>
+	 * 対戦処理のスレッドからのみ呼び出す．
+	 *
+	 * @return 開始したフレームの番号
+	 */
+	public long startFrame() {
+		long frame = this.currentFrame + 1;
+		this.frameStartNanos = System.nanoTime();
+		this.currentFrame = frame;
+		for (Slot slot : this.slots) {
+			if (slot.registered) {
+				unpark(slot.thread);
+			}
+		}
+		return frame;
+	}
+
+	/**
+	 * 指定したフレームより後のフレームが開始されるまで待つ．<br>
+	 * 指定したAIのスレッドからのみ呼び出す．
+	 * 待っている間に複数のフレームが開始された場合は, 最新のフレームの番号を返す．
+	 *
+	 * @param index
+	 *            AIの番号
+	 * @param lastFrame
+	 *            最後に処理したフレームの番号
+	 *
+	 * @return 開始されたフレームの番号. 待っている間にAIが同期の対象から外された場合は-1
+	 */
+	public long awaitStart(int index, long lastFrame) {
+		Slot slot = this.slots[index];
+		long start = System.nanoTime();
+		slot.thread = Thread.currentThread();
+
+		long frame;
+		int spins = 0;
+		while ((frame = this.currentFrame) <= lastFrame) {
+			if (!slot.registered) {
+				return -1;
+			}
+			if (spins < SPIN_COUNT) {
+				spins++;
+				Thread.yield();
+			} else {
+				LockSupport.park(this);
+			}
+		}
+
+		slot.waitNanos += System.nanoTime() - start;
+		return slot.registered ? frame : -1;
+	}
+
+	/**
+	 * 指定したAIが指定したフレームの処理を終えたことを記録し, 処理の終了を待っている対戦処理のスレッドを再開させる．<br>
+	 * 指定したAIのスレッドからのみ呼び出す．
+	 *
+	 * @param index
+	 *            AIの番号
+	 * @param frame
+	 *            処理を終えたフレームの番号
+	 */
+	public void endFrame(int index, long frame) {
+		Slot slot = this.slots[index];
+		if (frame == this.currentFrame) {
+			slot.processingNanos += System.nanoTime() - this.frameStartNanos;
+		}
+		slot.processedFrames++;
+		slot.completedFrame = frame;
+		unpark(this.waiter);
+	}
+
+	/**
+	 * 同期の対象である全てのAIが指定したフレームの処理を終えるか, 期限を過ぎるまで待つ．<br>
+	 * 対戦処理のスレッドからのみ呼び出す．期限までに処理を終えなかったAIは, そのフレームを逃したものとして記録する．<br>
+	 * 期限を設ける場合, 前のフレームの処理を終えていないAIは待たずに, そのフレームを逃したものとして記録する．
+	 *
+	 * @param frame
+	 *            フレームの番号
+	 * @param timeoutNanos
+	 *            待つ時間の上限(ナノ秒). 0以下の場合は期限を設けない
+	 *
+	 * @return {@code true} 全てのAIが処理を終えた，{@code false} 期限までに処理を終えなかったAIがいる
+	 */
+	public boolean awaitEnd(long frame, long timeoutNanos) {
+		long deadline = System.nanoTime() + timeoutNanos;
+		this.waiter = Thread.currentThread();
+
+		// A controller still processing an earlier frame is not waited for
+		long waitedFrame = timeoutNanos > 0 ? frame - 1 : Long.MIN_VALUE;
+
+		try {
+			int spins = 0;
+			while (!isCompleted(frame, waitedFrame)) {
+				if (spins < SPIN_COUNT) {
+					spins++;
+					Thread.yield();
+				} else if (timeoutNanos <= 0) {
+					LockSupport.park(this);
+				} else {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						break;
+					}
+					LockSupport.parkNanos(this, remaining);
+				}
+			}
+			return !recordMissed(frame);
+
+		} finally {
+			this.waiter = null;
+		}
+	}
+
+	/**
+	 * 待つ対象である全てのAIが指定したフレームの処理を終えているかどうかを返す．
+	 *
+	 * @param frame
+	 *            フレームの番号
+	 * @param waitedFrame
+	 *            待つ対象とするAIが処理を終えている必要があるフレームの番号. これより前のフレームを処理中のAIは待たない
+	 *
+	 * @return {@code true} 待つ対象である全てのAIが処理を終えている，{@code false} otherwise
+	 */
+	private boolean isCompleted(long frame, long waitedFrame) {
+		for (Slot slot : this.slots) {
+			long completed = slot.completedFrame;
+			if (slot.registered && completed < frame && completed >= waitedFrame) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 指定したフレームの処理を終えていないAIについて, フレームを逃したことを記録する．
+	 *
+	 * @param frame
+	 *            フレームの番号
+	 *
+	 * @return {@code true} フレームを逃したAIがいる，{@code false} otherwise
+	 */
+	private boolean recordMissed(long frame) {
+		boolean missed = false;
+		for (Slot slot : this.slots) {
+			if (slot.registered && slot.completedFrame < frame) {
+				slot.missedFrames++;
+				missed = true;
+			}
+		}
+		return missed;
+	}
+
+	/**
+	 * 指定したスレッドがパークしていれば再開させる．
+	 *
+	 * @param thread
+	 *            スレッド. {@code null}の場合は何もしない
+	 */
+	private static void unpark(Thread thread) {
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * 指定したAIのスレッドがフレームの開始を待っていた時間の合計を返す．
+	 *
+	 * @param index
+	 *            AIの番号
+	 *
+	 * @return フレームの開始を待っていた時間の合計(ナノ秒)
+	 */
+	public long getWaitNanos(int index) {
+		return this.slots[index].waitNanos;
+	}
+
+	/**
+	 * 指定したAIがフレームの開始から処理の終了までにかかった時間の合計を返す．<br>
+	 * 処理中に次のフレームが開始された場合, そのフレームの時間は含まない．
+	 *
+	 * @param index
+	 *            AIの番号
+	 *
+	 * @return フレームの開始から処理の終了までにかかった時間の合計(ナノ秒)
+	 */
+	public long getProcessingNanos(int index) {
+		return this.slots[index].processingNanos;
+	}
+
+	/**
+	 * 指定したAIが処理を終えたフレームの数を返す．
+	 *
+	 * @param index
+	 *            AIの番号
+	 *
+	 * @return 処理を終えたフレームの数
+	 */
+	public long getProcessedFrames(int index) {
+		return this.slots[index].processedFrames;
+	}
+
+	/**
+	 * 指定したAIが期限までに処理を終えなかったフレームの数を返す．
+	 *
+	 * @param index
+	 *            AIの番号
+	 *
+	 * @return 期限までに処理を終えなかったフレームの数
+	 */
+	public long getMissedFrames(int index) {
+		return this.slots[index].missedFrames;
+	}
+
+	/**
+	 * 同期するAIの数を返す．
+	 *
+	 * @return 同期するAIの数
+	 */
+	public int getControllerNumber() {
+		return this.slots.length;
+	}
+
+}
@@ -0,0 +1,18 @@
+package aiinterface;
+
+import struct.FrameData;
+
+/**
+ * The interface that an AI implements instead of {@link AIInterface} to
+ * receive the frame data without copying it.<br>
+ * By default, each AI receives its own modifiable copy of the frame data in
+ * {@link AIInterface#getInformation(FrameData)}. An AI implementing this
+ * interface instead receives a read-only instance created by
+ * {@link FrameData#toImmutable()} and shared with the other AI, so the
+ * character and projectile data obtained from it cannot be modified. Copy
+ * them, e.g. with {@code new CharacterData(fd.getCharacter(true))}, before
+ * modifying them.
+ */
+public interface ImmutableFrameDataAI extends AIInterface {
+
+}
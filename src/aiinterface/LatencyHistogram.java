@@ -0,0 +1,192 @@
+package aiinterface;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 処理時間(ナノ秒)の分布を記録するヒストグラム．<br>
+ * 2のべき乗ごとの区間をさらに16等分したバケットに記録するため, 記録や百分位数の計算でオブジェクトを生成せず,
+ * 百分位数の相対誤差は1/16以下である．<br>
+ * 記録は1つのスレッドのみが行い, 他のスレッドは記録中の値を読み出してよい．
+ * 読み出した値はわずかに古い場合があるが, 統計の表示には十分である．<br>
+ * {@link #reset()}は任意のスレッドから呼び出してよい．記録したデータはまとめて新しいものに置き換えるため,
+ * リセットと同時に行われた記録がリセット後のデータに古い値を書き戻すことはない．
+ */
+public class LatencyHistogram {
+
+	/**
+	 * 2のべき乗ごとの区間を分割する数の対数．
+	 */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/**
+	 * 2のべき乗ごとの区間を分割する数．
+	 */
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * バケットの数．
+	 */
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	/**
+	 * 現在記録しているデータ．リセットすると新しいインスタンスに置き換わる．
+	 */
+	private volatile Records records;
+
+	/**
+	 * 空のヒストグラムを生成するクラスコンストラクタ．
+	 */
+	public LatencyHistogram() {
+		this.records = new Records();
+	}
+
+	/**
+	 * 値を記録する．記録を行うスレッドからのみ呼び出す．
+	 *
+	 * @param nanos
+	 *            処理時間(ナノ秒). 負の値は0として記録する
+	 */
+	public void record(long nanos) {
+		long value = Math.max(nanos, 0);
+		int index = bucketIndex(value);
+
+		// 記録中にリセットされた場合, この値はリセット前のデータとともに破棄される
+		Records records = this.records;
+		records.buckets.lazySet(index, records.buckets.get(index) + 1);
+		records.total += value;
+		if (value > records.max) {
+			records.max = value;
+		}
+		records.count++;
+	}
+
+	/**
+	 * 記録した値を全て削除する．任意のスレッドから呼び出してよい．
+	 */
+	public void reset() {
+		this.records = new Records();
+	}
+
+	/**
+	 * 記録された値の数を返す．
+	 *
+	 * @return 記録された値の数
+	 */
+	public long getCount() {
+		return this.records.count;
+	}
+
+	/**
+	 * 記録された値の平均を返す．
+	 *
+	 * @return 記録された値の平均(ナノ秒). 値が記録されていない場合は0
+	 */
+	public long getMean() {
+		Records records = this.records;
+		long n = records.count;
+		return n == 0 ? 0 : records.total / n;
+	}
+
+	/**
+	 * 記録された値の最大値を返す．
+	 *
+	 * @return 記録された値の最大値(ナノ秒). 値が記録されていない場合は0
+	 */
+	public long getMax() {
+		return this.records.max;
+	}
+
+	/**
+	 * 指定した百分位数を返す．<br>
+	 * 値は, その百分位数を含むバケットの上端である．
+	 *
+	 * @param percentile
+	 *            百分位(0より大きく100以下)
+	 *
+	 * @return 百分位数(ナノ秒). 値が記録されていない場合は0
+	 */
+	public long getPercentile(double percentile) {
+		Records records = this.records;
+		long n = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			n += records.buckets.get(i);
+		}
+		if (n == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(n * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += records.buckets.get(i);
+			if (seen >= rank) {
+				return Math.min(bucketUpperBound(i), records.max);
+			}
+		}
+		return records.max;
+	}
+
+	/**
+	 * 値を記録するバケットの番号を返す．
+	 *
+	 * @param value
+	 *            0以上の値
+	 *
+	 * @return バケットの番号
+	 */
+	private static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/**
+	 * 指定したバケットに記録される値の最大値を返す．
+	 *
+	 * @param index
+	 *            バケットの番号
+	 *
+	 * @return バケットに記録される値の最大値
+	 */
+	private static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+		long subBucket = index % SUB_BUCKET_COUNT;
+		long width = 1L << (exponent - SUB_BUCKET_BITS);
+		return (1L << exponent) + (subBucket + 1) * width - 1;
+	}
+
+	/**
+	 * リセットしてから記録したデータをまとめたクラス．<br>
+	 * 書き込みは記録を行うスレッドのみが行う．
+	 */
+	private static class Records {
+
+		/**
+		 * 各バケットに記録された値の数．
+		 */
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+		/**
+		 * 記録された値の数．
+		 */
+		private volatile long count;
+
+		/**
+		 * 記録された値の合計．
+		 */
+		private volatile long total;
+
+		/**
+		 * 記録された値の最大値．
+		 */
+		private volatile long max;
+
+	}
+
+}
@@ -0,0 +1,40 @@
+package benchmark;
+
+/**
+ * {@link BenchmarkRunner}で計測する1つの処理を表す抽象クラス．
+ */
+public abstract class BenchmarkCase {
+
+	/**
+	 * 計測結果の表示に用いる名前．
+	 */
+	private final String name;
+
+	/**
+	 * 計測結果の表示に用いる名前を指定してインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param name
+	 *            計測結果の表示に用いる名前
+	 */
+	protected BenchmarkCase(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * 計測する処理を1回実行する．<br>
+	 * 処理の結果を返すことで, JITコンパイラによって処理が取り除かれることを防ぐ．
+	 *
+	 * @return 処理の結果
+	 */
+	public abstract Object run();
+
+	/**
+	 * 計測結果の表示に用いる名前を返す．
+	 *
+	 * @return 計測結果の表示に用いる名前
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+}
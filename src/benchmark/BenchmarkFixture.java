@@ -0,0 +1,268 @@
+package benchmark;
+
+import java.util.LinkedList;
+
+import fighting.Character;
+import fighting.Fighting;
+import input.KeyData;
+import setting.GameSetting;
+import setting.MatchContext;
+import struct.FrameData;
+import struct.GameData;
+import struct.Key;
+
+/**
+ * ベンチマークの計測対象となる対戦の状態を生成するクラス．<br>
+ * 同じキャラクター同士の対戦を, 決められたキー入力で指定した場面まで進めた状態を保持する．
+ */
+public class BenchmarkFixture {
+
+	/**
+	 * ラウンド開始直後の場面．
+	 */
+	public static final String NEUTRAL = "neutral";
+
+	/**
+	 * P1の攻撃が連続してヒットしている場面．
+	 */
+	public static final String COMBO = "combo";
+
+	/**
+	 * 両者の波動拳が複数飛んでいる場面．
+	 */
+	public static final String PROJECTILE = "projectile";
+
+	/**
+	 * 場面の生成に用いるフレーム数の上限．
+	 */
+	private static final int MAX_SETUP_FRAMES = 600;
+
+	/**
+	 * キャラクター名．
+	 */
+	private final String characterName;
+
+	/**
+	 * 場面の名前．
+	 */
+	private final String situation;
+
+	/**
+	 * 対戦の設定．
+	 */
+	private final MatchContext context;
+
+	/**
+	 * 場面まで進めた対戦処理．
+	 */
+	private final Fighting fighting;
+
+	/**
+	 * 場面まで進めた時点の現在のフレーム．
+	 */
+	private int currentFrame;
+
+	/**
+	 * 場面まで進めた時点の{@link Fighting#encodeState()}の値．
+	 */
+	private final int[] snapshot;
+
+	/**
+	 * 場面まで進めた時点のフレームデータ．
+	 */
+	private final FrameData frameData;
+
+	/**
+	 * 場面まで進めた時点のキー入力の履歴．
+	 */
+	private final LinkedList<KeyData> inputHistory;
+
+	/**
+	 * 対戦のゲーム情報．
+	 */
+	private final GameData gameData;
+
+	/**
+	 * 指定したキャラクター同士の対戦を, 指定した場面まで進めた状態を生成するクラスコンストラクタ．
+	 *
+	 * @param characterName
+	 *            キャラクター名
+	 * @param situation
+	 *            場面の名前({@link #NEUTRAL}, {@link #COMBO}, {@link #PROJECTILE})
+	 */
+	public BenchmarkFixture(String characterName, String situation) {
+		this.characterName = characterName;
+		this.situation = situation;
+		this.inputHistory = new LinkedList<KeyData>();
+
+		this.context = new MatchContext();
+		this.context.setCharacterNames(characterName, characterName);
+		this.fighting = new Fighting(this.context);
+		this.fighting.initialize();
+		this.fighting.initRound();
+
+		if (NEUTRAL.equals(situation)) {
+			setUpNeutral();
+		} else if (COMBO.equals(situation)) {
+			setUpCombo();
+		} else if (PROJECTILE.equals(situation)) {
+			setUpProjectile();
+		} else {
+			throw new IllegalArgumentException("Unknown situation: " + situation);
+		}
+
+		this.snapshot = this.fighting.encodeState();
+		this.frameData = this.fighting.createFrameData(this.currentFrame, 0);
+		this.gameData = new GameData(this.fighting.getCharacters());
+	}
+
+	/**
+	 * 両者が何も入力しないまま, 30フレーム進める．
+	 */
+	private void setUpNeutral() {
+		for (int i = 0; i < 30; i++) {
+			step(new Key(), new Key());
+		}
+	}
+
+	/**
+	 * P1が相手に近づいてA, Bキーを交互に押し, 攻撃が3回続けてヒットするまで進める．
+	 */
+	private void setUpCombo() {
+		Character[] characters = this.fighting.getCharacters();
+
+		for (int i = 0; i < MAX_SETUP_FRAMES && characters[0].getHitCount() < 3; i++) {
+			Key p1 = new Key();
+			int distance = Math.abs(characters[1].getHitAreaLeft() - characters[0].getHitAreaRight());
+			if (distance > 30) {
+				setForward(p1, characters[0]);
+			} else if (i % 4 == 0) {
+				p1.A = i % 8 == 0;
+				p1.B = !p1.A;
+			}
+			step(p1, new Key());
+		}
+	}
+
+	/**
+	 * 両者が波動拳(↓↘→ + A)を繰り返し入力し, 4つ以上の波動拳が存在するまで進める．<br>
+	 * 波動拳に必要なエネルギーを確保するため, 場面の生成中はトレーニングモードとして扱う．
+	 */
+	private void setUpProjectile() {
+		Character[] characters = this.fighting.getCharacters();
+		boolean trainingMode = this.context.isTrainingMode();
+		this.context.setTrainingMode(true);
+
+		try {
+			for (int i = 0; i < MAX_SETUP_FRAMES && this.fighting.getProjectiles().size() < 4; i++) {
+				Key[] keys = new Key[2];
+				for (int j = 0; j < 2; j++) {
+					keys[j] = new Key();
+					int phase = i % 20;
+					if (phase == 0) {
+						keys[j].D = true;
+					} else if (phase == 2) {
+						keys[j].D = true;
+						setForward(keys[j], characters[j]);
+					} else if (phase == 4) {
+						setForward(keys[j], characters[j]);
+						keys[j].A = true;
+					}
+				}
+				step(keys[0], keys[1]);
+			}
+		} finally {
+			this.context.setTrainingMode(trainingMode);
+		}
+	}
+
+	/**
+	 * キャラクターの向きに応じて, 前方向のキーを押す．
+	 *
+	 * @param key
+	 *            キー入力
+	 * @param character
+	 *            キャラクター
+	 */
+	private static void setForward(Key key, Character character) {
+		if (character.isFront()) {
+			key.R = true;
+		} else {
+			key.L = true;
+		}
+	}
+
+	/**
+	 * 引数のキー入力で1フレーム進める．
+	 *
+	 * @param p1
+	 *            P1のキー入力
+	 * @param p2
+	 *            P2のキー入力
+	 */
+	private void step(Key p1, Key p2) {
+		KeyData keyData = new KeyData(new Key[] { p1, p2 });
+		this.fighting.processingFight(this.currentFrame++, keyData);
+
+		this.inputHistory.addLast(keyData);
+		while (this.inputHistory.size() > GameSetting.INPUT_LIMIT) {
+			this.inputHistory.removeFirst();
+		}
+	}
+
+	/**
+	 * 対戦処理を場面まで進めた直後の状態に戻す．
+	 *
+	 * @return 場面まで進めた時点の現在のフレーム
+	 */
+	public int reset() {
+		this.fighting.decodeState(this.snapshot);
+		return this.currentFrame;
+	}
+
+	/**
+	 * 場面まで進めた対戦処理を返す．
+	 *
+	 * @return 対戦処理
+	 */
+	public Fighting getFighting() {
+		return this.fighting;
+	}
+
+	/**
+	 * 場面まで進めた時点のフレームデータを返す．
+	 *
+	 * @return フレームデータ
+	 */
+	public FrameData getFrameData() {
+		return this.frameData;
+	}
+
+	/**
+	 * 場面まで進めた時点のキー入力の履歴のコピーを返す．
+	 *
+	 * @return キー入力の履歴
+	 */
+	public LinkedList<KeyData> getInputHistory() {
+		return new LinkedList<KeyData>(this.inputHistory);
+	}
+
+	/**
+	 * 対戦のゲーム情報を返す．
+	 *
+	 * @return ゲーム情報
+	 */
+	public GameData getGameData() {
+		return this.gameData;
+	}
+
+	/**
+	 * キャラクター名と場面の名前を連結した, 状態を識別する名前を返す．
+	 *
+	 * @return 状態を識別する名前
+	 */
+	public String getName() {
+		return this.characterName + "/" + this.situation;
+	}
+
+}
@@ -0,0 +1,302 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import command.CommandTable;
+import enumerate.Action;
+import fighting.Character;
+import fighting.Fighting;
+import input.KeyData;
+import setting.FlagSetting;
+import simulator.Simulator;
+import struct.FrameData;
+import struct.Key;
+
+/**
+ * 対戦処理とシミュレータの性能を計測するベンチマークのメインメソッドを持つクラス．<br>
+ * ZEN, GARNET, LUDの各キャラクターについて, {@link BenchmarkFixture}で生成した場面を起点に以下の処理を計測し,
+ * 1秒あたりの実行回数と1回あたりのメモリ割り当て量を出力する．
+ * <ul>
+ * <li>{@link Fighting#processingFight(int, KeyData)}で60フレーム進める処理</li>
+ * <li>{@link Simulator#simulate}で60フレームをシミュレーションする処理</li>
+ * <li>{@link CommandTable#interpretationCommandFromKeyData(Character, Deque)}</li>
+ * <li>{@link FrameData}のコピー</li>
+ * </ul>
+ * 起動時の引数は以下の通りである．
+ * <ul>
+ * <li>-w &lt;n&gt;: 計測前のウォームアップの回数(既定値: 5)</li>
+ * <li>-i &lt;n&gt;: 計測の回数(既定値: 5)</li>
+ * <li>-t &lt;ms&gt;: 1回のウォームアップ及び計測の時間(既定値: 1000)</li>
+ * <li>それ以外の引数: 名前にその文字列を含むベンチマークのみを実行する</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * ベンチマークに用いるキャラクター名．
+	 */
+	private static final String[] CHARACTER_NAMES = { "ZEN", "GARNET", "LUD" };
+
+	/**
+	 * ベンチマークに用いる場面の名前．
+	 */
+	private static final String[] SITUATIONS = { BenchmarkFixture.NEUTRAL, BenchmarkFixture.COMBO,
+			BenchmarkFixture.PROJECTILE };
+
+	/**
+	 * 1回の処理で進めるフレーム数．
+	 */
+	private static final int FRAMES = 60;
+
+	/**
+	 * 経過時間を確認する間隔となる処理の回数．
+	 */
+	private static final int BATCH_SIZE = 16;
+
+	/**
+	 * 処理の結果を受け取るフィールド．
+	 */
+	private static volatile Object sink;
+
+	/**
+	 * 起動時の引数に応じてベンチマークを実行し, 結果を標準出力に出力する．
+	 *
+	 * @param options
+	 *            起動時に入力した全ての引数を格納した配列
+	 */
+	public static void main(String[] options) {
+		int warmupIterations = 5;
+		int iterations = 5;
+		long iterationMillis = 1000;
+		List<String> filters = new ArrayList<String>();
+
+		for (int i = 0; i < options.length; i++) {
+			switch (options[i]) {
+			case "-w":
+				warmupIterations = Integer.parseInt(options[++i]);
+				break;
+			case "-i":
+				iterations = Integer.parseInt(options[++i]);
+				break;
+			case "-t":
+				iterationMillis = Long.parseLong(options[++i]);
+				break;
+			default:
+				filters.add(options[i]);
+				break;
+			}
+		}
+
+		FlagSetting.enableWindow = false;
+		FlagSetting.muteFlag = true;
+
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		if (threadBean.isThreadAllocatedMemorySupported()) {
+			threadBean.setThreadAllocatedMemoryEnabled(true);
+		}
+
+		System.out.println(String.format("%-60s %14s %12s %14s", "Benchmark", "ops/s", "error", "B/op"));
+		for (BenchmarkCase benchmark : createBenchmarks(filters)) {
+			for (int i = 0; i < warmupIterations; i++) {
+				measure(benchmark, iterationMillis, threadBean);
+			}
+
+			double[] throughputs = new double[iterations];
+			double allocation = 0;
+			for (int i = 0; i < iterations; i++) {
+				double[] result = measure(benchmark, iterationMillis, threadBean);
+				throughputs[i] = result[0];
+				allocation += result[1] / iterations;
+			}
+
+			double mean = 0;
+			for (double throughput : throughputs) {
+				mean += throughput / iterations;
+			}
+			double variance = 0;
+			for (double throughput : throughputs) {
+				variance += (throughput - mean) * (throughput - mean) / Math.max(1, iterations - 1);
+			}
+
+			System.out.println(String.format("%-60s %14.1f %12.1f %14.1f", benchmark.getName(), mean,
+					Math.sqrt(variance), allocation));
+		}
+	}
+
+	/**
+	 * 指定した時間だけ処理を繰り返し実行し, 1秒あたりの実行回数と1回あたりのメモリ割り当て量を求める．
+	 *
+	 * @param benchmark
+	 *            計測する処理
+	 * @param iterationMillis
+	 *            計測の時間
+	 * @param threadBean
+	 *            メモリ割り当て量の取得に用いるMXBean
+	 *
+	 * @return 1秒あたりの実行回数と1回あたりのメモリ割り当て量(バイト)を格納した配列
+	 */
+	private static double[] measure(BenchmarkCase benchmark, long iterationMillis,
+			com.sun.management.ThreadMXBean threadBean) {
+		long threadId = Thread.currentThread().getId();
+		long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		long end = start + iterationMillis * 1000000L;
+		long operations = 0;
+		long now;
+
+		do {
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				sink = benchmark.run();
+			}
+			operations += BATCH_SIZE;
+			now = System.nanoTime();
+		} while (now < end);
+
+		long allocatedBytes = threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+		return new double[] { operations * 1e9 / (now - start), (double) allocatedBytes / operations };
+	}
+
+	/**
+	 * 全てのキャラクターと場面の組み合わせについて計測する処理を生成し, 名前が条件に合うものを返す．
+	 *
+	 * @param filters
+	 *            名前に含まれるべき文字列のリスト. 空の場合は全ての処理を返す
+	 *
+	 * @return 計測する処理のリスト
+	 */
+	private static List<BenchmarkCase> createBenchmarks(List<String> filters) {
+		List<BenchmarkCase> benchmarks = new ArrayList<BenchmarkCase>();
+
+		for (String characterName : CHARACTER_NAMES) {
+			for (String situation : SITUATIONS) {
+				BenchmarkFixture fixture = new BenchmarkFixture(characterName, situation);
+				benchmarks.add(createProcessingFight(fixture));
+				benchmarks.add(createSimulate(fixture));
+				benchmarks.add(createInterpretationCommand(fixture));
+				benchmarks.add(createFrameDataCopy(fixture));
+			}
+		}
+
+		if (filters.isEmpty()) {
+			return benchmarks;
+		}
+
+		List<BenchmarkCase> selected = new ArrayList<BenchmarkCase>();
+		for (BenchmarkCase benchmark : benchmarks) {
+			for (String filter : filters) {
+				if (benchmark.getName().contains(filter)) {
+					selected.add(benchmark);
+					break;
+				}
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * 場面の状態に戻してから, 乱数で生成したキー入力で{@link #FRAMES}フレーム進める処理を生成する．
+	 *
+	 * @param fixture
+	 *            起点となる場面
+	 *
+	 * @return 計測する処理
+	 */
+	private static BenchmarkCase createProcessingFight(final BenchmarkFixture fixture) {
+		final KeyData[] keyData = new KeyData[FRAMES];
+		Random random = new Random(0);
+		for (int i = 0; i < FRAMES; i++) {
+			Key[] keys = new Key[2];
+			for (int j = 0; j < 2; j++) {
+				keys[j] = new Key();
+				keys[j].A = random.nextInt(4) == 0;
+				keys[j].B = random.nextInt(6) == 0;
+				keys[j].R = random.nextInt(2) == 0;
+				keys[j].L = random.nextInt(5) == 0;
+				keys[j].D = random.nextInt(4) == 0;
+				keys[j].U = random.nextInt(9) == 0;
+			}
+			keyData[i] = new KeyData(keys);
+		}
+
+		return new BenchmarkCase("Fighting.processingFight[" + FRAMES + "f] " + fixture.getName()) {
+			@Override
+			public Object run() {
+				Fighting fighting = fixture.getFighting();
+				int currentFrame = fixture.reset();
+				for (int i = 0; i < FRAMES; i++) {
+					fighting.processingFight(currentFrame + i, keyData[i]);
+				}
+				return fighting;
+			}
+		};
+	}
+
+	/**
+	 * 場面のフレームデータを起点に{@link #FRAMES}フレームをシミュレーションする処理を生成する．
+	 *
+	 * @param fixture
+	 *            起点となる場面
+	 *
+	 * @return 計測する処理
+	 */
+	private static BenchmarkCase createSimulate(final BenchmarkFixture fixture) {
+		final Simulator simulator = fixture.getGameData().getSimulator();
+		final Deque<Action> myAct = new LinkedList<Action>(
+				Arrays.asList(Action.STAND_A, Action.STAND_B, Action.CROUCH_B, Action.STAND_FB));
+		final Deque<Action> oppAct = new LinkedList<Action>(
+				Arrays.asList(Action.STAND_GUARD, Action.BACK_STEP, Action.STAND_D_DF_FA));
+
+		return new BenchmarkCase("Simulator.simulate[" + FRAMES + "f] " + fixture.getName()) {
+			@Override
+			public Object run() {
+				return simulator.simulate(fixture.getFrameData(), true, myAct, oppAct, FRAMES);
+			}
+		};
+	}
+
+	/**
+	 * 場面までのキー入力の履歴をP1のアクションに変換する処理を生成する．
+	 *
+	 * @param fixture
+	 *            起点となる場面
+	 *
+	 * @return 計測する処理
+	 */
+	private static BenchmarkCase createInterpretationCommand(final BenchmarkFixture fixture) {
+		final CommandTable commandTable = new CommandTable();
+		final Character character = fixture.getFighting().getCharacters()[0];
+		final Deque<KeyData> input = fixture.getInputHistory();
+
+		return new BenchmarkCase("CommandTable.interpretationCommandFromKeyData " + fixture.getName()) {
+			@Override
+			public Object run() {
+				return commandTable.interpretationCommandFromKeyData(character, input);
+			}
+		};
+	}
+
+	/**
+	 * 場面のフレームデータをコピーする処理を生成する．
+	 *
+	 * @param fixture
+	 *            起点となる場面
+	 *
+	 * @return 計測する処理
+	 */
+	private static BenchmarkCase createFrameDataCopy(final BenchmarkFixture fixture) {
+		return new BenchmarkCase("FrameData.<init>(FrameData) " + fixture.getName()) {
+			@Override
+			public Object run() {
+				return new FrameData(fixture.getFrameData());
+			}
+		};
+	}
+
+}
@@ -0,0 +1,370 @@
+package command;
+
+import java.util.Arrays;
+
+import enumerate.Action;
+import enumerate.State;
+import fighting.Character;
+import struct.Key;
+
+/**
+ * 1人のプレイヤーのキー入力の履歴を保持し, 対応するアクションを求めるクラス．<br>
+ * {@link CommandTable#interpretationCommandFromKeyData}などはフレームごとにキー入力のキュー全体を走査して方向キーの入力列を求めるが,
+ * このクラスは方向キーの値が連続して同じである区間(ラン)の列をキー入力の追加・削除のたびに更新するため,
+ * 1フレームあたりの処理量は履歴の長さに依存せず, オブジェクトも生成しない．<br>
+ * 履歴の先頭からの削除と末尾への追加を, 対応するキー入力のキューと同じように呼び出すことで, 同じアクションが得られる．<br>
+ * 方向キーの値はキャラクターが右を向いているとして保持し, アクションを求める時点の向きに応じて左右を反転させる．
+ */
+public class CommandRecognizer {
+
+	/**
+	 * Aキーを表すビット．
+	 */
+	public static final int KEY_A = 1;
+
+	/**
+	 * Bキーを表すビット．
+	 */
+	public static final int KEY_B = 1 << 1;
+
+	/**
+	 * Cキーを表すビット．
+	 */
+	public static final int KEY_C = 1 << 2;
+
+	/**
+	 * 上キーを表すビット．
+	 */
+	public static final int KEY_U = 1 << 3;
+
+	/**
+	 * 右キーを表すビット．
+	 */
+	public static final int KEY_R = 1 << 4;
+
+	/**
+	 * 下キーを表すビット．
+	 */
+	public static final int KEY_D = 1 << 5;
+
+	/**
+	 * 左キーを表すビット．
+	 */
+	public static final int KEY_L = 1 << 6;
+
+	/**
+	 * ランを格納する配列の初期の長さ．
+	 */
+	private static final int DEFAULT_CAPACITY = 32;
+
+	/**
+	 * 各ランの方向キーの値(右向きの場合のテンキー表記)を格納したリングバッファ．
+	 */
+	private int[] runLevers;
+
+	/**
+	 * 各ランに含まれるキー入力の数を格納したリングバッファ．
+	 */
+	private int[] runLengths;
+
+	/**
+	 * 最も古いランのリングバッファ上の位置．
+	 */
+	private int runStart;
+
+	/**
+	 * ランの数．
+	 */
+	private int runCount;
+
+	/**
+	 * 履歴に含まれるキー入力の数．
+	 */
+	private int size;
+
+	/**
+	 * 最新のキー入力．
+	 */
+	private int lastKey;
+
+	/**
+	 * 最新の1つ前のキー入力．
+	 */
+	private int previousKey;
+
+	/**
+	 * 直近4つの方向キー入力を格納する作業用の配列．
+	 */
+	private final int[] commandList;
+
+	/**
+	 * 空の履歴を持つインスタンスを生成するクラスコンストラクタ．
+	 */
+	public CommandRecognizer() {
+		this.runLevers = new int[DEFAULT_CAPACITY];
+		this.runLengths = new int[DEFAULT_CAPACITY];
+		this.commandList = new int[4];
+	}
+
+	/**
+	 * 引数として渡されたインスタンスの履歴をコピーし，新たなインスタンスを生成するコピーコンストラクタ．
+	 *
+	 * @param recognizer
+	 *            コピー元のインスタンス
+	 */
+	public CommandRecognizer(CommandRecognizer recognizer) {
+		this.runLevers = recognizer.runLevers.clone();
+		this.runLengths = recognizer.runLengths.clone();
+		this.runStart = recognizer.runStart;
+		this.runCount = recognizer.runCount;
+		this.size = recognizer.size;
+		this.lastKey = recognizer.lastKey;
+		this.previousKey = recognizer.previousKey;
+		this.commandList = new int[4];
+	}
+
+	/**
+	 * キー入力を履歴の末尾に追加する．
+	 *
+	 * @param key
+	 *            {@link #KEY_A}などのビットの論理和で表したキー入力
+	 */
+	public void addLast(int key) {
+		int lever = getLever(key, true);
+
+		if (this.runCount > 0 && this.runLevers[runIndex(this.runCount - 1)] == lever) {
+			this.runLengths[runIndex(this.runCount - 1)]++;
+		} else {
+			if (this.runCount == this.runLevers.length) {
+				grow();
+			}
+			int index = runIndex(this.runCount++);
+			this.runLevers[index] = lever;
+			this.runLengths[index] = 1;
+		}
+
+		this.previousKey = this.lastKey;
+		this.lastKey = key;
+		this.size++;
+	}
+
+	/**
+	 * キー入力を履歴の末尾に追加する．
+	 *
+	 * @param key
+	 *            キー入力
+	 */
+	public void addLast(Key key) {
+		addLast(pack(key));
+	}
+
+	/**
+	 * 最も古いキー入力を履歴から削除する．履歴が空の場合は何もしない．
+	 */
+	public void removeFirst() {
+		if (this.size == 0) {
+			return;
+		}
+
+		if (--this.runLengths[this.runStart] == 0) {
+			this.runStart = (this.runStart + 1) % this.runLevers.length;
+			this.runCount--;
+		}
+		this.size--;
+	}
+
+	/**
+	 * 履歴を空にする．
+	 */
+	public void clear() {
+		this.runStart = 0;
+		this.runCount = 0;
+		this.size = 0;
+		this.lastKey = 0;
+		this.previousKey = 0;
+	}
+
+	/**
+	 * 履歴に含まれるキー入力の数を返す．
+	 *
+	 * @return 履歴に含まれるキー入力の数
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * 履歴を基に, キャラクターが実行するアクションを返す．<br>
+	 * {@link CommandTable#interpretationCommandFromKey(Character, java.util.Deque)}に同じ履歴を渡した場合と同じアクションを返す．
+	 *
+	 * @param commandTable
+	 *            キー入力とアクションの対応を管理するクラスのインスタンス
+	 * @param character
+	 *            キャラクター
+	 *
+	 * @return 履歴に対応するアクション
+	 */
+	public Action recognize(CommandTable commandTable, Character character) {
+		return recognize(commandTable, character.isFront(), character.getState());
+	}
+
+	/**
+	 * 履歴を基に, 指定した向きと状態のキャラクターが実行するアクションを返す．
+	 *
+	 * @param commandTable
+	 *            キー入力とアクションの対応を管理するクラスのインスタンス
+	 * @param isFront
+	 *            キャラクターの向き
+	 * @param state
+	 *            キャラクターの状態
+	 *
+	 * @return 履歴に対応するアクション
+	 */
+	public Action recognize(CommandTable commandTable, boolean isFront, State state) {
+		// ボタンは押した瞬間のみ入力として扱う
+		boolean pushA = (this.lastKey & KEY_A) != 0;
+		boolean pushB = (this.lastKey & KEY_B) != 0;
+		boolean pushC = (this.lastKey & KEY_C) != 0;
+		if (this.size > 1) {
+			pushA &= (this.previousKey & KEY_A) == 0;
+			pushB &= (this.previousKey & KEY_B) == 0;
+			pushC &= (this.previousKey & KEY_C) == 0;
+		}
+
+		// 同じ値のランは1つにまとめられているため, ランを新しい順に1回ずつ辿れば
+		// キー入力を1つずつ辿った場合と同じ配列が得られる
+		int[] commands = this.commandList;
+		Arrays.fill(commands, 5);
+		int commandLength = 0;
+		for (int i = this.runCount - 1; i >= 0 && commandLength < 3; i--) {
+			int lever = this.runLevers[runIndex(i)];
+			if (!isFront) {
+				lever = mirror(lever);
+			}
+
+			if (lever != commands[commandLength]) {
+				if (commands[commandLength] != 5) {
+					commandLength++;
+				}
+				commands[commandLength] = lever;
+			}
+		}
+
+		return commandTable.convertKeyToAction(pushA, pushB, pushC, getLever(this.lastKey, isFront), commands, state);
+	}
+
+	/**
+	 * 古い順にi番目のランのリングバッファ上の位置を返す．
+	 *
+	 * @param i
+	 *            古い順のランの番号
+	 *
+	 * @return リングバッファ上の位置
+	 */
+	private int runIndex(int i) {
+		return (this.runStart + i) % this.runLevers.length;
+	}
+
+	/**
+	 * ランを格納する配列の長さを2倍に拡張する．
+	 */
+	private void grow() {
+		int capacity = this.runLevers.length;
+		int[] levers = new int[capacity * 2];
+		int[] lengths = new int[capacity * 2];
+		for (int i = 0; i < this.runCount; i++) {
+			levers[i] = this.runLevers[runIndex(i)];
+			lengths[i] = this.runLengths[runIndex(i)];
+		}
+
+		this.runLevers = levers;
+		this.runLengths = lengths;
+		this.runStart = 0;
+	}
+
+	/**
+	 * キー入力をビットの論理和に変換する．
+	 *
+	 * @param key
+	 *            キー入力
+	 *
+	 * @return {@link #KEY_A}などのビットの論理和で表したキー入力
+	 */
+	public static int pack(Key key) {
+		int bits = 0;
+		bits |= key.A ? KEY_A : 0;
+		bits |= key.B ? KEY_B : 0;
+		bits |= key.C ? KEY_C : 0;
+		bits |= key.U ? KEY_U : 0;
+		bits |= key.R ? KEY_R : 0;
+		bits |= key.D ? KEY_D : 0;
+		bits |= key.L ? KEY_L : 0;
+		return bits;
+	}
+
+	/**
+	 * ビットの論理和で表したキー入力をKeyクラスのインスタンスに変換する．
+	 *
+	 * @param bits
+	 *            {@link #KEY_A}などのビットの論理和で表したキー入力
+	 *
+	 * @return キー入力
+	 */
+	public static Key unpack(int bits) {
+		Key key = new Key();
+		key.A = (bits & KEY_A) != 0;
+		key.B = (bits & KEY_B) != 0;
+		key.C = (bits & KEY_C) != 0;
+		key.U = (bits & KEY_U) != 0;
+		key.R = (bits & KEY_R) != 0;
+		key.D = (bits & KEY_D) != 0;
+		key.L = (bits & KEY_L) != 0;
+		return key;
+	}
+
+	/**
+	 * ビットの論理和で表したキー入力の方向キーの値をテンキー表記で返す．
+	 *
+	 * @param key
+	 *            {@link #KEY_A}などのビットの論理和で表したキー入力
+	 * @param isFront
+	 *            キャラクターの向き
+	 *
+	 * @return 方向キーの値
+	 *
+	 * @see Key#getLever(boolean)
+	 */
+	public static int getLever(int key, boolean isFront) {
+		int lever = 5;
+
+		if ((key & KEY_U) != 0) {
+			lever += 3;
+		}
+		if ((key & KEY_D) != 0) {
+			lever -= 3;
+		}
+		if ((key & KEY_L) != 0) {
+			lever += isFront ? -1 : 1;
+		}
+		if ((key & KEY_R) != 0) {
+			lever += isFront ? 1 : -1;
+		}
+
+		return lever;
+	}
+
+	/**
+	 * テンキー表記の方向キーの値の左右を反転させる．
+	 *
+	 * @param lever
+	 *            方向キーの値
+	 *
+	 * @return 左右を反転させた方向キーの値
+	 */
+	private static int mirror(int lever) {
+		int row = (lever - 1) / 3;
+		int column = (lever - 1) % 3;
+		return row * 3 + (2 - column) + 1;
+	}
+
+}
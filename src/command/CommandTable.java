@@ -75,8 +75,8 @@ public class CommandTable {
 			}
 		}
 
-		return convertKeyToAction(pushA, pushB, pushC, nowKeyData, commandList, character.getState(),
-				character.isFront());
+		return convertKeyToAction(pushA, pushB, pushC, nowKeyData.getLever(character.isFront()), commandList,
+				character.getState());
 	}
 
 	/**
@@ -127,11 +127,13 @@ public class CommandTable {
 			}
 		}
 
-		return convertKeyToAction(pushA, pushB, pushC, nowKey, commandList, character.getState(), character.isFront());
+		return convertKeyToAction(pushA, pushB, pushC, nowKey.getLever(character.isFront()), commandList,
+				character.getState());
 	}
 
 	/**
 	 * 引数として渡されたキー入力情報とキャラクター情報を基に, それに対応するアクションを返す.<br>
+	 * キー入力の履歴をKeyやKeyDataのキューで保持していない場合にも用いることができる．
 	 *
 	 * @param pushA
 	 *            最新のキー入力でAキー(P1: Z, P2: T)が押されているかどうか
@@ -139,23 +141,21 @@ public class CommandTable {
 	 *            最新のキー入力でBキー(P1: X, P2: Y)が押されているかどうか
 	 * @param pushC
 	 *            最新のキー入力でCキー(P1: C, P2: U)が押されているかどうか
-	 * @param nowKeyData
-	 *            最新のキー入力
+	 * @param lever
+	 *            キャラクターの向きを考慮した, 最新のキー入力の方向キーの値(テンキー表記)
 	 * @param commandList
 	 *            直近4つの方向キー入力を格納した配列(新しい入力ほどindexが小さい)
 	 * @param state
 	 *            キャラクターの現在の状態
-	 * @param isFront
-	 *            キャラクターが向いている方向(右向きはtrue;左向きはfalse)
 	 *
 	 * @return キー入力情報とキャラクター情報に対応するアクション
 	 *
-	 * @see Key
+	 * @see Key#getLever(boolean)
 	 * @see State
 	 * @see Action
 	 */
-	private Action convertKeyToAction(boolean pushA, boolean pushB, boolean pushC, Key nowKeyData, int[] commandList,
-			State state, boolean isFront) {
+	public Action convertKeyToAction(boolean pushA, boolean pushB, boolean pushC, int lever, int[] commandList,
+			State state) {
 		// 789
 		// 456
 		// 123
@@ -174,13 +174,13 @@ public class CommandTable {
 				} else if (commandList[0] == 4 && commandList[1] == 1 && commandList[2] == 2) {
 					return Action.AIR_D_DB_BB;// AIR214B
 
-				} else if (nowKeyData.getLever(isFront) == 2) {
+				} else if (lever == 2) {
 					return Action.AIR_DB;// AIR2B
 
-				} else if (nowKeyData.getLever(isFront) == 8) {
+				} else if (lever == 8) {
 					return Action.AIR_UB;// AIR8B
 
-				} else if (nowKeyData.getLever(isFront) == 6) {
+				} else if (lever == 6) {
 					return Action.AIR_FB;// AIR6B
 
 				} else {
@@ -199,20 +199,20 @@ public class CommandTable {
 				} else if (commandList[0] == 4 && commandList[1] == 1 && commandList[2] == 2) {
 					return Action.AIR_D_DB_BA;// AIR214A
 
-				} else if (nowKeyData.getLever(isFront) == 2) {
+				} else if (lever == 2) {
 					return Action.AIR_DA;// AIR2A
 
-				} else if (nowKeyData.getLever(isFront) == 8) {
+				} else if (lever == 8) {
 					return Action.AIR_UA;// AIR8A
 
-				} else if (nowKeyData.getLever(isFront) == 6) {
+				} else if (lever == 6) {
 					return Action.AIR_FA;// AIR6A
 
 				} else {
 					return Action.AIR_A;// AIR5A
 				}
 
-			} else if (nowKeyData.getLever(isFront) == 4) {
+			} else if (lever == 4) {
 				return Action.AIR_GUARD;// AIR4
 
 			} else {
@@ -240,16 +240,16 @@ public class CommandTable {
 					return Action.STAND_D_DB_BB;// STAND214B
 
 					// normal move
-				} else if (nowKeyData.getLever(isFront) == 3) {
+				} else if (lever == 3) {
 					return Action.CROUCH_FB;// STAND3B
 
-				} else if (nowKeyData.getLever(isFront) == 2) {
+				} else if (lever == 2) {
 					return Action.CROUCH_B;// STAND2B
 
-				} else if (nowKeyData.getLever(isFront) == 4) {
+				} else if (lever == 4) {
 					return Action.THROW_B;// STAND4B
 
-				} else if (nowKeyData.getLever(isFront) == 6) {
+				} else if (lever == 6) {
 					return Action.STAND_FB;// STAND6B
 
 				} else {
@@ -269,23 +269,23 @@ public class CommandTable {
 					return Action.STAND_D_DB_BA;// STAND214A
 
 					// normal move
-				} else if (nowKeyData.getLever(isFront) == 3) {
+				} else if (lever == 3) {
 					return Action.CROUCH_FA;// CROUCH3A
 
-				} else if (nowKeyData.getLever(isFront) == 2) {
+				} else if (lever == 2) {
 					return Action.CROUCH_A;// CROUCH2A
 
-				} else if (nowKeyData.getLever(isFront) == 4) {
+				} else if (lever == 4) {
 					return Action.THROW_A;// THROW4A
 
-				} else if (nowKeyData.getLever(isFront) == 6) {
+				} else if (lever == 6) {
 					return Action.STAND_FA;// STAND6A
 
 				} else {
 					return Action.STAND_A;// STAND5A
 				}
 
-			} else if (nowKeyData.getLever(isFront) == 6) {
+			} else if (lever == 6) {
 				if (commandList[1] == 6) {
 					return Action.DASH;// STAND66
 
@@ -293,7 +293,7 @@ public class CommandTable {
 					return Action.FORWARD_WALK;// STAND6
 				}
 
-			} else if (nowKeyData.getLever(isFront) == 4) {
+			} else if (lever == 4) {
 				if (commandList[1] == 4) {
 					return Action.BACK_STEP;// STAND44
 
@@ -302,20 +302,20 @@ public class CommandTable {
 				}
 
 			} else {
-				if (nowKeyData.getLever(isFront) == 1) {
+				if (lever == 1) {
 					return Action.CROUCH_GUARD;// CROUCH1
 
-				} else if (nowKeyData.getLever(isFront) == 2) {
+				} else if (lever == 2) {
 					return Action.CROUCH;// CROUCH2
 
-				} else if (nowKeyData.getLever(isFront) == 7) {
+				} else if (lever == 7) {
 					return Action.BACK_JUMP;// STAND7
 
-				} else if (nowKeyData.getLever(isFront) == 9) {
+				} else if (lever == 9) {
 					return Action.FOR_JUMP;// STAND9
 				}
 
-				else if (nowKeyData.getLever(isFront) == 8) {
+				else if (lever == 8) {
 					return Action.JUMP;// STAND8
 
 				} else {
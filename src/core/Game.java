@@ -114,6 +114,38 @@ public class Game extends GameManager {
 				FlagSetting.fastModeFlag = true;
 				FlagSetting.automationFlag = true;
 				break;
+			case "--frame-deadline":
+				// --frame-deadline 5 -> wait up to 5 ms for each AI in fast mode
+				LaunchSetting.frameDeadlineNanos = (long) (Double.parseDouble(options[++i]) * 1000000);
+				break;
+			case "--virtual-thread":
+				// run the AI controllers as virtual threads (Java 21 or later)
+				FlagSetting.virtualThreadFlag = true;
+				break;
+			case "--headless":
+				// run the matches without a window or an OpenGL context
+				FlagSetting.headlessFlag = true;
+				FlagSetting.enableWindow = false;
+				FlagSetting.muteFlag = true;
+				FlagSetting.fastModeFlag = true;
+				FlagSetting.automationFlag = true;
+				break;
+			case "--workers":
+				// --workers 8 -> play 8 matches of the headless round-robin at once
+				LaunchSetting.tournamentWorkers = Integer.parseInt(options[++i]);
+				break;
+			case "--characters":
+				// --characters ZEN,GARNET -> play the headless round-robin with each of them
+				String[] characterNames = options[++i].split(",");
+				for (int j = 0; j < characterNames.length; j++) {
+					characterNames[j] = getCharacterName(characterNames[j]);
+				}
+				LaunchSetting.tournamentCharacters = characterNames;
+				break;
+			case "--batch":
+				// skip the break time, the result screen and the loading screen between fights
+				FlagSetting.batchFlag = true;
+				break;
 			case "--json":
 				FlagSetting.jsonFlag = true;
 				break;
@@ -196,7 +228,7 @@ public class Game extends GameManager {
 	/**
 	 * Creates log directories if they do not exist.
 	 */
-	private void createLogDirectories() {
+	public static void createLogDirectories() {
 		new File("log").mkdir();
 		new File("log/replay").mkdir();
 		new File("log/point").mkdir();
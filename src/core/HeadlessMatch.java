@@ -0,0 +1,494 @@
+package core;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aiinterface.AIController;
+import aiinterface.AIExecutor;
+import aiinterface.AIStatistics;
+import aiinterface.FrameScheduler;
+import fighting.Fighting;
+import informationcontainer.RoundResult;
+import input.KeyData;
+import loader.ResourceLoader;
+import manager.InputManager;
+import setting.FlagSetting;
+import setting.GameSetting;
+import setting.LaunchSetting;
+import setting.MatchContext;
+import struct.FrameData;
+import struct.GameData;
+import struct.Key;
+import struct.ScreenData;
+import util.LogWriter;
+
+/**
+ * ウィンドウやOpenGLのコンテキストを生成せずに, 1試合分の対戦を行うクラス．<br>
+ * {@link gamescene.Play}と同様に, ラウンド開始前のインターバル, 各ラウンドの対戦処理, ラウンド終了時の結果の記録とAIへの通知,
+ * リプレイファイル及びJSONファイルへのログの出力を行うが, 描画や効果音の再生, 毎フレームの画面の読み出しは行わない．
+ * AIには画素情報を持たない{@link ScreenData}を渡す．<br>
+ * 対戦処理は実時間に合わせず, 各AIが1フレーム分の処理を終えるのを待ってから次のフレームに進む．
+ * {@link MatchContext#getFrameDeadlineNanos()}が正の場合は期限までしか待たない．<br>
+ * 試合ごとに設定とスケジューラを持つため, 複数のインスタンスを異なるスレッドで同時に実行することができる．
+ * ただしJSONファイルへの出力は{@link LogWriter}の1つの出力先を用いるため, 同時に行う試合では使用しない．
+ */
+public class HeadlessMatch {
+
+	/**
+	 * 試合の終了時にAIコントローラのスレッドの終了を待つ時間の上限(ミリ秒)．
+	 */
+	private static final long AI_TERMINATION_TIMEOUT = 1000;
+
+	/**
+	 * 試合の設定．
+	 */
+	private final MatchContext context;
+
+	/**
+	 * P1, P2のAIコントローラ．AIでない場合は{@code null}．
+	 */
+	private final AIController[] ais;
+
+	/**
+	 * 対戦処理とAIの処理をフレーム単位で同期させるスケジューラ．
+	 */
+	private final FrameScheduler scheduler;
+
+	/**
+	 * リプレイファイルを出力するかどうかのフラグ．
+	 */
+	private boolean replayEnabled;
+
+	/**
+	 * JSONファイルに試合データを出力するかどうかのフラグ．
+	 */
+	private boolean jsonEnabled;
+
+	/**
+	 * 試合結果と各AIの処理時間をlog/pointに出力するかどうかのフラグ．
+	 */
+	private boolean resultOutputEnabled;
+
+	/**
+	 * 出力ファイル名に用いる時間情報．
+	 */
+	private String timeInfo;
+
+	/**
+	 * 対戦処理を行うクラスのインスタンス．
+	 */
+	private Fighting fighting;
+
+	/**
+	 * AIコントローラのスレッドを開始し，試合の終了時にそれらの終了を待つクラス．
+	 */
+	private AIExecutor executor;
+
+	/**
+	 * 対戦処理後のキャラクターデータなどのゲーム情報を格納したフレームデータ．
+	 */
+	private FrameData frameData;
+
+	/**
+	 * AIに渡す画素情報を持たない画面情報．
+	 */
+	private ScreenData screenData;
+
+	/**
+	 * 各ラウンド終了時のP1, P2の残り体力, 経過時間を格納するリスト．
+	 */
+	private ArrayList<RoundResult> roundResults;
+
+	/**
+	 * Replayファイルに出力するための出力ストリーム．
+	 */
+	private DataOutputStream dos;
+
+	/**
+	 * 引数で指定した試合の設定とAIコントローラを用いてインスタンスを生成するクラスコンストラクタ．<br>
+	 * リプレイファイルはトレーニングモードでない場合に, JSONファイルは{@link FlagSetting#jsonFlag}が{@code true}の場合に出力する．
+	 * 出力ファイル名には現在の時刻と, 試合の名前があればその名前を用いる．
+	 *
+	 * @param context
+	 *            試合の設定
+	 * @param ais
+	 *            P1, P2の初期化前のAIコントローラを格納した配列. AIでない場合の要素は{@code null}で, そのプレイヤーは何も入力しない
+	 */
+	public HeadlessMatch(MatchContext context, AIController[] ais) {
+		this.context = context;
+		this.ais = ais.clone();
+		this.scheduler = new FrameScheduler(2);
+		this.replayEnabled = !context.isTrainingMode();
+		this.jsonEnabled = FlagSetting.jsonFlag;
+		this.resultOutputEnabled = true;
+
+		this.timeInfo = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd-HH.mm.ss", Locale.ENGLISH));
+		if (context.getName() != null) {
+			this.timeInfo += "_" + context.getName();
+		}
+	}
+
+	/**
+	 * 試合の設定に指定されたAI名のAIを読み込み, AIコントローラを生成する．<br>
+	 * AI名が"Keyboard"などの読み込めない名前の場合, そのプレイヤーのコントローラは{@code null}となる．
+	 *
+	 * @param context
+	 *            試合の設定
+	 *
+	 * @return P1, P2のAIコントローラを格納した配列
+	 */
+	public static AIController[] loadAIs(MatchContext context) {
+		return loadAIs(context, new URLClassLoader[2]);
+	}
+
+	/**
+	 * 試合の設定に指定されたAI名のAIを, AIごとに生成したクラスローダで読み込み, AIコントローラを生成する．<br>
+	 * 生成したクラスローダは引数の配列に格納されるため, 試合の終了後に呼び出し元で閉じることができる．
+	 *
+	 * @param context
+	 *            試合の設定
+	 * @param classLoaders
+	 *            P1, P2のAIを読み込んだクラスローダを格納する, 長さ2の配列. 読み込まなかった要素は{@code null}のままとなる
+	 *
+	 * @return P1, P2のAIコントローラを格納した配列
+	 */
+	public static AIController[] loadAIs(MatchContext context, URLClassLoader[] classLoaders) {
+		AIController[] ais = new AIController[2];
+		for (int i = 0; i < ais.length; i++) {
+			String aiName = context.getAIName(i);
+			if (new File("./data/ai/" + aiName + ".jar").exists()) {
+				classLoaders[i] = ResourceLoader.getInstance().createAIClassLoader(aiName);
+				if (classLoaders[i] != null) {
+					ais[i] = ResourceLoader.getInstance().loadAI(aiName, classLoaders[i]);
+				}
+			}
+			if (ais[i] != null) {
+				ais[i].setAIName(aiName);
+			} else {
+				Logger.getAnonymousLogger().log(Level.WARNING, "Cannot load the AI " + aiName + "; P" + (i + 1)
+						+ " does not input any key");
+			}
+		}
+		return ais;
+	}
+
+	/**
+	 * リプレイファイルを出力するかどうかをセットする．
+	 *
+	 * @param replayEnabled
+	 *            リプレイファイルを出力するかどうかのフラグ
+	 */
+	public void setReplayEnabled(boolean replayEnabled) {
+		this.replayEnabled = replayEnabled;
+	}
+
+	/**
+	 * JSONファイルに試合データを出力するかどうかをセットする．
+	 *
+	 * @param jsonEnabled
+	 *            JSONファイルに試合データを出力するかどうかのフラグ
+	 */
+	public void setJsonEnabled(boolean jsonEnabled) {
+		this.jsonEnabled = jsonEnabled;
+	}
+
+	/**
+	 * 試合の設定を返す．
+	 *
+	 * @return 試合の設定
+	 */
+	public MatchContext getContext() {
+		return this.context;
+	}
+
+	/**
+	 * 試合結果と各ラウンドの各AIの処理時間を, 試合中及び試合の終了時にlog/pointに出力するかどうかをセットする．<br>
+	 * 出力しない場合でも, 試合の終了後に{@link #outputResult()}で試合結果を出力できる．
+	 *
+	 * @param resultOutputEnabled
+	 *            試合結果と各AIの処理時間を出力するかどうかのフラグ
+	 */
+	public void setResultOutputEnabled(boolean resultOutputEnabled) {
+		this.resultOutputEnabled = resultOutputEnabled;
+	}
+
+	/**
+	 * {@link #run()}で行った試合の結果をlog/pointにCSV形式で出力する．
+	 */
+	public void outputResult() {
+		LogWriter.getInstance().outputResult(this.roundResults, LogWriter.CSV, this.timeInfo, this.context);
+	}
+
+	/**
+	 * 1試合分の対戦を行い, 試合結果をファイルに出力する．<br>
+	 * 初期化中や対戦中に例外が発生した場合も, AIの終了処理と出力ファイルのクローズを行う．
+	 *
+	 * @return 各ラウンドの結果を格納したリスト
+	 */
+	public ArrayList<RoundResult> run() {
+		try {
+			initialize();
+			for (int round = 1; round <= this.context.getRoundMax(); round++) {
+				processingRound(round);
+			}
+		} finally {
+			close();
+		}
+
+		if (this.resultOutputEnabled) {
+			outputResult();
+		}
+		return this.roundResults;
+	}
+
+	/**
+	 * 対戦処理, ログの出力先及びAIコントローラを初期化し, AIの動作を開始する．
+	 */
+	private void initialize() {
+		this.fighting = new Fighting(this.context);
+		this.fighting.initialize();
+		this.screenData = ScreenData.createEmpty();
+		this.roundResults = new ArrayList<RoundResult>();
+
+		if (this.replayEnabled) {
+			String fileName = LogWriter.getInstance().createOutputFileName("./log/replay/", this.timeInfo, this.context);
+			this.dos = ResourceLoader.getInstance().openDataOutputStream(fileName + ".dat");
+			LogWriter.getInstance().writeHeader(this.dos, this.context);
+		}
+
+		if (this.jsonEnabled) {
+			String jsonName = LogWriter.getInstance().createOutputFileName("./log/replay/", this.timeInfo, this.context);
+			LogWriter.getInstance().initJson(jsonName + ".json");
+		}
+
+		GameData gameData = new GameData(this.fighting.getCharacters());
+		this.executor = new AIExecutor(FlagSetting.virtualThreadFlag);
+		for (int i = 0; i < this.ais.length; i++) {
+			if (this.ais[i] != null) {
+				this.ais[i].initialize(this.context, this.scheduler, gameData, i == 0);
+				this.executor.start(this.ais[i]);
+			}
+		}
+	}
+
+	/**
+	 * 1ラウンド分の対戦を行う．<br>
+	 * ラウンド開始前のインターバルの後, 一方のキャラクターが倒されるか制限時間が経過するまで対戦処理を行い, ラウンドの結果を記録してAIに渡す．
+	 *
+	 * @param round
+	 *            現在のラウンド
+	 */
+	private void processingRound(int round) {
+		this.fighting.initRound();
+		for (AIController ai : this.ais) {
+			if (ai != null) {
+				ai.clear();
+				ai.getStatistics().reset();
+			}
+		}
+
+		// ラウンド開始前のインターバルでは, ダミーフレームをAIにセットする. バッチモードでは省略する
+		int breakTime = this.context.isBatchMode() ? 0 : GameSetting.BREAKTIME_FRAME_NUMBER;
+		for (int i = 0; i < breakTime; i++) {
+			setFrameData(new FrameData());
+			this.fighting.initRound();
+		}
+
+		for (int nowFrame = 0;; nowFrame++) {
+			KeyData keyData = getKeyData();
+			this.fighting.processingFight(nowFrame, keyData);
+			this.frameData = this.fighting.createFrameData(nowFrame, round);
+
+			if (this.dos != null) {
+				LogWriter.getInstance().outputLog(this.dos, keyData, this.fighting.getCharacters());
+			}
+			if (this.jsonEnabled) {
+				LogWriter.getInstance().updateJson(this.frameData, keyData);
+			}
+
+			setFrameData(this.frameData);
+
+			if (isBeaten() || isTimeOver(nowFrame)) {
+				break;
+			}
+		}
+
+		this.fighting.processingRoundEnd();
+		RoundResult roundResult = new RoundResult(this.frameData, this.context);
+		roundResult.setMissedFrames(getMissedFrames());
+		if (this.resultOutputEnabled) {
+			LogWriter.getInstance().outputLatency(round, getStatistics(), this.timeInfo, this.context);
+		}
+		this.roundResults.add(roundResult);
+
+		// AIに結果を渡す
+		for (AIController ai : this.ais) {
+			if (ai != null) {
+				ai.informRoundResult(roundResult);
+			}
+		}
+	}
+
+	/**
+	 * 各AIの現在の入力を取得する．
+	 *
+	 * @return P1, P2の入力情報
+	 */
+	private KeyData getKeyData() {
+		Key[] keys = new Key[this.ais.length];
+		for (int i = 0; i < this.ais.length; i++) {
+			keys[i] = this.ais[i] == null ? new Key() : this.ais[i].getInput();
+		}
+		return new KeyData(keys);
+	}
+
+	/**
+	 * 引数のフレームデータを各AIコントローラにセットし, 全てのAIがこのフレームの処理を終えるか期限を過ぎるまで待つ．<br>
+	 * フレームデータは各AIにコピーを渡す．ただし{@link aiinterface.ImmutableFrameDataAI}を実装したAIには, 不変なインスタンスに変換したものを共有して渡す．
+	 *
+	 * @param frameData
+	 *            フレームデータ
+	 */
+	private void setFrameData(FrameData frameData) {
+		FrameData sharedFrameData = null;
+		for (AIController ai : this.ais) {
+			if (ai != null) {
+				if (ai.isImmutableFrameDataAccepted()) {
+					if (sharedFrameData == null) {
+						sharedFrameData = (frameData.getEmptyFlag() ? new FrameData() : frameData).toImmutable();
+					}
+					ai.setFrameData(sharedFrameData);
+				} else if (!frameData.getEmptyFlag()) {
+					ai.setFrameData(new FrameData(frameData));
+				} else {
+					ai.setFrameData(new FrameData());
+				}
+				ai.setScreenData(this.screenData);
+			}
+		}
+
+		long frame = this.scheduler.startFrame();
+		this.scheduler.awaitEnd(frame, this.context.getFrameDeadlineNanos());
+	}
+
+	/**
+	 * キャラクターが倒されたかどうかを判定する.
+	 *
+	 * @return {@code true}: P1 or P2が倒された，{@code false}: otherwise
+	 */
+	private boolean isBeaten() {
+		return this.context.isLimitHp()
+				&& (this.frameData.getCharacter(true).getHp() <= 0 || this.frameData.getCharacter(false).getHp() <= 0);
+	}
+
+	/**
+	 * 1ラウンドの制限時間が経過したかどうかを判定する.<br>
+	 * Training modeのときは, Integerの最大との比較を行う.
+	 *
+	 * @param nowFrame
+	 *            現在のフレーム
+	 *
+	 * @return {@code true}: 1ラウンドの制限時間が経過した， {@code false}: otherwise
+	 */
+	private boolean isTimeOver(int nowFrame) {
+		if (this.context.isTrainingMode()) {
+			return nowFrame == Integer.MAX_VALUE;
+		} else {
+			return nowFrame >= this.context.getRoundFrameNumber() - 1;
+		}
+	}
+
+	/**
+	 * 各AIの処理時間などの統計を返す．
+	 *
+	 * @return P1とP2のAIの統計を格納した配列. AIでない場合は{@code null}
+	 */
+	private AIStatistics[] getStatistics() {
+		AIStatistics[] statistics = new AIStatistics[2];
+		for (int i = 0; i < statistics.length; i++) {
+			if (this.ais[i] != null) {
+				statistics[i] = this.ais[i].getStatistics();
+			}
+		}
+		return statistics;
+	}
+
+	/**
+	 * 現在のラウンドで各AIが期限までに処理を終えなかったフレームの数を返す．
+	 *
+	 * @return P1とP2のAIが期限までに処理を終えなかったフレームの数を格納した配列. AIでない場合は0
+	 */
+	private int[] getMissedFrames() {
+		int[] missedFrames = new int[2];
+		for (int i = 0; i < missedFrames.length; i++) {
+			if (this.ais[i] != null) {
+				missedFrames[i] = (int) this.ais[i].getStatistics().getMissedFrames();
+			}
+		}
+		return missedFrames;
+	}
+
+	/**
+	 * AIの実行を終了し, ログの出力先を閉じる．
+	 */
+	private void close() {
+		for (AIController ai : this.ais) {
+			if (ai != null) {
+				ai.gameEnd();
+			}
+		}
+		if (this.executor != null) {
+			this.executor.close(AI_TERMINATION_TIMEOUT);
+		}
+
+		try {
+			if (this.dos != null) {
+				this.dos.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		if (this.jsonEnabled) {
+			LogWriter.getInstance().finalizeJson();
+		}
+	}
+
+	/**
+	 * 起動時の引数で指定された設定で, 指定された回数だけ試合を行う．<br>
+	 * 起動時に{@code --headless}が指定された場合に, ウィンドウを生成する代わりに呼び出される．
+	 * 各試合の結果はログファイルに出力される．
+	 * 同じ秒に終わった試合のログファイルが上書きされないよう, 各試合には通し番号による名前を付ける．
+	 */
+	public static void launch() {
+		Game.createLogDirectories();
+
+		for (int i = 0; i < LaunchSetting.repeatNumber; i++) {
+			MatchContext context = new MatchContext();
+			context.setName("game" + (i + 1));
+			for (int j = 0; j < 2; j++) {
+				if (LaunchSetting.deviceTypes[j] != InputManager.DEVICE_TYPE_AI) {
+					Logger.getAnonymousLogger().log(Level.WARNING,
+							"P" + (j + 1) + " is not an AI; it does not input any key in headless mode");
+				}
+			}
+
+			HeadlessMatch match = new HeadlessMatch(context, loadAIs(context));
+			ArrayList<RoundResult> results = match.run();
+			for (RoundResult result : results) {
+				int[] hp = result.getRemainingHPs();
+				Logger.getAnonymousLogger().log(Level.INFO, "Game " + (i + 1) + " round " + result.getRound() + ": P1 "
+						+ hp[0] + ", P2 " + hp[1] + ", " + result.getElapsedFrame() + " frames");
+			}
+		}
+	}
+
+}
@@ -0,0 +1,743 @@
+package core;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URLClassLoader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import aiinterface.AIController;
+import informationcontainer.RoundResult;
+import loader.ResourceLoader;
+import setting.GameSetting;
+import setting.LaunchSetting;
+import setting.MatchContext;
+
+/**
+ * 複数のAIの総当り戦を, ウィンドウを生成せずに複数のスレッドで並列に行うクラス．<br>
+ * AIの全ての組み合わせ(P1とP2を入れ替えたものを含む), キャラクター及び繰り返し回数の積を1つずつの試合としてキューに入れ,
+ * 指定した数のワーカースレッドがキューから取り出して{@link HeadlessMatch}で実行する．<br>
+ * 例外が発生した試合や, AIが例外によって停止した試合は, 指定した回数まで再試行する．
+ * ただし, AIのクラスが古いインタフェースに対してコンパイルされている場合などの, 再試行しても結果が変わらない失敗と,
+ * 制限時間を過ぎた試合は再試行しない．<br>
+ * 全ての試合が終わると, 各試合の結果, 試合を終えたAIの成績及び失敗した試合に関わったAIの一覧をCSVファイルに出力する．
+ */
+public class Tournament {
+
+	/**
+	 * 1つの試合の既定の最大試行回数．
+	 */
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+	/**
+	 * 試合の設定にフレームの期限が指定されていない場合に用いる, 各AIの1フレーム分の処理を待つ時間の上限(ナノ秒)．<br>
+	 * 通常の対戦の1フレームの時間である．
+	 */
+	public static final long DEFAULT_FRAME_DEADLINE_NANOS = 1000000000L / GameSetting.FPS;
+
+	/**
+	 * 試合の制限時間に加える余裕(ミリ秒)．AIの読み込みや初期化などの, フレームの期限が適用されない処理のための時間である．
+	 */
+	private static final long MATCH_TIMEOUT_MARGIN_MILLIS = 60000;
+
+	/**
+	 * 1つの試合を表すクラス．
+	 */
+	private static class Job {
+
+		/**
+		 * 試合の番号．
+		 */
+		final int id;
+
+		/**
+		 * P1, P2のAI名．
+		 */
+		final String[] aiNames;
+
+		/**
+		 * P1, P2のキャラクター名．
+		 */
+		final String[] characterNames;
+
+		/**
+		 * 同じ組み合わせの試合の中での番号．
+		 */
+		final int repeat;
+
+		/**
+		 * この試合を実行した回数．
+		 */
+		int attempts;
+
+		/**
+		 * 試合の結果．終わっていない場合や, 全ての試行に失敗した場合は{@code null}．
+		 */
+		ArrayList<RoundResult> results;
+
+		/**
+		 * 最後の試行の状態．
+		 */
+		String status;
+
+		/**
+		 * 最後の試行が失敗した原因．
+		 */
+		String error;
+
+		/**
+		 * 最後の試行が失敗した原因となったAIの名前．特定できない場合は{@code null}．
+		 */
+		String culprit;
+
+		Job(int id, String p1, String p2, String[] characterNames, int repeat) {
+			this.id = id;
+			this.aiNames = new String[] { p1, p2 };
+			this.characterNames = characterNames;
+			this.repeat = repeat;
+			this.status = "PENDING";
+		}
+	}
+
+	/**
+	 * 1つの試合の1回の試行を, ワーカースレッドとは別のスレッドで行うクラス．<br>
+	 * AIの読み込み, 初期化及び対戦の全てをこのスレッドで行うため, ワーカースレッドは制限時間を過ぎた試合を見捨てることができる．
+	 */
+	private static class MatchRunner extends Thread {
+
+		/**
+		 * 試合の設定．
+		 */
+		final MatchContext context;
+
+		/**
+		 * P1, P2のAIを読み込んだクラスローダ．
+		 */
+		final URLClassLoader[] classLoaders;
+
+		/**
+		 * P1, P2のAIコントローラ．読み込む前は{@code null}．
+		 */
+		volatile AIController[] ais;
+
+		/**
+		 * 試合の結果．試合が正常に終わらなかった場合は{@code null}．
+		 */
+		volatile ArrayList<RoundResult> results;
+
+		/**
+		 * 試合中に発生した例外またはエラー．
+		 */
+		volatile Throwable error;
+
+		MatchRunner(String name, MatchContext context) {
+			super(name);
+			this.context = context;
+			this.classLoaders = new URLClassLoader[2];
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			try {
+				AIController[] loaded = HeadlessMatch.loadAIs(this.context, this.classLoaders);
+				this.ais = loaded;
+				for (int i = 0; i < loaded.length; i++) {
+					if (loaded[i] == null) {
+						throw new IllegalStateException("cannot load " + this.context.getAIName(i));
+					}
+				}
+
+				HeadlessMatch match = new HeadlessMatch(this.context, loaded);
+				// JSONの出力先は全ての試合で共有されるため, 並列に行う試合では出力しない
+				match.setJsonEnabled(false);
+				// 失敗した試行の結果を残さないよう, 試合結果は正常に終わった場合にのみ出力する
+				match.setResultOutputEnabled(false);
+				ArrayList<RoundResult> roundResults = match.run();
+
+				for (AIController ai : loaded) {
+					if (ai.getFailure() != null) {
+						throw new AIFailure(ai.getAIName(), ai.getFailure());
+					}
+				}
+
+				match.outputResult();
+				this.results = roundResults;
+
+			} catch (Throwable e) {
+				this.error = e;
+			}
+		}
+	}
+
+	/**
+	 * AIのスレッドが例外またはエラーによって終了したことを表す例外．
+	 */
+	private static class AIFailure extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * 終了したAIの名前．
+		 */
+		final String aiName;
+
+		AIFailure(String aiName, Throwable cause) {
+			super(aiName + " stopped: " + cause, cause);
+			this.aiName = aiName;
+		}
+	}
+
+	/**
+	 * 1つのAIの成績を表すクラス．
+	 */
+	private static class Standing {
+
+		/**
+		 * AI名．
+		 */
+		final String aiName;
+
+		int matches;
+		int wins;
+		int losses;
+		int draws;
+		int roundWins;
+		int roundLosses;
+
+		/**
+		 * 全ラウンドにおける, 自分と相手の残り体力の差の合計．
+		 */
+		long hpDifference;
+
+		/**
+		 * 参加した試合のうち, 失敗した試合の数．
+		 */
+		int failedMatches;
+
+		/**
+		 * このAIが原因で失敗した試合の数．
+		 */
+		int causedFailures;
+
+		/**
+		 * このAIが原因で失敗した最後の試合の原因．
+		 */
+		String lastError;
+
+		Standing(String aiName) {
+			this.aiName = aiName;
+		}
+	}
+
+	/**
+	 * 各試合の設定の元となる設定．
+	 */
+	private final MatchContext baseContext;
+
+	/**
+	 * 試合の一覧．
+	 */
+	private final List<Job> jobs;
+
+	/**
+	 * 成績を出力するAI名の一覧．
+	 */
+	private final List<String> aiNames;
+
+	/**
+	 * 並列に試合を行うワーカースレッドの数．
+	 */
+	private final int workers;
+
+	/**
+	 * 1つの試合の最大試行回数．
+	 */
+	private int maxAttempts;
+
+	/**
+	 * 1つの試合の制限時間(ミリ秒)．0以下の場合は, 試合の設定から求めた時間を用いる．
+	 */
+	private long matchTimeoutMillis;
+
+	/**
+	 * 閉じていないAIのクラスローダの一覧．制限時間を過ぎた試合のクラスローダは, 総当り戦の終了時に閉じる．
+	 */
+	private final List<URLClassLoader> classLoaders;
+
+	/**
+	 * 引数で指定したAI, キャラクター及び繰り返し回数の総当り戦を生成するクラスコンストラクタ．<br>
+	 * 試合の設定は, 引数の設定をコピーし, AI名とキャラクター名を試合ごとに変えたものを用いる．
+	 * 引数の設定にフレームの期限が指定されていない場合は, 処理から戻らないAIが試合を止めないよう{@link #DEFAULT_FRAME_DEADLINE_NANOS}を用いる．
+	 *
+	 * @param baseContext
+	 *            各試合の設定の元となる設定
+	 * @param aiNames
+	 *            総当り戦に参加するAI名のリスト
+	 * @param characterPairs
+	 *            試合に用いるP1, P2のキャラクター名の組のリスト
+	 * @param repeats
+	 *            各組み合わせの試合を行う回数
+	 * @param workers
+	 *            並列に試合を行うワーカースレッドの数
+	 */
+	public Tournament(MatchContext baseContext, List<String> aiNames, List<String[]> characterPairs, int repeats,
+			int workers) {
+		this.baseContext = new MatchContext(baseContext);
+		this.baseContext.setEnableWindow(false);
+		this.baseContext.setFastMode(true);
+		if (this.baseContext.getFrameDeadlineNanos() <= 0) {
+			this.baseContext.setFrameDeadlineNanos(DEFAULT_FRAME_DEADLINE_NANOS);
+		}
+		this.aiNames = new ArrayList<String>(aiNames);
+		this.workers = Math.max(1, workers);
+		this.maxAttempts = DEFAULT_MAX_ATTEMPTS;
+		this.matchTimeoutMillis = 0;
+		this.classLoaders = new ArrayList<URLClassLoader>();
+
+		this.jobs = new ArrayList<Job>();
+		for (String[] characterPair : characterPairs) {
+			for (String p1 : aiNames) {
+				for (String p2 : aiNames) {
+					if (p1.equals(p2)) {
+						continue;
+					}
+					for (int repeat = 0; repeat < repeats; repeat++) {
+						this.jobs.add(new Job(this.jobs.size(), p1, p2, characterPair, repeat));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 1つの試合の最大試行回数をセットする．
+	 *
+	 * @param maxAttempts
+	 *            1つの試合の最大試行回数. 1以上である必要がある
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = Math.max(1, maxAttempts);
+	}
+
+	/**
+	 * 1つの試合の制限時間をセットする．<br>
+	 * 制限時間を過ぎた試合は失敗とし, 再試行しない．
+	 *
+	 * @param matchTimeoutMillis
+	 *            1つの試合の制限時間(ミリ秒). 0以下の場合は, ラウンド数, 1ラウンドのフレーム数及びフレームの期限から求めた時間を用いる
+	 */
+	public void setMatchTimeoutMillis(long matchTimeoutMillis) {
+		this.matchTimeoutMillis = matchTimeoutMillis;
+	}
+
+	/**
+	 * 試合の数を返す．
+	 *
+	 * @return 試合の数
+	 */
+	public int getJobCount() {
+		return this.jobs.size();
+	}
+
+	/**
+	 * 全ての試合を行い, 各試合の結果と各AIの成績をファイルに出力する．<br>
+	 * 全ての試合が終わるまで呼び出し元のスレッドを待たせる．
+	 *
+	 * @param timeInfo
+	 *            出力ファイル名に用いる時間情報
+	 */
+	public void run(String timeInfo) {
+		final LinkedBlockingQueue<Job> queue = new LinkedBlockingQueue<Job>(this.jobs);
+		final CountDownLatch remaining = new CountDownLatch(this.jobs.size());
+		final String prefix = "Tournament_" + timeInfo;
+
+		Thread[] threads = new Thread[Math.min(this.workers, Math.max(1, this.jobs.size()))];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread("TournamentWorker-" + i) {
+				@Override
+				public void run() {
+					Job job;
+					while ((job = queue.poll()) != null) {
+						boolean finished = true;
+						try {
+							finished = execute(job, prefix);
+						} catch (Throwable e) {
+							// 試合を数え損ねると総当り戦が終わらなくなるため, どのような失敗でもこの試合を終えたものとする
+							Logger.getAnonymousLogger().log(Level.SEVERE, "Failed match " + job.id, e);
+							job.status = "FAILED";
+							job.error = String.valueOf(e);
+						} finally {
+							if (finished) {
+								remaining.countDown();
+							} else {
+								queue.add(job);
+							}
+						}
+					}
+				}
+			};
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+
+		try {
+			remaining.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			Logger.getAnonymousLogger().log(Level.WARNING, "The tournament was interrupted");
+		} finally {
+			closeClassLoaders();
+		}
+
+		outputMatches("./log/point/" + prefix + "_matches.csv");
+		outputStandings("./log/point/" + prefix + "_standings.csv", "./log/point/" + prefix + "_failures.csv");
+	}
+
+	/**
+	 * 1つの試合を1回実行し, 制限時間まで終了を待つ．
+	 *
+	 * @param job
+	 *            試合
+	 * @param prefix
+	 *            試合の名前の接頭辞
+	 *
+	 * @return {@code true} 試合が終わった, または再試行しない，{@code false} 試合を再試行する
+	 */
+	private boolean execute(Job job, String prefix) {
+		job.attempts++;
+		MatchContext context = new MatchContext(this.baseContext);
+		context.setName(prefix + "_" + job.id + "_" + job.attempts);
+		context.setAINames(job.aiNames[0], job.aiNames[1]);
+		context.setCharacterNames(job.characterNames[0], job.characterNames[1]);
+
+		String description = "match " + job.id + " (" + job.aiNames[0] + " vs " + job.aiNames[1] + ", "
+				+ job.characterNames[0] + " vs " + job.characterNames[1] + ", attempt " + job.attempts + ")";
+
+		MatchRunner runner = new MatchRunner("TournamentMatch-" + job.id + "-" + job.attempts, context);
+		runner.start();
+		try {
+			runner.join(getMatchTimeoutMillis(context));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (runner.isAlive()) {
+			// 処理から戻らないAIのスレッドは止められないため, 試合を見捨ててクラスローダは総当り戦の終了時に閉じる
+			runner.interrupt();
+			synchronized (this.classLoaders) {
+				for (URLClassLoader classLoader : runner.classLoaders) {
+					if (classLoader != null) {
+						this.classLoaders.add(classLoader);
+					}
+				}
+			}
+			job.status = "TIMEOUT";
+			job.error = "timed out after " + getMatchTimeoutMillis(context) + " ms";
+			job.culprit = findCulprit(job, runner.getStackTrace());
+			Logger.getAnonymousLogger().log(Level.WARNING, "Timed out " + description);
+			return true;
+		}
+
+		closeClassLoaders(runner.classLoaders);
+
+		Throwable error = runner.error;
+		if (error == null) {
+			job.results = runner.results;
+			job.status = "OK";
+			job.error = null;
+			job.culprit = null;
+			Logger.getAnonymousLogger().log(Level.INFO, "Finished " + description);
+			return true;
+		}
+
+		job.status = "FAILED";
+		job.error = String.valueOf(error);
+		if (error instanceof AIFailure) {
+			job.culprit = ((AIFailure) error).aiName;
+			error = error.getCause();
+		} else if (runner.ais != null && (runner.ais[0] == null || runner.ais[1] == null)) {
+			job.culprit = job.aiNames[runner.ais[0] == null ? 0 : 1];
+		} else {
+			job.culprit = findCulprit(job, error.getStackTrace());
+		}
+		Logger.getAnonymousLogger().log(Level.WARNING, "Failed " + description + ": " + job.error);
+
+		// AIを読み込めない場合や, AIのクラスが古いインタフェースに対してコンパイルされている場合は, 再試行しても結果が変わらない
+		boolean deterministic = error instanceof LinkageError
+				|| (runner.ais != null && (runner.ais[0] == null || runner.ais[1] == null));
+		return deterministic || job.attempts >= this.maxAttempts;
+	}
+
+	/**
+	 * 1つの試合の制限時間を返す．<br>
+	 * 指定されていない場合は, 全てのフレームで各AIがフレームの期限まで処理した場合の時間の2倍に, 余裕を加えた時間とする．
+	 *
+	 * @param context
+	 *            試合の設定
+	 *
+	 * @return 1つの試合の制限時間(ミリ秒)
+	 */
+	private long getMatchTimeoutMillis(MatchContext context) {
+		if (this.matchTimeoutMillis > 0) {
+			return this.matchTimeoutMillis;
+		}
+		long frames = (long) context.getRoundMax()
+				* (context.getRoundFrameNumber() + GameSetting.BREAKTIME_FRAME_NUMBER);
+		return frames * context.getFrameDeadlineNanos() * 2 / 1000000 + MATCH_TIMEOUT_MARGIN_MILLIS;
+	}
+
+	/**
+	 * スタックトレースから, 失敗の原因となったAIを探す．<br>
+	 * AIのクラス名はAI名と同じであるため, スタックトレースに含まれるクラス名のうち, 最も内側のAI名と一致するものを原因とする．
+	 *
+	 * @param job
+	 *            試合
+	 * @param stackTrace
+	 *            失敗した試合のスタックトレース
+	 *
+	 * @return 原因となったAIの名前. 特定できない場合は{@code null}
+	 */
+	private String findCulprit(Job job, StackTraceElement[] stackTrace) {
+		for (StackTraceElement element : stackTrace) {
+			String className = element.getClassName();
+			int index = className.indexOf('$');
+			if (index >= 0) {
+				className = className.substring(0, index);
+			}
+			for (String aiName : job.aiNames) {
+				if (aiName.equals(className)) {
+					return aiName;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 試合を終えたAIのクラスローダを閉じる．
+	 *
+	 * @param classLoaders
+	 *            閉じるクラスローダを格納した配列. {@code null}の要素は無視する
+	 */
+	private static void closeClassLoaders(URLClassLoader[] classLoaders) {
+		for (URLClassLoader classLoader : classLoaders) {
+			if (classLoader != null) {
+				try {
+					classLoader.close();
+				} catch (IOException e) {
+					Logger.getAnonymousLogger().log(Level.WARNING, "Cannot close the class loader: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * 制限時間を過ぎた試合の, 閉じていない全てのクラスローダを閉じる．
+	 */
+	private void closeClassLoaders() {
+		synchronized (this.classLoaders) {
+			closeClassLoaders(this.classLoaders.toArray(new URLClassLoader[this.classLoaders.size()]));
+			this.classLoaders.clear();
+		}
+	}
+
+	/**
+	 * 各試合の結果をCSVファイルに出力する．<br>
+	 * 1行は1つの試合に対応する．
+	 *
+	 * @param fileName
+	 *            出力ファイル名
+	 */
+	private void outputMatches(String fileName) {
+		PrintWriter pw = ResourceLoader.getInstance().openWriteFile(fileName, false);
+		if (pw == null) {
+			return;
+		}
+
+		pw.println("match,p1,p2,c1,c2,repeat,attempts,status,p1_round_wins,p2_round_wins,hp_difference,error");
+		for (Job job : this.jobs) {
+			int[] roundWins = new int[2];
+			long hpDifference = 0;
+			if (job.results != null) {
+				for (RoundResult result : job.results) {
+					int[] hp = result.getRemainingHPs();
+					hpDifference += hp[0] - hp[1];
+					if (hp[0] != hp[1]) {
+						roundWins[hp[0] > hp[1] ? 0 : 1]++;
+					}
+				}
+			}
+
+			pw.println(job.id + "," + job.aiNames[0] + "," + job.aiNames[1] + "," + job.characterNames[0] + ","
+					+ job.characterNames[1] + "," + job.repeat + "," + job.attempts + "," + job.status + ","
+					+ roundWins[0] + "," + roundWins[1] + "," + hpDifference + "," + quote(job.error));
+		}
+		pw.close();
+	}
+
+	/**
+	 * 各AIの成績を集計し, 試合を1つ以上終えたAIを勝利数の多い順にCSVファイルに出力する．<br>
+	 * 各ラウンドは残り体力の多い方の勝ちとし, 試合は勝ったラウンドの多い方の勝ちとする．
+	 * 勝利数が等しい場合は, 残り体力の差の合計が大きい順とする．失敗した試合は集計しない．<br>
+	 * 失敗した試合に参加したAIは, 順位とは別のCSVファイルに, 終えた試合の数, 失敗した試合の数及び自身が原因で失敗した試合の数とともに出力する．
+	 *
+	 * @param standingsFileName
+	 *            成績の出力ファイル名
+	 * @param failuresFileName
+	 *            失敗した試合に参加したAIの一覧の出力ファイル名
+	 */
+	private void outputStandings(String standingsFileName, String failuresFileName) {
+		Map<String, Standing> standings = new LinkedHashMap<String, Standing>();
+		for (String aiName : this.aiNames) {
+			standings.put(aiName, new Standing(aiName));
+		}
+
+		int failed = 0;
+		for (Job job : this.jobs) {
+			Standing[] players = { standings.get(job.aiNames[0]), standings.get(job.aiNames[1]) };
+			if (job.results == null) {
+				failed++;
+				players[0].failedMatches++;
+				players[1].failedMatches++;
+				if (job.culprit != null) {
+					standings.get(job.culprit).causedFailures++;
+					standings.get(job.culprit).lastError = job.error;
+				}
+				continue;
+			}
+
+			int[] roundWins = new int[2];
+			for (RoundResult result : job.results) {
+				int[] hp = result.getRemainingHPs();
+				players[0].hpDifference += hp[0] - hp[1];
+				players[1].hpDifference += hp[1] - hp[0];
+				if (hp[0] != hp[1]) {
+					roundWins[hp[0] > hp[1] ? 0 : 1]++;
+				}
+			}
+
+			for (int i = 0; i < 2; i++) {
+				Standing standing = players[i];
+				standing.matches++;
+				standing.roundWins += roundWins[i];
+				standing.roundLosses += roundWins[1 - i];
+				if (roundWins[i] > roundWins[1 - i]) {
+					standing.wins++;
+				} else if (roundWins[i] < roundWins[1 - i]) {
+					standing.losses++;
+				} else {
+					standing.draws++;
+				}
+			}
+		}
+
+		// 1つも試合を終えていないAIは順位に含めない
+		List<Standing> ranked = new ArrayList<Standing>();
+		List<Standing> failures = new ArrayList<Standing>();
+		for (Standing standing : standings.values()) {
+			if (standing.matches > 0) {
+				ranked.add(standing);
+			}
+			if (standing.failedMatches > 0) {
+				failures.add(standing);
+			}
+		}
+		Collections.sort(ranked, new Comparator<Standing>() {
+			@Override
+			public int compare(Standing a, Standing b) {
+				if (a.wins != b.wins) {
+					return Integer.compare(b.wins, a.wins);
+				}
+				return Long.compare(b.hpDifference, a.hpDifference);
+			}
+		});
+
+		PrintWriter pw = ResourceLoader.getInstance().openWriteFile(standingsFileName, false);
+		if (pw != null) {
+			pw.println("rank,ai,matches,wins,losses,draws,round_wins,round_losses,hp_difference");
+			for (int i = 0; i < ranked.size(); i++) {
+				Standing s = ranked.get(i);
+				pw.println((i + 1) + "," + s.aiName + "," + s.matches + "," + s.wins + "," + s.losses + "," + s.draws
+						+ "," + s.roundWins + "," + s.roundLosses + "," + s.hpDifference);
+			}
+			pw.close();
+		}
+
+		if (failed == 0) {
+			return;
+		}
+
+		pw = ResourceLoader.getInstance().openWriteFile(failuresFileName, false);
+		if (pw != null) {
+			pw.println("ai,completed_matches,failed_matches,caused_failures,error");
+			for (Standing s : failures) {
+				pw.println(s.aiName + "," + s.matches + "," + s.failedMatches + "," + s.causedFailures + ","
+						+ quote(s.lastError));
+			}
+			pw.close();
+		}
+
+		Logger.getAnonymousLogger().log(Level.WARNING,
+				failed + " of " + this.jobs.size() + " matches failed and are not counted; see " + failuresFileName);
+	}
+
+	/**
+	 * 文字列をCSVの1つの値として出力できるよう, ダブルクォートで囲む．
+	 *
+	 * @param value
+	 *            文字列
+	 *
+	 * @return ダブルクォートで囲んだ文字列. 引数が{@code null}の場合は空文字列
+	 */
+	private static String quote(String value) {
+		if (value == null) {
+			return "";
+		}
+		return "\"" + value.replace("\"", "\"\"").replace('\n', ' ') + "\"";
+	}
+
+	/**
+	 * 起動時の引数で指定された設定で総当り戦を行う．<br>
+	 * 起動時に{@code --headless}と{@code -a}が指定された場合に呼び出される．
+	 * 参加するAIは./data/aiにある全てのAI, キャラクターは{@link LaunchSetting#tournamentCharacters}が指定されていればその各キャラクター同士,
+	 * 指定されていなければP1, P2に指定されたキャラクターである．
+	 */
+	public static void launch() {
+		Game.createLogDirectories();
+
+		List<String> aiNames = ResourceLoader.getInstance().loadFileNames("./data/ai", ".jar");
+		if (aiNames.size() < 2) {
+			Logger.getAnonymousLogger().log(Level.INFO, "Cannot launch FightingICE with Round-robin mode.");
+			return;
+		}
+
+		List<String[]> characterPairs = new ArrayList<String[]>();
+		if (LaunchSetting.tournamentCharacters != null) {
+			for (String characterName : LaunchSetting.tournamentCharacters) {
+				characterPairs.add(new String[] { characterName, characterName });
+			}
+		} else {
+			characterPairs.add(LaunchSetting.characterNames.clone());
+		}
+
+		Tournament tournament = new Tournament(new MatchContext(), aiNames, characterPairs, LaunchSetting.repeatNumber,
+				LaunchSetting.tournamentWorkers);
+		Logger.getAnonymousLogger().log(Level.INFO, "Start " + tournament.getJobCount() + " matches of "
+				+ aiNames.size() + " AIs on " + LaunchSetting.tournamentWorkers + " workers");
+
+		tournament.run(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd-HH.mm.ss", Locale.ENGLISH)));
+	}
+
+}
@@ -210,34 +210,45 @@ public class Attack {
 	 */
 	public Attack(AttackData attackData) {
 		if (attackData != null) {
-			this.settingHitArea = attackData.getSettingHitArea();
-			this.settingSpeedX = attackData.getSettingSpeedX();
-			this.settingSpeedY = attackData.getSettingSpeedY();
-
-			this.currentHitArea = attackData.getCurrentHitArea();
-			this.currentFrame = attackData.getCurrentFrame();
-			this.playerNumber = attackData.isPlayerNumber();
-			this.speedX = attackData.getSpeedX();
-			this.speedY = attackData.getSpeedY();
-
-			this.startUp = attackData.getStartUp();
-			this.active = attackData.getActive();
-
-			this.hitDamage = attackData.getHitDamage();
-			this.guardDamage = attackData.getGuardDamage();
-			this.startAddEnergy = attackData.getStartAddEnergy();
-			this.hitAddEnergy = attackData.getHitAddEnergy();
-			this.guardAddEnergy = attackData.getGuardAddEnergy();
-			this.giveEnergy = attackData.getGiveEnergy();
-
-			this.impactX = attackData.getImpactX();
-			this.impactY = attackData.getImpactY();
-			this.giveGuardRecov = attackData.getGiveGuardRecov();
-			this.attackType = attackData.getAttackType();
-			this.downProp = attackData.isDownProp();
+			reset(attackData);
 		}
 	}
 
+	/**
+	 * 引数として渡されたAttackDataクラスのインスタンスから変数の値をコピーし，このインスタンスの値を上書きする．<br>
+	 * シミュレータ内でインスタンスを使い回す際に呼び出され，新たなインスタンスの生成を行わない.
+	 *
+	 * @param attackData
+	 *            AttackDataのインスタンス
+	 */
+	public void reset(AttackData attackData) {
+		this.settingHitArea = attackData.getSettingHitArea();
+		this.settingSpeedX = attackData.getSettingSpeedX();
+		this.settingSpeedY = attackData.getSettingSpeedY();
+
+		this.currentHitArea = attackData.getCurrentHitArea();
+		this.currentFrame = attackData.getCurrentFrame();
+		this.playerNumber = attackData.isPlayerNumber();
+		this.speedX = attackData.getSpeedX();
+		this.speedY = attackData.getSpeedY();
+
+		this.startUp = attackData.getStartUp();
+		this.active = attackData.getActive();
+
+		this.hitDamage = attackData.getHitDamage();
+		this.guardDamage = attackData.getGuardDamage();
+		this.startAddEnergy = attackData.getStartAddEnergy();
+		this.hitAddEnergy = attackData.getHitAddEnergy();
+		this.guardAddEnergy = attackData.getGuardAddEnergy();
+		this.giveEnergy = attackData.getGiveEnergy();
+
+		this.impactX = attackData.getImpactX();
+		this.impactY = attackData.getImpactY();
+		this.giveGuardRecov = attackData.getGiveGuardRecov();
+		this.attackType = attackData.getAttackType();
+		this.downProp = attackData.isDownProp();
+	}
+
 	/**
 	 * 引数として渡された値を用いて，Attackクラスのインスタンスを作成するクラスコンストラクタ．
 	 *
@@ -399,6 +410,68 @@ public class Attack {
 		this.currentHitArea = new HitArea(left, right, top, bottom);
 	}
 
+	/**
+	 * 攻撃の状態を引数のStateArenaに書き込む．
+	 *
+	 * @param arena
+	 *            状態を書き込むStateArenaのインスタンス
+	 *
+	 * @see #decode(StateArena)
+	 */
+	public void encode(StateArena arena) {
+		arena.putHitArea(this.settingHitArea);
+		arena.putInt(this.settingSpeedX);
+		arena.putInt(this.settingSpeedY);
+		arena.putHitArea(this.currentHitArea);
+		arena.putInt(this.currentFrame);
+		arena.putBoolean(this.playerNumber);
+		arena.putInt(this.speedX);
+		arena.putInt(this.speedY);
+		arena.putInt(this.startUp);
+		arena.putInt(this.active);
+		arena.putInt(this.hitDamage);
+		arena.putInt(this.guardDamage);
+		arena.putInt(this.startAddEnergy);
+		arena.putInt(this.hitAddEnergy);
+		arena.putInt(this.guardAddEnergy);
+		arena.putInt(this.giveEnergy);
+		arena.putInt(this.impactX);
+		arena.putInt(this.impactY);
+		arena.putInt(this.giveGuardRecov);
+		arena.putInt(this.attackType);
+		arena.putBoolean(this.downProp);
+	}
+
+	/**
+	 * {@link #encode(StateArena)}で書き込まれた攻撃の状態を引数のStateArenaから読み出し, このインスタンスに上書きする．
+	 *
+	 * @param arena
+	 *            状態を読み出すStateArenaのインスタンス
+	 */
+	public void decode(StateArena arena) {
+		this.settingHitArea = arena.getHitArea();
+		this.settingSpeedX = arena.getInt();
+		this.settingSpeedY = arena.getInt();
+		this.currentHitArea = arena.getHitArea();
+		this.currentFrame = arena.getInt();
+		this.playerNumber = arena.getBoolean();
+		this.speedX = arena.getInt();
+		this.speedY = arena.getInt();
+		this.startUp = arena.getInt();
+		this.active = arena.getInt();
+		this.hitDamage = arena.getInt();
+		this.guardDamage = arena.getInt();
+		this.startAddEnergy = arena.getInt();
+		this.hitAddEnergy = arena.getInt();
+		this.guardAddEnergy = arena.getInt();
+		this.giveEnergy = arena.getInt();
+		this.impactX = arena.getInt();
+		this.impactY = arena.getInt();
+		this.giveGuardRecov = arena.getInt();
+		this.attackType = arena.getInt();
+		this.downProp = arena.getBoolean();
+	}
+
 	/**
 	 * Returns the player side's flag.
 	 *
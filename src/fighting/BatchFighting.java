@@ -0,0 +1,1105 @@
+package fighting;
+
+import command.CommandRecognizer;
+import command.CommandTable;
+import enumerate.Action;
+import enumerate.State;
+import setting.GameSetting;
+import setting.MatchContext;
+
+/**
+ * 多数の対戦を同時に1フレームずつ進めるクラス．<br>
+ * 各対戦のキャラクター, 攻撃及び波動拳の情報を, 対戦ごとのオブジェクトではなくフィールドごとのint型の配列に並べて保持する．
+ * 対戦処理の規則は{@link Fighting}と同じであり, 同じキー入力を与えれば同じ結果になる．<br>
+ * 攻撃が当たった時のエフェクトや効果音は扱わない．<br>
+ * キャラクター情報の配列のインデックスは, 対戦の番号を{@code game}として, P1が{@code game * 2}, P2が{@code game * 2 + 1}である．
+ *
+ * @see Fighting
+ * @see MotionTable
+ */
+public class BatchFighting {
+
+	/**
+	 * 攻撃が存在しないことを表す値．
+	 */
+	private static final int NO_ATTACK = -1;
+
+	/**
+	 * 1つの対戦で同時に存在できる波動拳の数の初期値．
+	 */
+	private static final int DEFAULT_PROJECTILE_CAPACITY = 8;
+
+	private static final int STAND = State.STAND.ordinal();
+	private static final int CROUCH = State.CROUCH.ordinal();
+	private static final int AIR = State.AIR.ordinal();
+	private static final int DOWN_STATE = State.DOWN.ordinal();
+
+	private static final int ACTION_NEUTRAL = Action.NEUTRAL.ordinal();
+	private static final int ACTION_STAND = Action.STAND.ordinal();
+	private static final int ACTION_CROUCH = Action.CROUCH.ordinal();
+	private static final int ACTION_AIR = Action.AIR.ordinal();
+	private static final int ACTION_DOWN = Action.DOWN.ordinal();
+	private static final int ACTION_RISE = Action.RISE.ordinal();
+	private static final int ACTION_LANDING = Action.LANDING.ordinal();
+	private static final int ACTION_CHANGE_DOWN = Action.CHANGE_DOWN.ordinal();
+	private static final int ACTION_THROW_HIT = Action.THROW_HIT.ordinal();
+	private static final int ACTION_THROW_SUFFER = Action.THROW_SUFFER.ordinal();
+	private static final int ACTION_STAND_GUARD = Action.STAND_GUARD.ordinal();
+	private static final int ACTION_CROUCH_GUARD = Action.CROUCH_GUARD.ordinal();
+	private static final int ACTION_AIR_GUARD = Action.AIR_GUARD.ordinal();
+	private static final int ACTION_STAND_GUARD_RECOV = Action.STAND_GUARD_RECOV.ordinal();
+	private static final int ACTION_CROUCH_GUARD_RECOV = Action.CROUCH_GUARD_RECOV.ordinal();
+	private static final int ACTION_AIR_GUARD_RECOV = Action.AIR_GUARD_RECOV.ordinal();
+	private static final int ACTION_STAND_RECOV = Action.STAND_RECOV.ordinal();
+	private static final int ACTION_CROUCH_RECOV = Action.CROUCH_RECOV.ordinal();
+	private static final int ACTION_AIR_RECOV = Action.AIR_RECOV.ordinal();
+
+	/**
+	 * 全てのStateを格納した配列．
+	 */
+	private static final State[] STATES = State.values();
+
+	/**
+	 * 全てのActionを格納した配列．
+	 */
+	private static final Action[] ACTIONS = Action.values();
+
+	/**
+	 * 同時に進める対戦の数．
+	 */
+	private final int games;
+
+	/**
+	 * 全ての対戦に共通する試合の設定．
+	 */
+	private final MatchContext context;
+
+	/**
+	 * P1とP2のモーションのパラメータ．
+	 */
+	private final MotionTable[] motions;
+
+	/**
+	 * P1とP2のキャラクターの画像の幅．
+	 */
+	private final int[] graphicSizeX;
+
+	/**
+	 * P1とP2のキャラクターの向きを決定する時にx座標を調整するために用いる水平方向の移動量．
+	 */
+	private final int[] graphicAdjustX;
+
+	/**
+	 * P1とP2のキャラクターの初期位置のx座標．
+	 */
+	private final int[] initialX;
+
+	/**
+	 * キー入力とそれに対応するアクションを管理するクラス変数．
+	 */
+	private final CommandTable commandTable;
+
+	/**
+	 * 各対戦の現在のフレーム．
+	 */
+	private final int[] currentFrame;
+
+	/**
+	 * 各キャラクターの直近{@link GameSetting#INPUT_LIMIT}フレームのキー入力の履歴．
+	 */
+	private final CommandRecognizer[] recognizers;
+
+	private final int[] hp;
+	private final int[] energy;
+	private final int[] x;
+	private final int[] y;
+	private final int[] speedX;
+	private final int[] speedY;
+	private final int[] state;
+	private final int[] action;
+	private final boolean[] front;
+	private final boolean[] control;
+	private final int[] remainingFrame;
+	private final boolean[] hitConfirm;
+	private final int[] lastHitFrame;
+	private final int[] hitCount;
+
+	/**
+	 * 各キャラクターの攻撃の元になったモーション(Actionの序数). 攻撃がない場合は{@link #NO_ATTACK}．
+	 */
+	private final int[] attackMotion;
+	private final int[] attackFrame;
+	private final int[] attackLeft;
+	private final int[] attackRight;
+	private final int[] attackTop;
+	private final int[] attackBottom;
+	private final int[] attackSpeedX;
+	private final int[] attackSpeedY;
+
+	/**
+	 * 1つの対戦で同時に存在できる波動拳の数．
+	 */
+	private int projectileCapacity;
+
+	/**
+	 * 各対戦に存在する波動拳の数．
+	 */
+	private final int[] projectileCount;
+
+	/**
+	 * 各波動拳を出したプレイヤー(0: P1, 1: P2)．<br>
+	 * 以下の波動拳の配列のインデックスは{@code game * projectileCapacity + k}であり, kが小さいほど古い．
+	 */
+	private int[] projectileOwner;
+	private int[] projectileMotion;
+	private int[] projectileFrame;
+	private int[] projectileLeft;
+	private int[] projectileRight;
+	private int[] projectileTop;
+	private int[] projectileBottom;
+	private int[] projectileSpeedX;
+	private int[] projectileSpeedY;
+
+	/**
+	 * 引数のキャラクターのモーションと画像サイズを用いてインスタンスを生成し, 全ての対戦をラウンド開始時の状態にするクラスコンストラクタ．<br>
+	 * 最大HPなどの試合の設定は, P1のキャラクターが参加する試合の設定を用いる．
+	 *
+	 * @param characters
+	 *            {@link Character#initialize(String, boolean)}で初期化されたP1とP2のキャラクター
+	 * @param games
+	 *            同時に進める対戦の数
+	 */
+	public BatchFighting(Character[] characters, int games) {
+		this.games = games;
+		this.context = characters[0].getContext();
+		this.motions = new MotionTable[2];
+		this.graphicSizeX = new int[2];
+		this.graphicAdjustX = new int[2];
+		this.initialX = new int[2];
+		for (int i = 0; i < 2; i++) {
+			this.motions[i] = new MotionTable(characters[i].getMotions());
+			this.graphicSizeX[i] = characters[i].getGraphicSizeX();
+			this.graphicAdjustX[i] = characters[i].getGraphicAdjustX();
+		}
+		this.initialX[0] = 100 + characters[0].getGraphicAdjustInitialX()[0];
+		this.initialX[1] = 460 + characters[1].getGraphicAdjustInitialX()[1];
+
+		this.commandTable = new CommandTable();
+
+		this.currentFrame = new int[games];
+		this.recognizers = new CommandRecognizer[games * 2];
+		for (int c = 0; c < games * 2; c++) {
+			this.recognizers[c] = new CommandRecognizer();
+		}
+
+		int size = games * 2;
+		this.hp = new int[size];
+		this.energy = new int[size];
+		this.x = new int[size];
+		this.y = new int[size];
+		this.speedX = new int[size];
+		this.speedY = new int[size];
+		this.state = new int[size];
+		this.action = new int[size];
+		this.front = new boolean[size];
+		this.control = new boolean[size];
+		this.remainingFrame = new int[size];
+		this.hitConfirm = new boolean[size];
+		this.lastHitFrame = new int[size];
+		this.hitCount = new int[size];
+
+		this.attackMotion = new int[size];
+		this.attackFrame = new int[size];
+		this.attackLeft = new int[size];
+		this.attackRight = new int[size];
+		this.attackTop = new int[size];
+		this.attackBottom = new int[size];
+		this.attackSpeedX = new int[size];
+		this.attackSpeedY = new int[size];
+
+		this.projectileCount = new int[games];
+		allocateProjectiles(DEFAULT_PROJECTILE_CAPACITY);
+
+		for (int game = 0; game < games; game++) {
+			initRound(game);
+		}
+	}
+
+	/**
+	 * 指定した対戦を, {@link Fighting#initRound()}と同様にラウンド開始時の状態にする．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 */
+	public void initRound(int game) {
+		this.currentFrame[game] = 0;
+		this.projectileCount[game] = 0;
+
+		for (int p = 0; p < 2; p++) {
+			int c = game * 2 + p;
+
+			this.recognizers[c].clear();
+			this.hp[c] = this.context.isLimitHp() ? this.context.getMaxHp(p) : 0;
+			this.energy[c] = this.context.isTrainingMode() ? this.context.getMaxEnergy(p) : 0;
+			if (this.context.isTrainingMode()) {
+				this.hp[c] = this.context.getMaxHp(p);
+			}
+
+			this.speedX[c] = 0;
+			this.speedY[c] = 0;
+			this.state[c] = STAND;
+			this.action[c] = ACTION_NEUTRAL;
+			this.attackMotion[c] = NO_ATTACK;
+			this.remainingFrame[c] = 1;
+			this.control[c] = false;
+			this.hitConfirm[c] = false;
+			this.hitCount[c] = 0;
+			this.lastHitFrame[c] = 0;
+			this.front[c] = p == 0;
+			this.x[c] = this.initialX[p];
+			this.y[c] = 335;
+		}
+	}
+
+	/**
+	 * 全ての対戦を1フレーム進める．<br>
+	 * 各対戦は{@link Fighting#processingFight(int, input.KeyData)}と同じ順序で処理されるが,
+	 * 処理の段階ごとに全ての対戦をまとめて処理する．
+	 *
+	 * @param p1Keys
+	 *            各対戦のP1のキー入力. {@link CommandRecognizer#KEY_A}などのビットの論理和で表す
+	 * @param p2Keys
+	 *            各対戦のP2のキー入力. {@link CommandRecognizer#KEY_A}などのビットの論理和で表す
+	 */
+	public void stepAll(int[] p1Keys, int[] p2Keys) {
+		// 1. 入力されたキーを基に, アクションを実行
+		for (int game = 0; game < this.games; game++) {
+			processingCommands(game, p1Keys[game], p2Keys[game]);
+		}
+		// 2. 当たり判定の処理
+		for (int game = 0; game < this.games; game++) {
+			calculationHit(game);
+		}
+		// 3. 攻撃のパラメータの更新
+		updateProjectiles();
+		updateAttacks();
+		// 4. キャラクターの状態の更新
+		for (int game = 0; game < this.games; game++) {
+			updateCharacter(game);
+		}
+
+		for (int game = 0; game < this.games; game++) {
+			this.currentFrame[game]++;
+		}
+	}
+
+	/**
+	 * キー入力を履歴に追加し, 履歴を基にアクションを実行する．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param p1Key
+	 *            P1のキー入力
+	 * @param p2Key
+	 *            P2のキー入力
+	 */
+	private void processingCommands(int game, int p1Key, int p2Key) {
+		for (int p = 0; p < 2; p++) {
+			CommandRecognizer recognizer = this.recognizers[game * 2 + p];
+			recognizer.addLast(p == 0 ? p1Key : p2Key);
+
+			// 履歴の長さが上限を超える場合は, 最も古いデータを削除する
+			if (recognizer.size() > GameSetting.INPUT_LIMIT) {
+				recognizer.removeFirst();
+			}
+		}
+
+		for (int p = 0; p < 2; p++) {
+			int c = game * 2 + p;
+			int nextAction = this.recognizers[c].recognize(this.commandTable, this.front[c], STATES[this.state[c]])
+					.ordinal();
+			if (ableAction(c, nextAction)) {
+				runAction(c, nextAction, true);
+			}
+		}
+	}
+
+	/**
+	 * 次に実行予定のアクションが実行可能かどうかを返す．
+	 *
+	 * @param c
+	 *            キャラクターのインデックス
+	 * @param nextAction
+	 *            次に実行予定のアクションの序数
+	 *
+	 * @return {@code true} 実行可能である，{@code false} otherwise
+	 *
+	 * @see Fighting#ableAction(Character, Action)
+	 */
+	private boolean ableAction(int c, int nextAction) {
+		MotionTable m = this.motions[c & 1];
+		int now = this.action[c];
+
+		if (this.energy[c] < -m.attackStartAddEnergy[nextAction]) {
+			return false;
+		} else if (this.control[c]) {
+			return true;
+		} else {
+			boolean checkFrame = m.cancelAbleFrame[now] <= m.frameNumber[now] - this.remainingFrame[c];
+			boolean checkAction = m.cancelAbleMotionLevel[now] >= m.motionLevel[nextAction];
+
+			return this.hitConfirm[c] && checkFrame && checkAction;
+		}
+	}
+
+	/**
+	 * 引数のアクションを実行中のアクションとしてセットする．
+	 *
+	 * @param c
+	 *            キャラクターのインデックス
+	 * @param executeAction
+	 *            次に実行するアクションの序数
+	 * @param resetFlag
+	 *            現在実行中のアクションを中断させるかどうかのフラグ
+	 *
+	 * @see Character#runAction(Action, boolean)
+	 */
+	private void runAction(int c, int executeAction, boolean resetFlag) {
+		MotionTable m = this.motions[c & 1];
+
+		if (this.action[c] != executeAction) {
+			if (resetFlag) {
+				this.attackMotion[c] = NO_ATTACK;
+			}
+
+			this.remainingFrame[c] = m.frameNumber[executeAction];
+			this.hitConfirm[c] = false;
+			this.energy[c] += m.attackStartAddEnergy[executeAction];
+		}
+
+		this.action[c] = executeAction;
+		this.state[c] = m.state[executeAction];
+
+		if (m.speedX[executeAction] != 0) {
+			this.speedX[c] = this.front[c] ? m.speedX[executeAction] : -m.speedX[executeAction];
+		}
+		this.speedY[c] += m.speedY[executeAction];
+		this.control[c] = m.control[executeAction];
+	}
+
+	/**
+	 * 攻撃の当たり判定の処理, 及びそれに伴うキャラクターのパラメータの更新を行う．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 *
+	 * @see Fighting#calculationHit(int)
+	 */
+	private void calculationHit(int game) {
+		int frame = this.currentFrame[game];
+
+		// 波動拳の処理
+		int base = game * this.projectileCapacity;
+		int count = this.projectileCount[game];
+		int kept = 0;
+		for (int k = 0; k < count; k++) {
+			int i = base + k;
+			int attacker = game * 2 + this.projectileOwner[i];
+			int defender = attacker ^ 1;
+
+			if (detectionHit(defender, this.projectileLeft[i], this.projectileRight[i], this.projectileTop[i],
+					this.projectileBottom[i])) {
+				hitAttack(defender, attacker, this.projectileMotion[i], frame);
+			} else {
+				copyProjectile(i, base + kept);
+				kept++;
+			}
+		}
+		this.projectileCount[game] = kept;
+
+		// 通常攻撃の処理
+		boolean hitP1 = false;
+		boolean hitP2 = false;
+		for (int p = 0; p < 2; p++) {
+			int attacker = game * 2 + p;
+			int defender = attacker ^ 1;
+			int motion = this.attackMotion[attacker];
+
+			if (motion != NO_ATTACK && detectionHit(defender, this.attackLeft[attacker], this.attackRight[attacker],
+					this.attackTop[attacker], this.attackBottom[attacker])) {
+				if (p == 0) {
+					hitP1 = true;
+				} else {
+					hitP2 = true;
+				}
+				hitAttack(defender, attacker, motion, frame);
+			}
+		}
+
+		for (int p = 0; p < 2; p++) {
+			int c = game * 2 + p;
+			if (p == 0 ? hitP1 : hitP2) {
+				this.hitConfirm[c] = true;
+				this.attackMotion[c] = NO_ATTACK;
+			}
+
+			if (frame - this.lastHitFrame[c] > GameSetting.COMBO_LIMIT) {
+				this.hitCount[c] = 0;
+			}
+		}
+	}
+
+	/**
+	 * 攻撃が当たったかどうかを判定する．
+	 *
+	 * @param defender
+	 *            攻撃を受けるキャラクターのインデックス
+	 * @param left
+	 *            攻撃の当たり判定の左端
+	 * @param right
+	 *            攻撃の当たり判定の右端
+	 * @param top
+	 *            攻撃の当たり判定の上端
+	 * @param bottom
+	 *            攻撃の当たり判定の下端
+	 *
+	 * @return {@code true} 攻撃が当たった場合，{@code false} otherwise
+	 *
+	 * @see Fighting#detectionHit(Character, Attack)
+	 */
+	private boolean detectionHit(int defender, int left, int right, int top, int bottom) {
+		if (this.state[defender] == DOWN_STATE) {
+			return false;
+		}
+		return getHitAreaLeft(defender) <= right && getHitAreaRight(defender) >= left
+				&& getHitAreaTop(defender) <= bottom && getHitAreaBottom(defender) >= top;
+	}
+
+	/**
+	 * 攻撃がヒットしたときの処理を行う．
+	 *
+	 * @param c
+	 *            攻撃を受けたキャラクターのインデックス
+	 * @param opponent
+	 *            攻撃を出したキャラクターのインデックス
+	 * @param motion
+	 *            攻撃の元になったモーションの序数
+	 * @param frame
+	 *            現在のフレーム
+	 *
+	 * @see Character#hitAttack(Character, Attack, int)
+	 */
+	private void hitAttack(int c, int opponent, int motion, int frame) {
+		MotionTable m = this.motions[opponent & 1];
+
+		int direction = getHitAreaCenterX(opponent) <= getHitAreaCenterX(c) ? 1 : -1;
+		this.hitCount[opponent]++;
+		this.lastHitFrame[opponent] = frame;
+
+		if (isGuard(c, m.attackType[motion])) {
+			this.hp[c] -= m.attackGuardDamage[motion] + getExtraDamage(opponent);
+			this.energy[c] += m.attackGiveEnergy[motion];
+			this.speedX[c] = direction * m.attackImpactX[motion] / 2; // 通常の半分のノックバック
+			this.remainingFrame[c] = m.attackGiveGuardRecov[motion];
+			this.energy[opponent] += m.attackGuardAddEnergy[motion];
+
+		} else if (m.attackType[motion] == 4) {
+			// 投げ技のときの処理
+			if (this.state[c] != AIR && this.state[c] != DOWN_STATE) {
+				runAction(c, ACTION_THROW_SUFFER, false);
+
+				if (this.action[opponent] != ACTION_THROW_SUFFER) {
+					runAction(opponent, ACTION_THROW_HIT, false);
+				}
+
+				this.hp[c] -= m.attackHitDamage[motion] + getExtraDamage(opponent);
+				this.energy[c] += m.attackGiveEnergy[motion];
+				this.energy[opponent] += m.attackHitAddEnergy[motion];
+			}
+
+		} else {
+			this.hp[c] -= m.attackHitDamage[motion] + getExtraDamage(opponent);
+			this.energy[c] += m.attackGiveEnergy[motion];
+			this.speedX[c] = direction * m.attackImpactX[motion];
+			this.speedY[c] = m.attackImpactY[motion];
+			this.energy[opponent] += m.attackHitAddEnergy[motion];
+
+			// ダウン技の処理
+			if (m.attackDownProp[motion]) {
+				runAction(c, ACTION_CHANGE_DOWN, false);
+				this.remainingFrame[c] = this.motions[c & 1].frameNumber[this.action[c]];
+
+			} else if (this.state[c] == STAND) {
+				runAction(c, ACTION_STAND_RECOV, false);
+			} else if (this.state[c] == CROUCH) {
+				runAction(c, ACTION_CROUCH_RECOV, false);
+			} else if (this.state[c] == AIR) {
+				runAction(c, ACTION_AIR_RECOV, false);
+			}
+		}
+	}
+
+	/**
+	 * 攻撃を受けたときにガードが成功しているかどうかを返す．<br>
+	 * 成功していた場合はガードの種類に対応したリカバリー状態に変化させる．
+	 *
+	 * @param c
+	 *            攻撃を受けたキャラクターのインデックス
+	 * @param attackType
+	 *            攻撃の種類
+	 *
+	 * @return {@code true} if the guard is successful, {@code false} otherwise
+	 */
+	private boolean isGuard(int c, int attackType) {
+		int now = this.action[c];
+
+		if (now == ACTION_STAND_GUARD || now == ACTION_AIR_GUARD) {
+			if (attackType == 1 || attackType == 2) {
+				runAction(c, ACTION_STAND_GUARD_RECOV, false);
+				return true;
+			}
+		} else if (now == ACTION_CROUCH_GUARD) {
+			if (attackType == 1 || attackType == 3) {
+				runAction(c, ACTION_CROUCH_GUARD_RECOV, false);
+				return true;
+			}
+		} else if (now == ACTION_STAND_GUARD_RECOV || now == ACTION_CROUCH_GUARD_RECOV
+				|| now == ACTION_AIR_GUARD_RECOV) {
+			runAction(c, now, false);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * 連続ヒット数に応じたボーナスダメージを返す．
+	 *
+	 * @param c
+	 *            攻撃を出したキャラクターのインデックス
+	 *
+	 * @return ボーナスダメージ
+	 *
+	 * @see Character#getExtraDamage()
+	 */
+	private int getExtraDamage(int c) {
+		int requireHit = 4; // ボーナスダメージに必要な最小限のヒット数
+		int damage = 5; // ボーナスダメージ
+
+		return this.hitCount[c] < requireHit ? 0 : damage * requireHit / this.hitCount[c];
+	}
+
+	/**
+	 * 全ての対戦の波動拳の当たり判定を移動させ, Activeの期間を過ぎた波動拳を削除する．
+	 */
+	private void updateProjectiles() {
+		for (int game = 0; game < this.games; game++) {
+			int base = game * this.projectileCapacity;
+			int count = this.projectileCount[game];
+			int kept = 0;
+			for (int k = 0; k < count; k++) {
+				int i = base + k;
+				this.projectileLeft[i] += this.projectileSpeedX[i];
+				this.projectileRight[i] += this.projectileSpeedX[i];
+				this.projectileTop[i] += this.projectileSpeedY[i];
+				this.projectileBottom[i] += this.projectileSpeedY[i];
+
+				MotionTable m = this.motions[this.projectileOwner[i]];
+				if (++this.projectileFrame[i] <= m.attackActive[this.projectileMotion[i]]) {
+					copyProjectile(i, base + kept);
+					kept++;
+				}
+			}
+			this.projectileCount[game] = kept;
+		}
+	}
+
+	/**
+	 * 全てのキャラクターの波動拳以外の攻撃の当たり判定をキャラクターの位置に合わせ, Activeの期間を過ぎた攻撃を削除する．
+	 */
+	private void updateAttacks() {
+		for (int c = 0; c < this.games * 2; c++) {
+			if (this.attackMotion[c] != NO_ATTACK) {
+				setAttackParameters(c);
+
+				if (++this.attackFrame[c] > this.motions[c & 1].attackActive[this.attackMotion[c]]) {
+					this.attackMotion[c] = NO_ATTACK;
+				}
+			}
+		}
+	}
+
+	/**
+	 * キャラクターの位置と向きを基に, 攻撃の当たり判定領域とスピードを設定する．
+	 *
+	 * @param c
+	 *            キャラクターのインデックス
+	 *
+	 * @see Attack#update(Character)
+	 */
+	private void setAttackParameters(int c) {
+		MotionTable m = this.motions[c & 1];
+		int motion = this.attackMotion[c];
+		int size = this.graphicSizeX[c & 1];
+
+		if (this.front[c]) {
+			this.attackLeft[c] = this.x[c] + m.attackLeft[motion];
+			this.attackRight[c] = this.x[c] + m.attackRight[motion];
+			this.attackSpeedX[c] = m.attackSpeedX[motion];
+		} else {
+			this.attackLeft[c] = this.x[c] + size - m.attackRight[motion];
+			this.attackRight[c] = this.x[c] + size - m.attackLeft[motion];
+			this.attackSpeedX[c] = -m.attackSpeedX[motion];
+		}
+		this.attackSpeedY[c] = m.attackSpeedY[motion];
+		this.attackTop[c] = this.y[c] + m.attackTop[motion];
+		this.attackBottom[c] = this.y[c] + m.attackBottom[motion];
+	}
+
+	/**
+	 * キャラクターの状態の更新, 波動拳の生成及び位置の補正を行う．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 *
+	 * @see Fighting#updateCharacter()
+	 */
+	private void updateCharacter(int game) {
+		for (int p = 0; p < 2; p++) {
+			int c = game * 2 + p;
+			update(c);
+
+			int motion = this.attackMotion[c];
+			if (motion != NO_ATTACK) {
+				MotionTable m = this.motions[p];
+				if (m.attackSpeedX[motion] + m.attackSpeedY[motion] != 0) {
+					addProjectile(game, c);
+					this.attackMotion[c] = NO_ATTACK;
+				}
+			}
+
+			if (this.control[c]) {
+				frontDecision(c, getHitAreaCenterX(c ^ 1));
+			}
+		}
+
+		int p1 = game * 2;
+		int p2 = p1 + 1;
+
+		// 相手を押す処理
+		if (isCollision(p1, p2)) {
+			int p1SpeedX = Math.abs(this.speedX[p1]);
+			int p2SpeedX = Math.abs(this.speedX[p2]);
+
+			if (p1SpeedX > p2SpeedX) {
+				this.x[p2] += this.speedX[p1] - this.speedX[p2];
+			} else if (p1SpeedX < p2SpeedX) {
+				this.x[p1] += this.speedX[p2] - this.speedX[p1];
+			} else {
+				this.x[p1] += this.speedX[p2];
+				this.x[p2] += this.speedX[p1];
+			}
+		}
+
+		// キャラクター同士が重ならないようにする処理
+		if (isCollision(p1, p2)) {
+			int direction;
+			int p1Center = getHitAreaCenterX(p1);
+			int p2Center = getHitAreaCenterX(p2);
+
+			if (p1Center < p2Center) {
+				direction = 1;
+			} else if (p1Center > p2Center) {
+				direction = -1;
+			} else {
+				direction = this.front[p1] ? 1 : -1;
+			}
+			this.x[p1] += -direction * 2;
+			this.x[p2] += direction * 2;
+		}
+
+		// ステージの端からはみ出ないようにする処理
+		for (int c = p1; c <= p2; c++) {
+			int right = getHitAreaRight(c);
+			int left = getHitAreaLeft(c);
+
+			if (right > GameSetting.STAGE_WIDTH) {
+				if (this.action[c] == ACTION_DOWN) {
+					this.speedX[c] = -(this.speedX[c] / 2);
+				}
+				this.x[c] += -right + GameSetting.STAGE_WIDTH;
+			} else if (left < 0) {
+				if (this.action[c] == ACTION_DOWN) {
+					this.speedX[c] = -(this.speedX[c] / 2);
+				}
+				this.x[c] += -left;
+			}
+		}
+	}
+
+	/**
+	 * キャラクターの位置, スピード及び実行中のアクションを1フレーム分更新する．
+	 *
+	 * @param c
+	 *            キャラクターのインデックス
+	 *
+	 * @see Character#update()
+	 */
+	private void update(int c) {
+		int p = c & 1;
+		MotionTable m = this.motions[p];
+
+		this.x[c] += this.speedX[c];
+		this.y[c] += this.speedY[c];
+
+		// 摩擦と重力の影響
+		if (getHitAreaBottom(c) >= GameSetting.STAGE_HEIGHT) {
+			if (this.speedX[c] > 0) {
+				this.speedX[c] -= GameSetting.FRICTION;
+			} else if (this.speedX[c] < 0) {
+				this.speedX[c] += GameSetting.FRICTION;
+			}
+			this.speedY[c] = 0;
+		} else if (getHitAreaTop(c) <= 0) {
+			this.speedY[c] = GameSetting.GRAVITY;
+		} else {
+			this.speedY[c] += GameSetting.GRAVITY;
+		}
+
+		if (this.context.isTrainingMode()) {
+			this.energy[c] = this.context.getMaxEnergy(p);
+			this.hp[c] = this.context.getMaxHp(p);
+		}
+
+		if (this.energy[c] > this.context.getMaxEnergy(p)) {
+			this.energy[c] = this.context.getMaxEnergy(p);
+		}
+
+		if (getHitAreaBottom(c) >= GameSetting.STAGE_HEIGHT) {
+			if (m.landingFlag[this.action[c]]) {
+				runAction(c, ACTION_LANDING, true);
+				this.speedY[c] = 0;
+			}
+
+			this.y[c] += GameSetting.STAGE_HEIGHT - getHitAreaBottom(c);
+		}
+
+		this.remainingFrame[c]--;
+
+		if (this.remainingFrame[c] <= 0) {
+			if (this.action[c] == ACTION_CHANGE_DOWN) {
+				runAction(c, ACTION_DOWN, true);
+			} else if (this.action[c] == ACTION_DOWN) {
+				runAction(c, ACTION_RISE, true);
+			} else if (this.state[c] == AIR || getHitAreaBottom(c) < GameSetting.STAGE_HEIGHT) {
+				runAction(c, ACTION_AIR, true);
+			} else if (this.state[c] == CROUCH) {
+				runAction(c, ACTION_CROUCH, true);
+			} else {
+				runAction(c, ACTION_STAND, true);
+			}
+		}
+
+		// 攻撃の生成
+		int now = this.action[c];
+		if (m.frameNumber[now] - m.attackStartUp[now] == this.remainingFrame[c]) {
+			this.attackMotion[c] = now;
+			this.attackFrame[c] = 0;
+			setAttackParameters(c);
+		}
+	}
+
+	/**
+	 * キャラクターの向きを決定する．
+	 *
+	 * @param c
+	 *            キャラクターのインデックス
+	 * @param opponentCenterX
+	 *            相手キャラクターの当たり判定の中心のx座標
+	 *
+	 * @see Character#frontDecision(int)
+	 */
+	private void frontDecision(int c, int opponentCenterX) {
+		int p = c & 1;
+		boolean left = getHitAreaCenterX(c) < opponentCenterX;
+
+		if (this.front[c]) {
+			if (!left) {
+				this.x[c] = this.x[c] - this.graphicSizeX[p] + this.graphicAdjustX[p] * 2;
+				this.front[c] = false;
+			}
+		} else if (left) {
+			this.x[c] = this.x[c] + this.graphicSizeX[p] - this.graphicAdjustX[p] * 2;
+			this.front[c] = true;
+		}
+	}
+
+	/**
+	 * 2人のキャラクターが衝突している状態かどうかを判定する．
+	 *
+	 * @param p1
+	 *            P1のインデックス
+	 * @param p2
+	 *            P2のインデックス
+	 *
+	 * @return {@code true} 両者が衝突している， {@code false} otherwise
+	 */
+	private boolean isCollision(int p1, int p2) {
+		return getHitAreaLeft(p1) <= getHitAreaRight(p2) && getHitAreaTop(p1) <= getHitAreaBottom(p2)
+				&& getHitAreaRight(p1) >= getHitAreaLeft(p2) && getHitAreaBottom(p1) >= getHitAreaTop(p2);
+	}
+
+	/**
+	 * キャラクターの攻撃を波動拳として, 対戦の波動拳の末尾に追加する．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param c
+	 *            攻撃を出したキャラクターのインデックス
+	 */
+	private void addProjectile(int game, int c) {
+		if (this.projectileCount[game] == this.projectileCapacity) {
+			allocateProjectiles(this.projectileCapacity * 2);
+		}
+
+		int i = game * this.projectileCapacity + this.projectileCount[game]++;
+		this.projectileOwner[i] = c & 1;
+		this.projectileMotion[i] = this.attackMotion[c];
+		this.projectileFrame[i] = this.attackFrame[c];
+		this.projectileLeft[i] = this.attackLeft[c];
+		this.projectileRight[i] = this.attackRight[c];
+		this.projectileTop[i] = this.attackTop[c];
+		this.projectileBottom[i] = this.attackBottom[c];
+		this.projectileSpeedX[i] = this.attackSpeedX[c];
+		this.projectileSpeedY[i] = this.attackSpeedY[c];
+	}
+
+	/**
+	 * 波動拳の情報を別の位置にコピーする．
+	 *
+	 * @param from
+	 *            コピー元のインデックス
+	 * @param to
+	 *            コピー先のインデックス
+	 */
+	private void copyProjectile(int from, int to) {
+		if (from == to) {
+			return;
+		}
+		this.projectileOwner[to] = this.projectileOwner[from];
+		this.projectileMotion[to] = this.projectileMotion[from];
+		this.projectileFrame[to] = this.projectileFrame[from];
+		this.projectileLeft[to] = this.projectileLeft[from];
+		this.projectileRight[to] = this.projectileRight[from];
+		this.projectileTop[to] = this.projectileTop[from];
+		this.projectileBottom[to] = this.projectileBottom[from];
+		this.projectileSpeedX[to] = this.projectileSpeedX[from];
+		this.projectileSpeedY[to] = this.projectileSpeedY[from];
+	}
+
+	/**
+	 * 波動拳の配列を, 1つの対戦あたり引数の数だけ格納できる長さで確保し直す．<br>
+	 * 既に存在する波動拳はコピーされる．
+	 *
+	 * @param capacity
+	 *            1つの対戦で同時に存在できる波動拳の数
+	 */
+	private void allocateProjectiles(int capacity) {
+		int oldCapacity = this.projectileCapacity;
+		int[][] old = { this.projectileOwner, this.projectileMotion, this.projectileFrame, this.projectileLeft,
+				this.projectileRight, this.projectileTop, this.projectileBottom, this.projectileSpeedX,
+				this.projectileSpeedY };
+
+		int[][] resized = new int[old.length][this.games * capacity];
+		if (oldCapacity > 0) {
+			for (int game = 0; game < this.games; game++) {
+				for (int j = 0; j < old.length; j++) {
+					System.arraycopy(old[j], game * oldCapacity, resized[j], game * capacity,
+							this.projectileCount[game]);
+				}
+			}
+		}
+
+		this.projectileCapacity = capacity;
+		this.projectileOwner = resized[0];
+		this.projectileMotion = resized[1];
+		this.projectileFrame = resized[2];
+		this.projectileLeft = resized[3];
+		this.projectileRight = resized[4];
+		this.projectileTop = resized[5];
+		this.projectileBottom = resized[6];
+		this.projectileSpeedX = resized[7];
+		this.projectileSpeedY = resized[8];
+	}
+
+	private int getHitAreaLeft(int c) {
+		MotionTable m = this.motions[c & 1];
+		int a = this.action[c];
+		return this.front[c] ? m.hitAreaLeft[a] + this.x[c] : this.graphicSizeX[c & 1] - m.hitAreaRight[a] + this.x[c];
+	}
+
+	private int getHitAreaRight(int c) {
+		MotionTable m = this.motions[c & 1];
+		int a = this.action[c];
+		return this.front[c] ? m.hitAreaRight[a] + this.x[c] : this.graphicSizeX[c & 1] - m.hitAreaLeft[a] + this.x[c];
+	}
+
+	private int getHitAreaTop(int c) {
+		return this.motions[c & 1].hitAreaTop[this.action[c]] + this.y[c];
+	}
+
+	private int getHitAreaBottom(int c) {
+		return this.motions[c & 1].hitAreaBottom[this.action[c]] + this.y[c];
+	}
+
+	private int getHitAreaCenterX(int c) {
+		return (getHitAreaRight(c) + getHitAreaLeft(c)) / 2;
+	}
+
+	/**
+	 * 同時に進める対戦の数を返す．
+	 *
+	 * @return 同時に進める対戦の数
+	 */
+	public int getGames() {
+		return this.games;
+	}
+
+	/**
+	 * 指定した対戦の現在のフレームを返す．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 *
+	 * @return 現在のフレーム
+	 */
+	public int getFramesNumber(int game) {
+		return this.currentFrame[game];
+	}
+
+	/**
+	 * 指定したキャラクターのHPを返す．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param playerNumber
+	 *            {@code true} if the character is P1, or {@code false} if P2.
+	 *
+	 * @return キャラクターのHP
+	 */
+	public int getHp(int game, boolean playerNumber) {
+		return this.hp[index(game, playerNumber)];
+	}
+
+	/**
+	 * 指定したキャラクターのエネルギーを返す．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param playerNumber
+	 *            {@code true} if the character is P1, or {@code false} if P2.
+	 *
+	 * @return キャラクターのエネルギー
+	 */
+	public int getEnergy(int game, boolean playerNumber) {
+		return this.energy[index(game, playerNumber)];
+	}
+
+	/**
+	 * 指定したキャラクターの画像の左上のx座標を返す．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param playerNumber
+	 *            {@code true} if the character is P1, or {@code false} if P2.
+	 *
+	 * @return キャラクターの画像の左上のx座標
+	 */
+	public int getX(int game, boolean playerNumber) {
+		return this.x[index(game, playerNumber)];
+	}
+
+	/**
+	 * 指定したキャラクターの画像の左上のy座標を返す．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param playerNumber
+	 *            {@code true} if the character is P1, or {@code false} if P2.
+	 *
+	 * @return キャラクターの画像の左上のy座標
+	 */
+	public int getY(int game, boolean playerNumber) {
+		return this.y[index(game, playerNumber)];
+	}
+
+	/**
+	 * 指定したキャラクターが実行中のアクションを返す．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param playerNumber
+	 *            {@code true} if the character is P1, or {@code false} if P2.
+	 *
+	 * @return キャラクターが実行中のアクション
+	 */
+	public Action getAction(int game, boolean playerNumber) {
+		return ACTIONS[this.action[index(game, playerNumber)]];
+	}
+
+	/**
+	 * 指定したキャラクターの状態を返す．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param playerNumber
+	 *            {@code true} if the character is P1, or {@code false} if P2.
+	 *
+	 * @return キャラクターの状態
+	 */
+	public State getState(int game, boolean playerNumber) {
+		return STATES[this.state[index(game, playerNumber)]];
+	}
+
+	/**
+	 * 指定したキャラクターの向きを返す．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param playerNumber
+	 *            {@code true} if the character is P1, or {@code false} if P2.
+	 *
+	 * @return {@code true} if the character is facing right, {@code false}
+	 *         otherwise
+	 */
+	public boolean isFront(int game, boolean playerNumber) {
+		return this.front[index(game, playerNumber)];
+	}
+
+	/**
+	 * 指定した対戦に存在する波動拳の数を返す．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 *
+	 * @return 波動拳の数
+	 */
+	public int getProjectileCount(int game) {
+		return this.projectileCount[game];
+	}
+
+	/**
+	 * 対戦の番号とプレイヤー番号からキャラクター情報の配列のインデックスを求める．
+	 *
+	 * @param game
+	 *            対戦の番号
+	 * @param playerNumber
+	 *            {@code true} if the character is P1, or {@code false} if P2.
+	 *
+	 * @return キャラクター情報の配列のインデックス
+	 */
+	private static int index(int game, boolean playerNumber) {
+		return game * 2 + (playerNumber ? 0 : 1);
+	}
+
+}
@@ -3,17 +3,19 @@ package fighting;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 
 import enumerate.Action;
 import enumerate.State;
 import image.Image;
 import loader.ResourceLoader;
-import manager.SoundManager;
-import setting.FlagSetting;
 import setting.GameSetting;
-import setting.LaunchSetting;
+import setting.MatchContext;
+import struct.AttackData;
 import struct.CharacterData;
 import struct.HitArea;
 import struct.Key;
@@ -23,6 +25,16 @@ import struct.Key;
  */
 public class Character {
 
+	/**
+	 * 状態を読み出す際に用いる, 全てのStateを格納した配列．
+	 */
+	private static final State[] STATES = State.values();
+
+	/**
+	 * 状態を読み出す際に用いる, 全てのActionを格納した配列．
+	 */
+	private static final Action[] ACTIONS = Action.values();
+
 	/**
 	 * The character side's flag.<br>
 	 * {@code true} if the character is P1, or {@code false} if P2.
@@ -142,11 +154,17 @@ public class Character {
 	private Deque<Key> processedCommands;
 
 	/**
-	 * キャラクターの全モーションを格納するリスト．
+	 * キャラクターの全モーションを, アクションの序数をインデックスとして格納した配列．<br>
+	 * 配列は読み込み後に変更されないため, コピーしたインスタンスやシミュレータのキャラクターとの間でコピーせずに共有する．
 	 *
 	 * @see Motion
 	 */
-	private ArrayList<Motion> motionList;
+	private Motion[] motions;
+
+	/**
+	 * {@link #motions}の変更不可能なビュー．
+	 */
+	private List<Motion> motionView;
 
 	/**
 	 * 攻撃の連続ヒット回数．
@@ -161,10 +179,37 @@ public class Character {
 	private boolean isSimulateProcess;
 
 	/**
-	 * Class constructor．
+	 * 着地や被弾などのイベントを受け取るリスナー．<br>
+	 * {@code null}の場合はイベントを通知しない．
+	 *
+	 * @see FightEventListener
+	 */
+	private FightEventListener eventListener;
+
+	/**
+	 * キャラクターが参加する試合の設定．
+	 *
+	 * @see MatchContext
+	 */
+	private MatchContext context;
+
+	/**
+	 * Class constructor．<br>
+	 * 試合の設定には, 現在の静的な設定のコピーを用いる．
 	 */
 	public Character() {
+		this(new MatchContext());
+	}
+
+	/**
+	 * 引数で指定した試合の設定を用いてインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param context
+	 *            キャラクターが参加する試合の設定
+	 */
+	public Character(MatchContext context) {
 		initializeList();
+		this.context = context;
 
 		this.playerNumber = true;
 		this.hp = 0;
@@ -217,10 +262,12 @@ public class Character {
 		this.remainingFrame = character.getRemainingFrame();
 		this.inputCommands = character.getInputCommand();
 		this.processedCommands = character.getProcessedCommand();
-		this.motionList = character.getMotionList();
+		this.motions = character.motions;
+		this.motionView = character.motionView;
 		this.lastHitFrame = character.getLastHitFrame();
 		this.hitCount = character.getHitCount();
 		this.isSimulateProcess = character.isSimulateProcess();
+		this.context = character.context;
 	}
 
 	/**
@@ -236,8 +283,74 @@ public class Character {
 	 * @see Motion
 	 */
 	public Character(CharacterData characterData, ArrayList<Motion> motionList) {
+		this(characterData, motionList.toArray(new Motion[motionList.size()]));
+	}
+
+	/**
+	 * 引数として渡されたデータを用いてCharacterクラスのインスタンスを作成するコンストラクタ．<br>
+	 * このコンストラクタはシミュレータ内でのみ呼び出される. 試合の設定には, 現在の静的な設定のコピーを用いる．
+	 *
+	 * @param characterData
+	 *            キャラクター情報を格納したCharacterDataクラスのインスタンス
+	 * @param motions
+	 *            キャラクターの全モーションを, アクションの序数をインデックスとして格納した配列. コピーせずに共有される
+	 *
+	 * @see CharacterData
+	 * @see Motion
+	 */
+	public Character(CharacterData characterData, Motion[] motions) {
+		this(characterData, motions, new MatchContext());
+	}
+
+	/**
+	 * 引数として渡されたデータと試合の設定を用いてCharacterクラスのインスタンスを作成するコンストラクタ．<br>
+	 * このコンストラクタはシミュレータ内でのみ呼び出される.
+	 *
+	 * @param characterData
+	 *            キャラクター情報を格納したCharacterDataクラスのインスタンス
+	 * @param motions
+	 *            キャラクターの全モーションを, アクションの序数をインデックスとして格納した配列. コピーせずに共有される
+	 * @param context
+	 *            キャラクターが参加する試合の設定
+	 *
+	 * @see CharacterData
+	 * @see Motion
+	 */
+	public Character(CharacterData characterData, Motion[] motions, MatchContext context) {
 		initializeList();
+		this.context = context;
+		reset(characterData, motions);
+	}
+
+	/**
+	 * 引数として渡されたデータを用いて，このインスタンスのキャラクター情報を上書きする．<br>
+	 * シミュレータ内でインスタンスを使い回す際に呼び出され，新たなインスタンスの生成を行わない.
+	 *
+	 * @param characterData
+	 *            キャラクター情報を格納したCharacterDataクラスのインスタンス
+	 * @param motionList
+	 *            キャラクターの全モーションが格納されたリスト
+	 *
+	 * @see CharacterData
+	 * @see Motion
+	 */
+	public void reset(CharacterData characterData, ArrayList<Motion> motionList) {
+		reset(characterData, motionList.toArray(new Motion[motionList.size()]));
+	}
 
+	/**
+	 * 引数として渡されたデータを用いて，このインスタンスのキャラクター情報を上書きする．<br>
+	 * シミュレータ内でインスタンスを使い回す際に呼び出され，新たなインスタンスの生成を行わない.
+	 *
+	 * @param characterData
+	 *            キャラクター情報を格納したCharacterDataクラスのインスタンス
+	 * @param motions
+	 *            キャラクターの全モーションを, アクションの序数をインデックスとして格納した配列. コピーせずに共有される
+	 *
+	 * @see CharacterData
+	 * @see Motion
+	 */
+	public void reset(CharacterData characterData, Motion[] motions) {
 		this.playerNumber = characterData.isPlayerNumber();
 		this.hp = characterData.getHp();
 		this.energy = characterData.getEnergy();
@@ -253,16 +366,96 @@ public class Character {
 		this.hitConfirm = characterData.isHitConfirm();
 		this.front = characterData.isFront();
 		this.control = characterData.isControl();
-		this.attack = new Attack(characterData.getAttack());
+		AttackData attackData = characterData.getAttack();
+		if (this.attack == null || attackData == null) {
+			this.attack = new Attack(attackData);
+		} else {
+			this.attack.reset(attackData);
+		}
 		this.remainingFrame = characterData.getRemainingFrame();
-		this.inputCommands = characterData.getInputCommand();
-		this.processedCommands = characterData.getProcessedCommand();
-		this.motionList = motionList;
+		this.inputCommands.clear();
+		characterData.addInputCommandTo(this.inputCommands);
+		this.processedCommands.clear();
+		characterData.addProcessedCommandTo(this.processedCommands);
+		if (this.motions != motions) {
+			this.motions = motions;
+			this.motionView = Collections.unmodifiableList(Arrays.asList(motions));
+		}
 		this.lastHitFrame = characterData.getLastHitFrame();
 		this.hitCount = characterData.getHitCount();
 		this.isSimulateProcess = true;
 	}
 
+	/**
+	 * キャラクターの状態を引数のStateArenaに書き込む．<br>
+	 * 対戦中に変化しないプレイヤー番号, 画像サイズ及びモーションは書き込まない．
+	 *
+	 * @param arena
+	 *            状態を書き込むStateArenaのインスタンス
+	 *
+	 * @see #decode(StateArena)
+	 */
+	public void encode(StateArena arena) {
+		arena.putInt(this.hp);
+		arena.putInt(this.energy);
+		arena.putInt(this.x);
+		arena.putInt(this.y);
+		arena.putInt(this.speedX);
+		arena.putInt(this.speedY);
+		arena.putInt(this.state.ordinal());
+		arena.putInt(this.action.ordinal());
+		arena.putBoolean(this.front);
+		arena.putBoolean(this.control);
+		arena.putInt(this.remainingFrame);
+		arena.putBoolean(this.hitConfirm);
+		arena.putInt(this.lastHitFrame);
+		arena.putInt(this.hitCount);
+
+		arena.putBoolean(this.attack != null);
+		if (this.attack != null) {
+			this.attack.encode(arena);
+		}
+
+		arena.putKeys(this.inputCommands);
+		arena.putKeys(this.processedCommands);
+	}
+
+	/**
+	 * {@link #encode(StateArena)}で書き込まれたキャラクターの状態を引数のStateArenaから読み出し,
+	 * このインスタンスに上書きする．
+	 *
+	 * @param arena
+	 *            状態を読み出すStateArenaのインスタンス
+	 */
+	public void decode(StateArena arena) {
+		this.hp = arena.getInt();
+		this.energy = arena.getInt();
+		this.x = arena.getInt();
+		this.y = arena.getInt();
+		this.speedX = arena.getInt();
+		this.speedY = arena.getInt();
+		this.state = STATES[arena.getInt()];
+		this.action = ACTIONS[arena.getInt()];
+		this.front = arena.getBoolean();
+		this.control = arena.getBoolean();
+		this.remainingFrame = arena.getInt();
+		this.hitConfirm = arena.getBoolean();
+		this.lastHitFrame = arena.getInt();
+		this.hitCount = arena.getInt();
+
+		if (arena.getBoolean()) {
+			this.attack = new Attack();
+			this.attack.decode(arena);
+		} else {
+			this.attack = null;
+		}
+
+		this.inputCommands = new LinkedList<Key>();
+		arena.getKeys(this.inputCommands);
+		this.processedCommands = new LinkedList<Key>();
+		arena.getKeys(this.processedCommands);
+	}
+
 	/**
 	 * 設定ファイル(gSetting.txt)の情報を用いてキャラクターの画像サイズを初期化する．
 	 *
@@ -299,7 +492,8 @@ public class Character {
 	public void initializeList() {
 		this.inputCommands = new LinkedList<Key>();
 		this.processedCommands = new LinkedList<Key>();
-		this.motionList = new ArrayList<Motion>();
+		this.motions = new Motion[0];
+		this.motionView = Collections.emptyList();
 		this.graphicAdjustInitialX = new int[2];
 	}
 
@@ -307,15 +501,15 @@ public class Character {
 	 * 各ラウンドの開始時にキャラクター情報を初期化する．
 	 */
 	public void roundInit() {
-		if (FlagSetting.limitHpFlag) {
-			this.hp = LaunchSetting.maxHp[this.playerNumber ? 0 : 1];
+		if (this.context.isLimitHp()) {
+			this.hp = this.context.getMaxHp(this.playerNumber ? 0 : 1);
 		} else {
 			this.hp = 0;
 		}
 
-		if (FlagSetting.trainingModeFlag) {
-			this.hp = LaunchSetting.maxHp[this.playerNumber ? 0 : 1];
-			this.energy = LaunchSetting.maxEnergy[this.playerNumber ? 0 : 1];
+		if (this.context.isTrainingMode()) {
+			this.hp = this.context.getMaxHp(this.playerNumber ? 0 : 1);
+			this.energy = this.context.getMaxEnergy(this.playerNumber ? 0 : 1);
 		} else {
 			this.energy = 0;
 		}
@@ -353,7 +547,7 @@ public class Character {
 	 *            現在実行中のアクションを中断させるかどうかのフラグ
 	 */
 	public void runAction(Action executeAction, boolean resetFlag) {
-		Motion exeMotion = this.motionList.get(executeAction.ordinal());
+		Motion exeMotion = this.motions[executeAction.ordinal()];
 
 		if (this.action != executeAction) {
 			if (resetFlag) {
@@ -385,22 +579,22 @@ public class Character {
 		frictionEffect();
 		gravityEffect();
 
-		if (FlagSetting.trainingModeFlag) {
-			this.energy = LaunchSetting.maxEnergy[this.playerNumber ? 0 : 1];
-			this.hp = LaunchSetting.maxHp[this.playerNumber ? 0 : 1];
+		if (this.context.isTrainingMode()) {
+			this.energy = this.context.getMaxEnergy(this.playerNumber ? 0 : 1);
+			this.hp = this.context.getMaxHp(this.playerNumber ? 0 : 1);
 		}
 
-		if (this.energy > LaunchSetting.maxEnergy[this.playerNumber ? 0 : 1]) {
-			this.energy = LaunchSetting.maxEnergy[this.playerNumber ? 0 : 1];
+		if (this.energy > this.context.getMaxEnergy(this.playerNumber ? 0 : 1)) {
+			this.energy = this.context.getMaxEnergy(this.playerNumber ? 0 : 1);
 		}
 
 		if (getHitAreaBottom() >= GameSetting.STAGE_HEIGHT) {
-			if (motionList.get(this.action.ordinal()).isLandingFlag()) {
+			if (this.motions[this.action.ordinal()].isLandingFlag()) {
 				runAction(Action.LANDING, true);
 				setSpeedY(0);
 
-				if (FlagSetting.enableWindow && !FlagSetting.muteFlag && !this.isSimulateProcess) {
-					SoundManager.getInstance().play(SoundManager.getInstance().getSoundEffect().get("Landing.wav"));
+				if (this.eventListener != null) {
+					this.eventListener.onLanding(this);
 				}
 			}
 
@@ -458,8 +652,8 @@ public class Character {
 			setRemainingFrame(attack.getGiveGuardRecov());
 			opponent.setEnergy(opponent.getEnergy() + attack.getGuardAddEnergy());
 
-			if (FlagSetting.enableWindow && !FlagSetting.muteFlag && !this.isSimulateProcess) {
-				SoundManager.getInstance().play(SoundManager.getInstance().getSoundEffect().get("WeakGuard.wav"));
+			if (this.eventListener != null) {
+				this.eventListener.onGuard(this, attack);
 			}
 		} else {
 			// 投げ技のときの処理
@@ -487,11 +681,10 @@ public class Character {
 				// ダウン技の処理
 				if (attack.isDownProp()) {
 					runAction(Action.CHANGE_DOWN, false);
-					setRemainingFrame(this.motionList.get(this.action.ordinal()).getFrameNumber());
+					setRemainingFrame(this.motions[this.action.ordinal()].getFrameNumber());
 
-					if (FlagSetting.enableWindow && !FlagSetting.muteFlag && !this.isSimulateProcess) {
-						SoundManager.getInstance()
-								.play(SoundManager.getInstance().getSoundEffect().get("StrongHit.wav"));
+					if (this.eventListener != null) {
+						this.eventListener.onHit(this, attack, true);
 					}
 
 				} else {
@@ -512,8 +705,8 @@ public class Character {
 						break;
 					}
 
-					if (FlagSetting.enableWindow && !FlagSetting.muteFlag && !this.isSimulateProcess) {
-						SoundManager.getInstance().play(SoundManager.getInstance().getSoundEffect().get("WeakHit.wav"));
+					if (this.eventListener != null) {
+						this.eventListener.onHit(this, attack, false);
 					}
 				}
 			}
@@ -582,7 +775,7 @@ public class Character {
 	 * このメソッドによって攻撃の当たり判定領域が生成される．
 	 */
 	private void createAttackInstance() {
-		Motion motion = this.motionList.get(this.action.ordinal());
+		Motion motion = this.motions[this.action.ordinal()];
 
 		if (startActive(motion)) {
 			this.attack = new Attack(motion.getAttackHitArea(), motion.getAttackSpeedX(), motion.getAttackSpeedY(),
@@ -802,7 +995,7 @@ public class Character {
 	 * @return the character's hit box's most-right x-coordinate
 	 */
 	public int getHitAreaRight() {
-		HitArea area = this.motionList.get(this.action.ordinal()).getCharacterHitArea();
+		HitArea area = this.motions[this.action.ordinal()].getCharacterHitArea();
 
 		return this.front ? area.getRight() + x : this.graphicSizeX - area.getLeft() + x;
 	}
@@ -813,7 +1006,7 @@ public class Character {
 	 * @return the character's hit box's most-left x-coordinate
 	 */
 	public int getHitAreaLeft() {
-		HitArea area = this.motionList.get(this.action.ordinal()).getCharacterHitArea();
+		HitArea area = this.motions[this.action.ordinal()].getCharacterHitArea();
 
 		return this.front ? area.getLeft() + x : this.graphicSizeX - area.getRight() + x;
 	}
@@ -824,7 +1017,7 @@ public class Character {
 	 * @return the character's hit box's most-top y-coordinate
 	 */
 	public int getHitAreaTop() {
-		return this.motionList.get(this.action.ordinal()).getCharacterHitArea().getTop() + y;
+		return this.motions[this.action.ordinal()].getCharacterHitArea().getTop() + y;
 	}
 
 	/**
@@ -833,7 +1026,7 @@ public class Character {
 	 * @return the character's hit box's most-bottom y-coordinate
 	 */
 	public int getHitAreaBottom() {
-		return this.motionList.get(this.action.ordinal()).getCharacterHitArea().getBottom() + y;
+		return this.motions[this.action.ordinal()].getCharacterHitArea().getBottom() + y;
 
 	}
 
@@ -931,17 +1124,36 @@ public class Character {
 	}
 
 	/**
-	 * キャラクターの全モーションを格納したリストを返す．
+	 * キャラクターの全モーションを格納したリストを返す．<br>
+	 * 呼び出しのたびにリストをコピーするため, 毎フレームの処理では{@link #getMotion(Action)}又は{@link #getMotions()}を用いる．
 	 *
 	 * @return キャラクターの全モーションを格納したリスト
 	 */
 	public ArrayList<Motion> getMotionList() {
-		ArrayList<Motion> temp = new ArrayList<Motion>();
-		for (Motion motion : this.motionList) {
-			temp.add(motion);
-		}
+		return new ArrayList<Motion>(this.motionView);
+	}
 
-		return temp;
+	/**
+	 * キャラクターの全モーションを, アクションの序数の順に格納した変更不可能なリストを返す．<br>
+	 * リストはコピーされず, インスタンス間で共有される．
+	 *
+	 * @return キャラクターの全モーションを格納した変更不可能なリスト
+	 */
+	public List<Motion> getMotions() {
+		return this.motionView;
+	}
+
+	/**
+	 * 指定したアクションのモーションを返す．<br>
+	 * モーションのリストをコピーせずに参照する．
+	 *
+	 * @param action
+	 *            アクション
+	 *
+	 * @return 指定したアクションのモーション
+	 */
+	public Motion getMotion(Action action) {
+		return this.motions[action.ordinal()];
 	}
 
 	/**
@@ -984,7 +1196,7 @@ public class Character {
 	 *         action and frame number
 	 */
 	public Image getNowImage() {
-		Motion motion = motionList.get(this.action.ordinal());
+		Motion motion = this.motions[this.action.ordinal()];
 
 		return motion.getImage(Math.abs(this.remainingFrame) % motion.getFrameNumber());
 	}
@@ -1188,6 +1400,7 @@ public class Character {
 	 *            the character's name
 	 */
 	private void setMotionList(String characterName) {
+		ArrayList<Motion> motionList = new ArrayList<Motion>();
 		try {
 			BufferedReader br = ResourceLoader.getInstance()
 					.openReadFile("./data/characters/" + characterName + "/Motion.csv");
@@ -1197,8 +1410,8 @@ public class Character {
 
 			while ((line = br.readLine()) != null) {
 				String[] st = line.split(",", 0);
-				Motion motion = new Motion(st, characterName, this.playerNumber ? 0 : 1);
-				this.motionList.add(motion);
+				Motion motion = new Motion(st, characterName, this.playerNumber ? 0 : 1, this.context);
+				motionList.add(motion);
 			}
 
 			br.close();
@@ -1206,6 +1419,9 @@ public class Character {
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+
+		this.motions = motionList.toArray(new Motion[motionList.size()]);
+		this.motionView = Collections.unmodifiableList(Arrays.asList(this.motions));
 	}
 
 	/**
@@ -1265,6 +1481,16 @@ public class Character {
 		return (nowFrame - this.lastHitFrame) <= GameSetting.COMBO_LIMIT;
 	}
 
+	/**
+	 * 着地や被弾などのイベントを受け取るリスナーをセットする．
+	 *
+	 * @param eventListener
+	 *            イベントを受け取るリスナー. {@code null}の場合はイベントを通知しない
+	 */
+	public void setEventListener(FightEventListener eventListener) {
+		this.eventListener = eventListener;
+	}
+
 	/**
 	 * シミュレータ内での処理かどうかを返す．
 	 *
@@ -1274,4 +1500,13 @@ public class Character {
 	public boolean isSimulateProcess() {
 		return this.isSimulateProcess;
 	}
+
+	/**
+	 * キャラクターが参加する試合の設定を返す．
+	 *
+	 * @return キャラクターが参加する試合の設定
+	 */
+	public MatchContext getContext() {
+		return this.context;
+	}
 }
@@ -90,6 +90,16 @@ public class Effect {
 		return this.hitImages;
 	}
 
+	/**
+	 * Sets the all of effect's images.
+	 *
+	 * @param hitImages
+	 *            the all of effect's images
+	 */
+	public void setImages(Image[] hitImages) {
+		this.hitImages = hitImages;
+	}
+
 	/**
 	 * Returns the attack related to this effect.
 	 *
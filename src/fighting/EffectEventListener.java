@@ -0,0 +1,97 @@
+package fighting;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+import enumerate.Action;
+import image.Image;
+import manager.GraphicManager;
+import manager.SoundManager;
+import setting.FlagSetting;
+
+/**
+ * 対戦処理のイベントに応じて, エフェクトの生成と効果音の再生を行うクラス．<br>
+ * Windowが生成されているときのみ用いられる．
+ */
+public class EffectEventListener implements FightEventListener {
+
+	/**
+	 * 攻撃が当たった時に表示するエフェクトや, アッパーのエフェクトの情報を格納するリスト．<br>
+	 * Index 0 is P1, index 1 is P2.
+	 */
+	private LinkedList<LinkedList<HitEffect>> hitEffects;
+
+	/**
+	 * クラスコンストラクタ．
+	 *
+	 * @param hitEffects
+	 *            生成したエフェクトを追加するリスト. Index 0 is P1, index 1 is P2.
+	 */
+	public EffectEventListener(LinkedList<LinkedList<HitEffect>> hitEffects) {
+		this.hitEffects = hitEffects;
+	}
+
+	@Override
+	public void onLanding(Character character) {
+		playSound("Landing.wav");
+	}
+
+	@Override
+	public void onGuard(Character character, Attack attack) {
+		playSound("WeakGuard.wav");
+	}
+
+	@Override
+	public void onHit(Character character, Attack attack, boolean down) {
+		playSound(down ? "StrongHit.wav" : "WeakHit.wav");
+	}
+
+	@Override
+	public void onAttack(Character character, Attack attack, boolean hit) {
+		int index = character.isPlayerNumber() ? 0 : 1;
+
+		// 現在のコンボに応じたエフェクトをセット
+		int comboState = Math.max(character.getHitCount() - 1, 0);
+		// 4Hit以上であれば,エフェクトは4ヒット目のもの固定
+		comboState = Math.min(comboState, 3);
+
+		Image[] effect = GraphicManager.getInstance().getHitEffectImageContaier()[comboState];
+		this.hitEffects.get(index).add(new HitEffect(attack, effect, hit));
+
+		// アッパーの処理
+		if (character.getAction() == Action.STAND_F_D_DFB) {
+			Image[] upper = GraphicManager.getInstance().getUpperImageContainer()[index];
+			Motion motion = character.getMotion(Action.STAND_F_D_DFB);
+
+			if (character.startActive(motion)) {
+				this.hitEffects.get(index).add(new HitEffect(attack, upper, true, false));
+			}
+		}
+	}
+
+	@Override
+	public void onProjectile(LoopEffect projectile, boolean ultimate) {
+		ArrayList<Image> projectileImage = ultimate ? GraphicManager.getInstance().getUltimateAttackImageContainer()
+				: GraphicManager.getInstance().getProjectileImageContainer();
+
+		Image[] temp = new Image[projectileImage.size()];
+		for (int j = 0; j < temp.length; j++) {
+			temp[j] = projectileImage.get(j);
+		}
+		projectile.setImages(temp);
+	}
+
+	/**
+	 * 指定された効果音を再生する．<br>
+	 * ミュートの設定のときは何もしない．
+	 *
+	 * @param soundName
+	 *            効果音のファイル名
+	 */
+	private void playSound(String soundName) {
+		if (!FlagSetting.muteFlag) {
+			SoundManager.getInstance().play(SoundManager.getInstance().getSoundEffect().get(soundName));
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package fighting;
+
+/**
+ * 対戦処理の中で発生したイベントを受け取るインタフェース．<br>
+ * 対戦処理自体は画像や音を扱わず, エフェクトの表示や効果音の再生はこのインタフェースの実装クラスが行う．
+ *
+ * @see Fighting#setEventListener(FightEventListener)
+ * @see Character#setEventListener(FightEventListener)
+ */
+public interface FightEventListener {
+
+	/**
+	 * キャラクターが着地したときに呼び出される．
+	 *
+	 * @param character
+	 *            着地したキャラクター
+	 */
+	void onLanding(Character character);
+
+	/**
+	 * キャラクターが相手の攻撃をガードしたときに呼び出される．
+	 *
+	 * @param character
+	 *            攻撃をガードしたキャラクター
+	 * @param attack
+	 *            ガードされた攻撃
+	 */
+	void onGuard(Character character, Attack attack);
+
+	/**
+	 * キャラクターに相手の攻撃が当たったときに呼び出される．<br>
+	 * 投げ技が当たったときは呼び出されない．
+	 *
+	 * @param character
+	 *            攻撃が当たったキャラクター
+	 * @param attack
+	 *            当たった攻撃
+	 * @param down
+	 *            攻撃によってキャラクターがダウンしたかどうか
+	 */
+	void onHit(Character character, Attack attack, boolean down);
+
+	/**
+	 * 波動拳以外の攻撃が発生している間, 当たり判定の処理を行うたびに呼び出される．
+	 *
+	 * @param character
+	 *            攻撃を行っているキャラクター
+	 * @param attack
+	 *            キャラクターの攻撃
+	 * @param hit
+	 *            攻撃が相手に当たったかどうか
+	 */
+	void onAttack(Character character, Attack attack, boolean hit);
+
+	/**
+	 * 波動拳が生成されたときに呼び出される．
+	 *
+	 * @param projectile
+	 *            生成された波動拳
+	 * @param ultimate
+	 *            必殺技(STAND_D_DF_FC)の波動拳かどうか
+	 */
+	void onProjectile(LoopEffect projectile, boolean ultimate);
+
+}
@@ -1,18 +1,15 @@
 package fighting;
 
-import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
 
+import command.CommandRecognizer;
 import command.CommandTable;
 import enumerate.Action;
 import enumerate.State;
-import image.Image;
 import input.KeyData;
-import manager.GraphicManager;
-import setting.FlagSetting;
 import setting.GameSetting;
-import setting.LaunchSetting;
+import setting.MatchContext;
 import struct.AttackData;
 import struct.CharacterData;
 import struct.FrameData;
@@ -32,11 +29,12 @@ public class Fighting {
 	protected Character[] playerCharacters;
 
 	/**
-	 * The list of projectile data of both characters.
+	 * The pool of projectile data of both characters.
 	 *
 	 * @see LoopEffect
+	 * @see ProjectilePool
 	 */
-	protected Deque<LoopEffect> projectileDeque;
+	protected ProjectilePool projectiles;
 
 	/**
 	 * The list of the input information of both characters.
@@ -60,21 +58,79 @@ public class Fighting {
 	 */
 	protected CommandTable commandTable;
 
+	/**
+	 * P1, P2のキー入力の履歴からアクションを求めるクラスのインスタンス．<br>
+	 * {@link #inputCommands}と同じ履歴を保持する．
+	 *
+	 * @see CommandRecognizer
+	 */
+	protected CommandRecognizer[] recognizers;
 
 	/**
-	 * Class constructor．
+	 * 被弾や波動拳の生成などのイベントを受け取るリスナー．<br>
+	 * {@code null}の場合はイベントを通知せず, エフェクトの生成や効果音の再生を行わない．
+	 *
+	 * @see FightEventListener
+	 */
+	private FightEventListener eventListener;
+
+	/**
+	 * 試合の設定．
+	 *
+	 * @see MatchContext
+	 */
+	protected MatchContext context;
+
+	/**
+	 * 状態のハッシュ値を求めるために状態を書き込むStateArena．<br>
+	 * 初めてハッシュ値を求める際に生成し, 以降は使い回す．
+	 */
+	private StateArena hashArena;
+
+
+	/**
+	 * Class constructor．<br>
+	 * 試合の設定には, 現在の静的な設定のコピーを用いる．
 	 */
 	public Fighting() {
+		this(new MatchContext());
+	}
+
+	/**
+	 * 引数で指定した試合の設定を用いてインスタンスを生成するクラスコンストラクタ．<br>
+	 * 設定の異なる複数の試合を同時に行う場合は, 試合ごとに設定を用意する．
+	 *
+	 * @param context
+	 *            試合の設定
+	 */
+	public Fighting(MatchContext context) {
+		this(context, new CommandTable());
+	}
+
+	/**
+	 * 引数で指定した試合の設定とコマンドテーブルを用いてインスタンスを生成するクラスコンストラクタ．<br>
+	 * コマンドテーブルは状態を持たないため, 複数のインスタンスで共有できる．
+	 *
+	 * @param context
+	 *            試合の設定
+	 * @param commandTable
+	 *            キー入力とそれに対応するアクションを管理するコマンドテーブル
+	 */
+	protected Fighting(MatchContext context, CommandTable commandTable) {
+		this.context = context;
 		this.playerCharacters = new Character[2];
-		this.projectileDeque = new LinkedList<LoopEffect>();
+		this.projectiles = new ProjectilePool();
 		this.inputCommands = new LinkedList<KeyData>();
-		this.commandTable = new CommandTable();
+		this.commandTable = commandTable;
+		this.recognizers = new CommandRecognizer[] { new CommandRecognizer(), new CommandRecognizer() };
 		this.hitEffects = new LinkedList<LinkedList<HitEffect>>();
 
 	}
 	
 	public void processingRoundEnd(){
 		this.inputCommands.clear();
+		this.recognizers[0].clear();
+		this.recognizers[1].clear();
 		this.playerCharacters[0].setProcessedCommand(new LinkedList<Key>());
 		this.playerCharacters[1].setProcessedCommand(new LinkedList<Key>());
 		this.playerCharacters[0].setInputCommand(new LinkedList<Key>());
@@ -86,10 +142,30 @@ public class Fighting {
 	 */
 	public void initialize() {
 		for (int i = 0; i < 2; i++) {
-			this.playerCharacters[i] = new Character();
-			this.playerCharacters[i].initialize(LaunchSetting.characterNames[i], i == 0);
+			this.playerCharacters[i] = new Character(this.context);
+			this.playerCharacters[i].initialize(this.context.getCharacterName(i), i == 0);
 			this.hitEffects.add(new LinkedList<HitEffect>());
 		}
+
+		if (this.context.isEnableWindow()) {
+			setEventListener(new EffectEventListener(this.hitEffects));
+		}
+	}
+
+	/**
+	 * 被弾や波動拳の生成などのイベントを受け取るリスナーをセットする．<br>
+	 * リスナーは両キャラクターにもセットされる．
+	 *
+	 * @param eventListener
+	 *            イベントを受け取るリスナー. {@code null}の場合はイベントを通知しない
+	 */
+	public void setEventListener(FightEventListener eventListener) {
+		this.eventListener = eventListener;
+		for (Character character : this.playerCharacters) {
+			if (character != null) {
+				character.setEventListener(eventListener);
+			}
+		}
 	}
 
 	/**
@@ -131,20 +207,22 @@ public class Fighting {
 	 */
 	protected void processingCommands(int currentFrame, KeyData keyData) {
 		this.inputCommands.addLast(keyData);
+		for (int i = 0; i < 2; i++) {
+			this.recognizers[i].addLast(keyData.getKeys()[i]);
+		}
 
 		// リストのサイズが上限(INPUT_LIMIT)を超えていたら, 最も古いデータを削除する
 		while (this.inputCommands.size() > GameSetting.INPUT_LIMIT) {
 			this.inputCommands.removeFirst();
+			this.recognizers[0].removeFirst();
+			this.recognizers[1].removeFirst();
 		}
 
 		// アクションの実行
 		for (int i = 0; i < 2; i++) {
-			if (!this.inputCommands.isEmpty()) {
-				Action executeAction = this.commandTable.interpretationCommandFromKeyData(this.playerCharacters[i],
-						this.inputCommands);
-				if (ableAction(this.playerCharacters[i], executeAction)) {
-					this.playerCharacters[i].runAction(executeAction, true);
-				}
+			Action executeAction = this.recognizers[i].recognize(this.commandTable, this.playerCharacters[i]);
+			if (ableAction(this.playerCharacters[i], executeAction)) {
+				this.playerCharacters[i].runAction(executeAction, true);
 			}
 		}
 	}
@@ -159,9 +237,9 @@ public class Fighting {
 		boolean[] isHit = { false, false };
 
 		// 波動拳の処理
-		int dequeSize = this.projectileDeque.size();
-		for (int i = 0; i < dequeSize; i++) {
-			LoopEffect projectile = this.projectileDeque.removeFirst();
+		int remaining = 0;
+		for (int i = 0; i < this.projectiles.size(); i++) {
+			LoopEffect projectile = this.projectiles.get(i);
 			int opponentIndex = projectile.getAttack().isPlayerNumber() ? 1 : 0;
 
 			if (detectionHit(this.playerCharacters[opponentIndex], projectile.getAttack())) {
@@ -169,9 +247,10 @@ public class Fighting {
 				this.playerCharacters[opponentIndex].hitAttack(this.playerCharacters[myIndex], projectile.getAttack(),
 						currentFrame);
 			} else {
-				this.projectileDeque.addLast(projectile);
+				this.projectiles.set(remaining++, projectile);
 			}
 		}
+		this.projectiles.truncate(remaining);
 
 		// 通常攻撃の処理
 		for (int i = 0; i < 2; i++) {
@@ -185,29 +264,10 @@ public class Fighting {
 			}
 		}
 
-		// エフェクト関係の処理. Windowが生成されているときのみ行う.
 		for (int i = 0; i < 2; i++) {
-			if (FlagSetting.enableWindow) {
-				if (this.playerCharacters[i].getAttack() != null) {
-					// 現在のコンボに応じたエフェクトをセット
-					int comboState = Math.max(this.playerCharacters[i].getHitCount() - 1, 0);
-					// 4Hit以上であれば,エフェクトは4ヒット目のもの固定
-					comboState = Math.min(comboState, 3);
-
-					Image[] effect = GraphicManager.getInstance().getHitEffectImageContaier()[comboState];
-					this.hitEffects.get(i).add(new HitEffect(this.playerCharacters[i].getAttack(), effect, isHit[i]));
-
-					// アッパーの処理
-					if (playerCharacters[i].getAction() == Action.STAND_F_D_DFB) {
-						Image[] upper = GraphicManager.getInstance().getUpperImageContainer()[i];
-						Motion motion = this.playerCharacters[i].getMotionList().get(Action.STAND_F_D_DFB.ordinal());
-
-						if (this.playerCharacters[i].startActive(motion)) {
-							this.hitEffects.get(i)
-									.add(new HitEffect(this.playerCharacters[i].getAttack(), upper, true, false));
-						}
-					}
-				}
+			// エフェクト関係の処理はリスナーに任せる
+			if (this.eventListener != null && this.playerCharacters[i].getAttack() != null) {
+				this.eventListener.onAttack(this.playerCharacters[i], this.playerCharacters[i].getAttack(), isHit[i]);
 			}
 
 			if (isHit[i]) {
@@ -226,15 +286,15 @@ public class Fighting {
 	 */
 	protected void updateAttackParameter() {
 		// Updates the parameters of all of projectiles appearing in the stage
-		int dequeSize = this.projectileDeque.size();
-		for (int i = 0; i < dequeSize; i++) {
-
-			LoopEffect projectile = this.projectileDeque.removeFirst();
+		int remaining = 0;
+		for (int i = 0; i < this.projectiles.size(); i++) {
+			LoopEffect projectile = this.projectiles.get(i);
 			if (projectile.getAttack().updateProjectileAttack()) {
 				projectile.update();
-				this.projectileDeque.addLast(projectile);
+				this.projectiles.set(remaining++, projectile);
 			}
 		}
+		this.projectiles.truncate(remaining);
 
 		// Updates the parameters of all of attacks excepted projectile
 		// conducted by both characters
@@ -259,24 +319,9 @@ public class Fighting {
 				if (this.playerCharacters[i].getAttack().isProjectile()) {
 
 					Attack attack = this.playerCharacters[i].getAttack();
-					ArrayList<Image> projectileImage = FlagSetting.enableWindow
-							? GraphicManager.getInstance().getProjectileImageContainer() : null;
-
-					if (this.playerCharacters[i].getAction() == Action.STAND_D_DF_FC) {
-						projectileImage = FlagSetting.enableWindow
-								? GraphicManager.getInstance().getUltimateAttackImageContainer() : null;
-					}
-
-					Image[] temp;
-					if (FlagSetting.enableWindow) {
-						temp = new Image[projectileImage.size()];
-						for (int j = 0; j < temp.length; j++) {
-							temp[j] = projectileImage.get(j);
-						}
-					} else {
-						temp = null;
-					}
-					this.projectileDeque.addLast(new LoopEffect(attack, temp));
+					boolean ultimate = this.playerCharacters[i].getAction() == Action.STAND_D_DF_FC;
+
+					this.projectiles.add(createProjectile(attack, ultimate));
 					this.playerCharacters[i].destroyAttackInstance();
 				}
 			}
@@ -302,6 +347,26 @@ public class Fighting {
 		decisionEndStage();
 	}
 
+	/**
+	 * 引数の攻撃に対応する波動拳のエフェクトを生成する．<br>
+	 * 画像はリスナーによってセットされ, リスナーがない場合は画像を持たないエフェクトを生成する．
+	 *
+	 * @param attack
+	 *            波動拳の攻撃
+	 * @param ultimate
+	 *            必殺技(STAND_D_DF_FC)の波動拳かどうかのフラグ
+	 *
+	 * @return 波動拳のエフェクト
+	 */
+	protected LoopEffect createProjectile(Attack attack, boolean ultimate) {
+		LoopEffect projectile = new LoopEffect(attack, null, ultimate);
+		if (this.eventListener != null) {
+			this.eventListener.onProjectile(projectile, ultimate);
+		}
+
+		return projectile;
+	}
+
 	/**
 	 * P1とP2のキャラクターの水平方向のスピードに応じて, 相手を押す処理を行う．
 	 */
@@ -395,8 +460,8 @@ public class Fighting {
 	 * @see Action
 	 */
 	protected boolean ableAction(Character character, Action nextAction) {
-		Motion nextMotion = character.getMotionList().get(nextAction.ordinal());
-		Motion nowMotion = character.getMotionList().get(character.getAction().ordinal());
+		Motion nextMotion = character.getMotion(nextAction);
+		Motion nowMotion = character.getMotion(character.getAction());
 
 		if (character.getEnergy() < -nextMotion.getAttackStartAddEnergy()) {
 			return false;
@@ -464,11 +529,123 @@ public class Fighting {
 				new CharacterData(playerCharacters[1]) };
 
 		Deque<AttackData> newAttackDeque = new LinkedList<AttackData>();
-		for (LoopEffect loopEffect : this.projectileDeque) {
-			newAttackDeque.addLast(new AttackData(loopEffect.getAttack()));
+		for (int i = 0; i < this.projectiles.size(); i++) {
+			newAttackDeque.addLast(new AttackData(this.projectiles.get(i).getAttack()));
 		}
 
-		return new FrameData(characterData, nowFrame, round, newAttackDeque);
+		return new FrameData(characterData, nowFrame, round, newAttackDeque, this.context);
+	}
+
+	/**
+	 * 現在の対戦の状態をint型の配列に詰めて返す．<br>
+	 * 両キャラクターの状態, 両キャラクターの攻撃, 波動拳及びキー入力の履歴を含む．
+	 * 返された配列をコピーするだけで状態を複製でき, {@link #decodeState(int[])}で復元できる．<br>
+	 * 攻撃が当たった時のエフェクトは含まない．
+	 *
+	 * @return 現在の対戦の状態を格納した配列
+	 *
+	 * @see StateArena
+	 */
+	public int[] encodeState() {
+		StateArena arena = new StateArena();
+		encode(arena);
+		return arena.toArray();
+	}
+
+	/**
+	 * 現在の対戦の状態の64ビットのハッシュ値を返す．<br>
+	 * {@link #encodeState()}で書き込まれる状態が等しければ, 同じ値を返す．<br>
+	 * 呼び出すたびに状態全体を書き込んでハッシュ値を求める．書き込み先のStateArenaは使い回す．
+	 *
+	 * @return 現在の対戦の状態のハッシュ値
+	 *
+	 * @see StateArena#hash(int[])
+	 */
+	public long getStateHash() {
+		if (this.hashArena == null) {
+			this.hashArena = new StateArena();
+		}
+
+		this.hashArena.clear();
+		encode(this.hashArena);
+		return this.hashArena.hash();
+	}
+
+	/**
+	 * {@link #encodeState()}で生成された配列から対戦の状態を復元する．<br>
+	 * 同じキャラクターで初期化されたインスタンスに対して呼び出す必要がある．
+	 *
+	 * @param state
+	 *            対戦の状態を格納した配列
+	 */
+	public void decodeState(int[] state) {
+		decode(new StateArena(state));
+	}
+
+	/**
+	 * 対戦の状態を引数のStateArenaに書き込む．
+	 *
+	 * @param arena
+	 *            状態を書き込むStateArenaのインスタンス
+	 */
+	protected void encode(StateArena arena) {
+		for (int i = 0; i < 2; i++) {
+			this.playerCharacters[i].encode(arena);
+		}
+
+		arena.putInt(this.inputCommands.size());
+		for (KeyData keyData : this.inputCommands) {
+			Key[] keys = keyData.getKeys();
+			arena.putKey(keys[0]);
+			arena.putKey(keys[1]);
+		}
+
+		arena.putInt(this.projectiles.size());
+		for (int i = 0; i < this.projectiles.size(); i++) {
+			LoopEffect projectile = this.projectiles.get(i);
+			projectile.getAttack().encode(arena);
+			arena.putInt(projectile.currentFrame);
+			arena.putBoolean(projectile.isUltimate());
+		}
+	}
+
+	/**
+	 * 引数のStateArenaから対戦の状態を読み出し, このインスタンスに上書きする．<br>
+	 * 攻撃が当たった時のエフェクトは削除される．
+	 *
+	 * @param arena
+	 *            状態を読み出すStateArenaのインスタンス
+	 */
+	protected void decode(StateArena arena) {
+		for (int i = 0; i < 2; i++) {
+			this.playerCharacters[i].decode(arena);
+		}
+		for (LinkedList<HitEffect> hitEffect : this.hitEffects) {
+			hitEffect.clear();
+		}
+
+		this.inputCommands.clear();
+		this.recognizers[0].clear();
+		this.recognizers[1].clear();
+		int inputSize = arena.getInt();
+		for (int i = 0; i < inputSize; i++) {
+			Key[] keys = new Key[] { arena.getKey(), arena.getKey() };
+			this.inputCommands.addLast(new KeyData(keys));
+			this.recognizers[0].addLast(keys[0]);
+			this.recognizers[1].addLast(keys[1]);
+		}
+
+		this.projectiles.clear();
+		int projectileSize = arena.getInt();
+		for (int i = 0; i < projectileSize; i++) {
+			Attack attack = new Attack();
+			attack.decode(arena);
+			int currentFrame = arena.getInt();
+
+			LoopEffect projectile = createProjectile(attack, arena.getBoolean());
+			projectile.currentFrame = currentFrame;
+			this.projectiles.add(projectile);
+		}
 	}
 
 	/**
@@ -480,8 +657,10 @@ public class Fighting {
 			this.hitEffects.get(i).clear();
 		}
 
-		this.projectileDeque.clear();
+		this.projectiles.clear();
 		this.inputCommands.clear();
+		this.recognizers[0].clear();
+		this.recognizers[1].clear();
 	}
 
 	/**
@@ -499,6 +678,16 @@ public class Fighting {
 	 * @return the list of projectile data of both characters
 	 */
 	public Deque<LoopEffect> getProjectileDeque() {
-		return new LinkedList<LoopEffect>(this.projectileDeque);
+		return this.projectiles.toDeque();
+	}
+
+	/**
+	 * 両キャラクターの波動拳を格納したプールを返す．<br>
+	 * 返されるプールはコピーではないため, 描画など読み出しのみに用いる．
+	 *
+	 * @return 両キャラクターの波動拳を格納したプール
+	 */
+	public ProjectilePool getProjectiles() {
+		return this.projectiles;
 	}
 }
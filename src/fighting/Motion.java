@@ -11,8 +11,7 @@ import enumerate.State;
 import image.CharacterActionImage;
 import image.Image;
 import manager.GraphicManager;
-import setting.FlagSetting;
-import setting.LaunchSetting;
+import setting.MatchContext;
 import struct.HitArea;
 import struct.MotionData;
 
@@ -196,6 +195,22 @@ public class Motion {
 	 *            プレイヤー番号(0:P1 1:P2)
 	 */
 	public Motion(String[] data, String characterName, int playerIndex) {
+		this(data, characterName, playerIndex, new MatchContext());
+	}
+
+	/**
+	 * 指定されたデータと試合の設定でMotionクラスのインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param data
+	 *            Motion.csvから読み込んだキャラクターのパラメータ
+	 * @param characterName
+	 *            キャラクターの名前
+	 * @param playerIndex
+	 *            プレイヤー番号(0:P1 1:P2)
+	 * @param context
+	 *            試合の設定. 画面表示のための処理を行う場合のみ画像を読み込む
+	 */
+	public Motion(String[] data, String characterName, int playerIndex, MatchContext context) {
 		this.actionName = data[0];
 		this.frameNumber = Integer.valueOf(data[1]);
 		this.speedX = Integer.valueOf(data[2]);
@@ -227,8 +242,8 @@ public class Motion {
 		this.landingFlag = Boolean.valueOf(data[32]);
 		// data[33]は読み込む画像が入ったディレクトリ名
 		//
-		if (FlagSetting.enableWindow) {
-			setMotionImage(characterName, playerIndex);
+		if (context.isEnableWindow()) {
+			setMotionImage(characterName, playerIndex, context);
 		}
 	}
 
@@ -279,8 +294,10 @@ public class Motion {
 	 *            キャラクターの名前
 	 * @param playerIndex
 	 *            プレイヤー番号(0:P1 1:P2)
+	 * @param context
+	 *            試合の設定
 	 */
-	private void setMotionImage(String characterName, int playerIndex) {
+	private void setMotionImage(String characterName, int playerIndex, MatchContext context) {
 		this.imageList = new ArrayList<Image>();
 		ArrayList<CharacterActionImage> temp = GraphicManager.getInstance().getCharacterImageContainer();
 		int index = temp.indexOf(new CharacterActionImage(characterName, this.actionName));
@@ -293,9 +310,9 @@ public class Motion {
 			Image[] image = temp.get(index).getActionImage();
 
 			for (Image img : image) {
-				if (LaunchSetting.characterNames[0].equals(LaunchSetting.characterNames[1])) {
+				if (context.getCharacterName(0).equals(context.getCharacterName(1))) {
 					// 画素の反転
-					if (LaunchSetting.invertedPlayer == playerIndex + 1) {
+					if (context.getInvertedPlayer() == playerIndex + 1) {
 						Logger.getAnonymousLogger().log(Level.INFO,
 								"Inverting all character images of P" + playerIndex + 1);
 						img = invert(img);
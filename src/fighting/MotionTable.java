@@ -0,0 +1,261 @@
+package fighting;
+
+import java.util.List;
+
+import struct.HitArea;
+
+/**
+ * キャラクターの全モーションのパラメータを, アクションの序数をインデックスとするint型の配列に展開して保持するクラス．<br>
+ * {@link Motion}のリストを毎フレーム参照する代わりに用いることで, オブジェクトを辿らずにパラメータを参照できる．
+ *
+ * @see Motion
+ * @see BatchFighting
+ */
+public class MotionTable {
+
+	/**
+	 * 各モーションの総フレーム数．
+	 */
+	final int[] frameNumber;
+
+	/**
+	 * 各モーションの水平方向のスピード．
+	 */
+	final int[] speedX;
+
+	/**
+	 * 各モーションの垂直方向のスピード．
+	 */
+	final int[] speedY;
+
+	/**
+	 * 各モーションのキャラクターの当たり判定の左端．
+	 */
+	final int[] hitAreaLeft;
+
+	/**
+	 * 各モーションのキャラクターの当たり判定の右端．
+	 */
+	final int[] hitAreaRight;
+
+	/**
+	 * 各モーションのキャラクターの当たり判定の上端．
+	 */
+	final int[] hitAreaTop;
+
+	/**
+	 * 各モーションのキャラクターの当たり判定の下端．
+	 */
+	final int[] hitAreaBottom;
+
+	/**
+	 * 各モーションのキャラクターの状態(Stateの序数)．
+	 */
+	final int[] state;
+
+	/**
+	 * 各モーションの攻撃の当たり判定の左端．
+	 */
+	final int[] attackLeft;
+
+	/**
+	 * 各モーションの攻撃の当たり判定の右端．
+	 */
+	final int[] attackRight;
+
+	/**
+	 * 各モーションの攻撃の当たり判定の上端．
+	 */
+	final int[] attackTop;
+
+	/**
+	 * 各モーションの攻撃の当たり判定の下端．
+	 */
+	final int[] attackBottom;
+
+	/**
+	 * 各モーションの攻撃の水平方向のスピードの絶対値．
+	 */
+	final int[] attackSpeedX;
+
+	/**
+	 * 各モーションの攻撃の垂直方向のスピードの絶対値．
+	 */
+	final int[] attackSpeedY;
+
+	/**
+	 * 各モーションの攻撃のStartupのフレーム数．
+	 */
+	final int[] attackStartUp;
+
+	/**
+	 * 各モーションの攻撃のActiveのフレーム数．
+	 */
+	final int[] attackActive;
+
+	/**
+	 * 各モーションの攻撃がガードされなかったときのダメージ．
+	 */
+	final int[] attackHitDamage;
+
+	/**
+	 * 各モーションの攻撃がガードされたときのダメージ．
+	 */
+	final int[] attackGuardDamage;
+
+	/**
+	 * 各モーションを使ったときに加算されるエネルギー．
+	 */
+	final int[] attackStartAddEnergy;
+
+	/**
+	 * 各モーションの攻撃が当たったときに加算されるエネルギー．
+	 */
+	final int[] attackHitAddEnergy;
+
+	/**
+	 * 各モーションの攻撃がガードされたときに加算されるエネルギー．
+	 */
+	final int[] attackGuardAddEnergy;
+
+	/**
+	 * 各モーションの攻撃が当たったときに相手に加算されるエネルギー．
+	 */
+	final int[] attackGiveEnergy;
+
+	/**
+	 * 各モーションの攻撃が当たったときの相手の水平方向のスピードの変化量．
+	 */
+	final int[] attackImpactX;
+
+	/**
+	 * 各モーションの攻撃が当たったときの相手の垂直方向のスピードの変化量．
+	 */
+	final int[] attackImpactY;
+
+	/**
+	 * 各モーションの攻撃をガードした相手が硬直するフレーム数．
+	 */
+	final int[] attackGiveGuardRecov;
+
+	/**
+	 * 各モーションの攻撃の種類: 1 = high, 2 = middle, 3 = low, 4 = throw.
+	 */
+	final int[] attackType;
+
+	/**
+	 * 各モーションの攻撃が相手をダウンさせるかどうかのフラグ．
+	 */
+	final boolean[] attackDownProp;
+
+	/**
+	 * 各モーションをキャンセルできるようになるまでのフレーム数．
+	 */
+	final int[] cancelAbleFrame;
+
+	/**
+	 * 各モーションをキャンセルできるモーションのレベル．
+	 */
+	final int[] cancelAbleMotionLevel;
+
+	/**
+	 * 各モーションのレベル．
+	 */
+	final int[] motionLevel;
+
+	/**
+	 * 各モーションの実行中に新たなモーションを実行できるかどうかのフラグ．
+	 */
+	final boolean[] control;
+
+	/**
+	 * 各モーションが着地によって中断されるかどうかのフラグ．
+	 */
+	final boolean[] landingFlag;
+
+	/**
+	 * 引数のモーションのリストからインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param motionList
+	 *            キャラクターの全モーションを, アクションの序数の順に格納したリスト
+	 */
+	public MotionTable(List<Motion> motionList) {
+		int size = motionList.size();
+
+		this.frameNumber = new int[size];
+		this.speedX = new int[size];
+		this.speedY = new int[size];
+		this.hitAreaLeft = new int[size];
+		this.hitAreaRight = new int[size];
+		this.hitAreaTop = new int[size];
+		this.hitAreaBottom = new int[size];
+		this.state = new int[size];
+		this.attackLeft = new int[size];
+		this.attackRight = new int[size];
+		this.attackTop = new int[size];
+		this.attackBottom = new int[size];
+		this.attackSpeedX = new int[size];
+		this.attackSpeedY = new int[size];
+		this.attackStartUp = new int[size];
+		this.attackActive = new int[size];
+		this.attackHitDamage = new int[size];
+		this.attackGuardDamage = new int[size];
+		this.attackStartAddEnergy = new int[size];
+		this.attackHitAddEnergy = new int[size];
+		this.attackGuardAddEnergy = new int[size];
+		this.attackGiveEnergy = new int[size];
+		this.attackImpactX = new int[size];
+		this.attackImpactY = new int[size];
+		this.attackGiveGuardRecov = new int[size];
+		this.attackType = new int[size];
+		this.attackDownProp = new boolean[size];
+		this.cancelAbleFrame = new int[size];
+		this.cancelAbleMotionLevel = new int[size];
+		this.motionLevel = new int[size];
+		this.control = new boolean[size];
+		this.landingFlag = new boolean[size];
+
+		for (int i = 0; i < size; i++) {
+			Motion motion = motionList.get(i);
+
+			this.frameNumber[i] = motion.getFrameNumber();
+			this.speedX[i] = motion.getSpeedX();
+			this.speedY[i] = motion.getSpeedY();
+
+			HitArea hitArea = motion.getCharacterHitArea();
+			this.hitAreaLeft[i] = hitArea.getLeft();
+			this.hitAreaRight[i] = hitArea.getRight();
+			this.hitAreaTop[i] = hitArea.getTop();
+			this.hitAreaBottom[i] = hitArea.getBottom();
+			this.state[i] = motion.getState().ordinal();
+
+			HitArea attackArea = motion.getAttackHitArea();
+			this.attackLeft[i] = attackArea.getLeft();
+			this.attackRight[i] = attackArea.getRight();
+			this.attackTop[i] = attackArea.getTop();
+			this.attackBottom[i] = attackArea.getBottom();
+			this.attackSpeedX[i] = motion.getAttackSpeedX();
+			this.attackSpeedY[i] = motion.getAttackSpeedY();
+			this.attackStartUp[i] = motion.getAttackStartUp();
+			this.attackActive[i] = motion.getAttackActive();
+			this.attackHitDamage[i] = motion.getAttackHitDamage();
+			this.attackGuardDamage[i] = motion.getAttackGuardDamage();
+			this.attackStartAddEnergy[i] = motion.getAttackStartAddEnergy();
+			this.attackHitAddEnergy[i] = motion.getAttackHitAddEnergy();
+			this.attackGuardAddEnergy[i] = motion.getAttackGuardAddEnergy();
+			this.attackGiveEnergy[i] = motion.getAttackGiveEnergy();
+			this.attackImpactX[i] = motion.getAttackImpactX();
+			this.attackImpactY[i] = motion.getAttackImpactY();
+			this.attackGiveGuardRecov[i] = motion.getAttackGiveGuardRecov();
+			this.attackType[i] = motion.getAttackType();
+			this.attackDownProp[i] = motion.isAttackDownProp();
+
+			this.cancelAbleFrame[i] = motion.getCancelAbleFrame();
+			this.cancelAbleMotionLevel[i] = motion.getCancelAbleMotionLevel();
+			this.motionLevel[i] = motion.getMotionLevel();
+			this.control[i] = motion.isControl();
+			this.landingFlag[i] = motion.isLandingFlag();
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+package fighting;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+
+/**
+ * ステージ上に存在する波動拳を, 出された順に配列に格納するクラス．<br>
+ * 要素の追加や削除でオブジェクトを生成しないよう, 確保済みの配列の中で要素を詰めて管理する．
+ * 要素はインデックスで参照する．<br>
+ * 削除は{@link #set(int, LoopEffect)}で残す要素を先頭から詰め直し, {@link #truncate(int)}で残りを切り捨てて行う．
+ */
+public class ProjectilePool {
+
+	/**
+	 * 配列の初期の長さ．
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * 波動拳を格納する配列．
+	 */
+	private LoopEffect[] projectiles;
+
+	/**
+	 * 格納されている波動拳の数．
+	 */
+	private int size;
+
+	/**
+	 * 空のインスタンスを生成するクラスコンストラクタ．
+	 */
+	public ProjectilePool() {
+		this.projectiles = new LoopEffect[DEFAULT_CAPACITY];
+		this.size = 0;
+	}
+
+	/**
+	 * 波動拳を末尾に追加する．<br>
+	 * 配列が一杯の場合のみ, 配列の長さを2倍に拡張する．
+	 *
+	 * @param projectile
+	 *            追加する波動拳
+	 */
+	public void add(LoopEffect projectile) {
+		if (this.size == this.projectiles.length) {
+			this.projectiles = Arrays.copyOf(this.projectiles, this.projectiles.length * 2);
+		}
+		this.projectiles[this.size++] = projectile;
+	}
+
+	/**
+	 * 指定したインデックスの波動拳を返す．
+	 *
+	 * @param index
+	 *            インデックス
+	 *
+	 * @return 指定したインデックスの波動拳
+	 */
+	public LoopEffect get(int index) {
+		return this.projectiles[index];
+	}
+
+	/**
+	 * 指定したインデックスに波動拳を格納する．<br>
+	 * 残す要素を先頭から詰め直すために用いる．
+	 *
+	 * @param index
+	 *            格納先のインデックス. 現在の要素数未満である必要がある
+	 * @param projectile
+	 *            格納する波動拳
+	 */
+	public void set(int index, LoopEffect projectile) {
+		this.projectiles[index] = projectile;
+	}
+
+	/**
+	 * 要素数を指定した数に切り詰める．<br>
+	 * 切り捨てた位置の参照は解放される．
+	 *
+	 * @param newSize
+	 *            新しい要素数
+	 */
+	public void truncate(int newSize) {
+		Arrays.fill(this.projectiles, newSize, this.size, null);
+		this.size = newSize;
+	}
+
+	/**
+	 * 全ての波動拳を削除する．
+	 */
+	public void clear() {
+		truncate(0);
+	}
+
+	/**
+	 * 格納されている波動拳の数を返す．
+	 *
+	 * @return 格納されている波動拳の数
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * 波動拳が格納されていないかどうかを返す．
+	 *
+	 * @return {@code true} 波動拳が格納されていない，{@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * 格納されている波動拳を, 出された順に格納した新しいキューを返す．
+	 *
+	 * @return 波動拳を格納したキュー
+	 */
+	public Deque<LoopEffect> toDeque() {
+		Deque<LoopEffect> deque = new LinkedList<LoopEffect>();
+		for (int i = 0; i < this.size; i++) {
+			deque.addLast(this.projectiles[i]);
+		}
+		return deque;
+	}
+
+}
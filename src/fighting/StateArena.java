@@ -0,0 +1,247 @@
+package fighting;
+
+import java.util.Arrays;
+import java.util.Deque;
+
+import command.CommandRecognizer;
+import struct.HitArea;
+import struct.Key;
+
+/**
+ * 対戦の状態をint型の配列に詰めて格納するクラス．<br>
+ * キャラクター, 攻撃, 波動拳などの状態を先頭から順に書き込み, 書き込んだ順に読み出す．<br>
+ * 状態のコピーは配列のコピーのみで済むため, 探索やキャッシュのために状態を大量に保持する際に用いる．
+ *
+ * @see Fighting#encodeState()
+ * @see Fighting#decodeState(int[])
+ */
+public class StateArena {
+
+	/**
+	 * 書き込み用に確保する配列の初期の長さ．
+	 */
+	private static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * 状態を格納する配列．
+	 */
+	private int[] data;
+
+	/**
+	 * 次に読み書きする配列のインデックス．
+	 */
+	private int position;
+
+	/**
+	 * 状態を書き込むための空のインスタンスを生成するクラスコンストラクタ．
+	 */
+	public StateArena() {
+		this.data = new int[DEFAULT_CAPACITY];
+		this.position = 0;
+	}
+
+	/**
+	 * 引数の配列に格納された状態を先頭から読み出すためのインスタンスを生成するクラスコンストラクタ．<br>
+	 * 配列はコピーされない．
+	 *
+	 * @param data
+	 *            状態を格納した配列
+	 */
+	public StateArena(int[] data) {
+		this.data = data;
+		this.position = 0;
+	}
+
+	/**
+	 * 書き込まれた状態を破棄し, 先頭から書き込み直せるようにする．<br>
+	 * 確保済みの配列は再利用される．
+	 */
+	public void clear() {
+		this.position = 0;
+	}
+
+	/**
+	 * int型の値を書き込む．
+	 *
+	 * @param value
+	 *            書き込む値
+	 */
+	public void putInt(int value) {
+		if (this.position == this.data.length) {
+			this.data = Arrays.copyOf(this.data, this.data.length * 2);
+		}
+		this.data[this.position++] = value;
+	}
+
+	/**
+	 * boolean型の値を書き込む．
+	 *
+	 * @param value
+	 *            書き込む値
+	 */
+	public void putBoolean(boolean value) {
+		putInt(value ? 1 : 0);
+	}
+
+	/**
+	 * 当たり判定の領域を書き込む．
+	 *
+	 * @param hitArea
+	 *            書き込む当たり判定の領域
+	 */
+	public void putHitArea(HitArea hitArea) {
+		putInt(hitArea.getLeft());
+		putInt(hitArea.getRight());
+		putInt(hitArea.getTop());
+		putInt(hitArea.getBottom());
+	}
+
+	/**
+	 * キー入力を1つのint型の値として書き込む．
+	 *
+	 * @param key
+	 *            書き込むキー入力
+	 */
+	public void putKey(Key key) {
+		putInt(CommandRecognizer.pack(key));
+	}
+
+	/**
+	 * キー入力のリストを, 要素数に続けて書き込む．
+	 *
+	 * @param keys
+	 *            書き込むキー入力のリスト
+	 */
+	public void putKeys(Deque<Key> keys) {
+		putInt(keys.size());
+		for (Key key : keys) {
+			putKey(key);
+		}
+	}
+
+	/**
+	 * int型の値を読み出す．
+	 *
+	 * @return 読み出した値
+	 */
+	public int getInt() {
+		return this.data[this.position++];
+	}
+
+	/**
+	 * boolean型の値を読み出す．
+	 *
+	 * @return 読み出した値
+	 */
+	public boolean getBoolean() {
+		return getInt() != 0;
+	}
+
+	/**
+	 * 当たり判定の領域を読み出す．
+	 *
+	 * @return 読み出した当たり判定の領域
+	 */
+	public HitArea getHitArea() {
+		int left = getInt();
+		int right = getInt();
+		int top = getInt();
+		int bottom = getInt();
+		return new HitArea(left, right, top, bottom);
+	}
+
+	/**
+	 * {@link #putKey(Key)}で書き込まれたキー入力を読み出す．
+	 *
+	 * @return 読み出したキー入力
+	 */
+	public Key getKey() {
+		return CommandRecognizer.unpack(getInt());
+	}
+
+	/**
+	 * {@link #putKeys(Deque)}で書き込まれたキー入力のリストを読み出し, 引数のリストの末尾に追加する．
+	 *
+	 * @param keys
+	 *            読み出したキー入力を追加するリスト
+	 */
+	public void getKeys(Deque<Key> keys) {
+		int size = getInt();
+		for (int i = 0; i < size; i++) {
+			keys.addLast(getKey());
+		}
+	}
+
+	/**
+	 * 書き込まれた状態の64ビットのハッシュ値を返す．
+	 *
+	 * @return 書き込まれた状態のハッシュ値
+	 *
+	 * @see #hash(int[])
+	 */
+	public long hash() {
+		return hash(this.data, this.position);
+	}
+
+	/**
+	 * 引数の配列に格納された状態の64ビットのハッシュ値を返す．<br>
+	 * Zobristハッシュと同様に, 配列の各要素についてインデックスと値の組に対応する乱数({@link #hashKey(int, int)})の排他的論理和をとる．
+	 * そのため, 1つの要素の値がaからbに変わった場合, ハッシュ値に{@code hashKey(index, a) ^ hashKey(index, b)}の排他的論理和をとることで,
+	 * 配列全体を走査せずにハッシュ値を更新できる．
+	 *
+	 * @param state
+	 *            状態を格納した配列
+	 *
+	 * @return 状態のハッシュ値
+	 */
+	public static long hash(int[] state) {
+		return hash(state, state.length);
+	}
+
+	/**
+	 * 引数の配列の先頭から指定した長さまでの要素のハッシュ値を返す．
+	 *
+	 * @param state
+	 *            状態を格納した配列
+	 * @param length
+	 *            ハッシュ値の計算に用いる要素数
+	 *
+	 * @return 状態のハッシュ値
+	 */
+	private static long hash(int[] state, int length) {
+		// 要素数の異なる状態が同じ値にならないよう, 要素数も含める
+		long hash = hashKey(-1, length);
+		for (int i = 0; i < length; i++) {
+			hash ^= hashKey(i, state[i]);
+		}
+		return hash;
+	}
+
+	/**
+	 * 配列のインデックスと値の組に対応する64ビットの乱数を返す．<br>
+	 * 乱数表を持つ代わりに, インデックスと値を連結した値をSplitMix64の混合関数で撹拌して求める．
+	 *
+	 * @param index
+	 *            配列のインデックス
+	 * @param value
+	 *            要素の値
+	 *
+	 * @return インデックスと値の組に対応する乱数
+	 */
+	public static long hashKey(int index, int value) {
+		long z = ((long) index << 32 | (value & 0xffffffffL)) + 0x9e3779b97f4a7c15L;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * 書き込まれた状態を, 過不足のない長さの配列として返す．
+	 *
+	 * @return 書き込まれた状態を格納した配列
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(this.data, this.position);
+	}
+
+}
@@ -60,7 +60,8 @@ public class Launcher extends GameScene {
 
 	@Override
 	public void update() {
-		if (this.isFirstUpdate && FlagSetting.enableWindow) {
+		// バッチモードでは読み込み中の画面を表示せずに遷移する
+		if (this.isFirstUpdate && FlagSetting.enableWindow && !FlagSetting.batchFlag) {
 			GraphicManager.getInstance().drawString("Now loading ...", GameSetting.STAGE_WIDTH / 2 - 80, 200);
 			this.isFirstUpdate = false;
 
@@ -23,6 +23,7 @@ import manager.SoundManager;
 import py4j.Py4JException;
 import setting.FlagSetting;
 import setting.GameSetting;
+import setting.MatchContext;
 import struct.FrameData;
 import struct.GameData;
 import struct.ScreenData;
@@ -40,6 +41,12 @@ public class Play extends GameScene {
 	 */
 	private Fighting fighting;
 
+	/**
+	 * 試合の設定．<br>
+	 * 試合の開始時に, 現在の静的な設定をコピーして生成する．
+	 */
+	private MatchContext context;
+
 	/**
 	 * 現在のフレーム．
 	 */
@@ -86,7 +93,13 @@ public class Play extends GameScene {
 	private DataOutputStream dos;
 
 	/**
-	 * 現在の年月日, 時刻を表す文字列．
+	 * 起動してから開始した試合の数．
+	 */
+	private static int gameCount = 0;
+
+	/**
+	 * 現在の年月日, 時刻を表す文字列．<br>
+	 * バッチモードでは, 試合の通し番号が付け加えられる．
 	 */
 	private String timeInfo;
 
@@ -109,7 +122,8 @@ public class Play extends GameScene {
 	public void initialize() {
 		InputManager.getInstance().setSceneName(GameSceneName.PLAY);
 
-		this.fighting = new Fighting();
+		this.context = new MatchContext();
+		this.fighting = new Fighting(this.context);
 		this.fighting.initialize();
 
 		this.nowFrame = 0;
@@ -124,8 +138,13 @@ public class Play extends GameScene {
 		this.roundResults = new ArrayList<RoundResult>();
 
 		this.timeInfo = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd-HH.mm.ss", Locale.ENGLISH));
+		gameCount++;
+		// バッチモードでは結果画面を表示せずに次の試合を始めるため, 同じ秒に終わった試合のログファイルが上書きされないよう通し番号を付ける
+		if (this.context.isBatchMode()) {
+			this.timeInfo += "_game" + gameCount;
+		}
 
-		if (!FlagSetting.trainingModeFlag) {
+		if (!this.context.isTrainingMode()) {
 			openReplayFile();
 		}
 
@@ -134,7 +153,8 @@ public class Play extends GameScene {
 		}
 
 		if (FlagSetting.jsonFlag) {
-			String jsonName = LogWriter.getInstance().createOutputFileName("./log/replay/", this.timeInfo);
+			String jsonName = LogWriter.getInstance().createOutputFileName("./log/replay/", this.timeInfo,
+					this.context);
 			LogWriter.getInstance().initJson(jsonName + ".json");
 		}
 
@@ -142,7 +162,7 @@ public class Play extends GameScene {
 
 		try {
 			InputManager.getInstance().createAIcontroller();
-			InputManager.getInstance().startAI(gameData);
+			InputManager.getInstance().startAI(this.context, gameData);
 		} catch (Py4JException e) {
 			Logger.getAnonymousLogger().log(Level.SEVERE, "Fail to Initialize AI");
 			Launcher lunch = new Launcher(GameSceneName.PLAY);
@@ -157,12 +177,18 @@ public class Play extends GameScene {
 
 	@Override
 	public void update() {
-		if (this.currentRound <= GameSetting.ROUND_MAX) {
+		if (this.currentRound <= this.context.getRoundMax()) {
 			// ラウンド開始時に初期化
 			if (this.roundStartFlag) {
 				initRound();
 
-			} else if (this.elapsedBreakTime < GameSetting.BREAKTIME_FRAME_NUMBER) {
+				// バッチモードではインターバルを設けず, 同じフレームで対戦を始める
+				if (this.context.isBatchMode()) {
+					processingGame();
+					this.nowFrame++;
+				}
+
+			} else if (!this.context.isBatchMode() && this.elapsedBreakTime < GameSetting.BREAKTIME_FRAME_NUMBER) {
 				// break time
 				processingBreakTime();
 				this.elapsedBreakTime++;
@@ -184,7 +210,7 @@ public class Play extends GameScene {
 				SoundManager.getInstance().stop(SoundManager.getInstance().getBackGroundMusic());
 			}
 
-			Result result = new Result(this.roundResults, this.timeInfo);
+			Result result = new Result(this.roundResults, this.timeInfo, this.context);
 			this.setTransitionFlag(true);
 			this.setNextGameScene(result);
 		}
@@ -264,7 +290,7 @@ public class Play extends GameScene {
 		this.frameData = this.fighting.createFrameData(this.nowFrame, this.currentRound);
 
 		// リプレイログ吐き出し
-		if (!FlagSetting.trainingModeFlag) {
+		if (!this.context.isTrainingMode()) {
 			LogWriter.getInstance().outputLog(this.dos, this.keyData, this.fighting.getCharacters());
 		}
 
@@ -274,7 +300,7 @@ public class Play extends GameScene {
 
 		if (FlagSetting.enableWindow) {
 			// 画面をDrawerクラスで描画
-			ResourceDrawer.getInstance().drawResource(this.fighting.getCharacters(), this.fighting.getProjectileDeque(),
+			ResourceDrawer.getInstance().drawResource(this.fighting.getCharacters(), this.fighting.getProjectiles(),
 					this.fighting.getHitEffectList(), this.frameData.getRemainingTimeMilliseconds(), this.currentRound);
 		}
 
@@ -301,7 +327,10 @@ public class Play extends GameScene {
 		if (FlagSetting.slowmotion) {
 			if (this.endFrame > GameSetting.ROUND_EXTRAFRAME_NUMBER) {
 				this.fighting.processingRoundEnd();
-				RoundResult roundResult = new RoundResult(this.frameData);
+				RoundResult roundResult = new RoundResult(this.frameData, this.context);
+				roundResult.setMissedFrames(InputManager.getInstance().getMissedFrames());
+				LogWriter.getInstance().outputLatency(this.currentRound, InputManager.getInstance().getStatistics(),
+						this.timeInfo, this.context);
 				this.roundResults.add(roundResult);
 
 				// AIに結果を渡す
@@ -322,7 +351,10 @@ public class Play extends GameScene {
 		} else {
 			this.endFrame = 0;
 			this.fighting.processingRoundEnd();
-			RoundResult roundResult = new RoundResult(this.frameData);
+			RoundResult roundResult = new RoundResult(this.frameData, this.context);
+			roundResult.setMissedFrames(InputManager.getInstance().getMissedFrames());
+			LogWriter.getInstance().outputLatency(this.currentRound, InputManager.getInstance().getStatistics(),
+					this.timeInfo, this.context);
 			this.roundResults.add(roundResult);
 
 			// AIに結果を渡す
@@ -345,7 +377,7 @@ public class Play extends GameScene {
 	 * @return {@code true}: P1 or P2が倒された，{@code false}: otherwise
 	 */
 	private boolean isBeaten() {
-		return FlagSetting.limitHpFlag
+		return this.context.isLimitHp()
 				&& (this.frameData.getCharacter(true).getHp() <= 0 || this.frameData.getCharacter(false).getHp() <= 0);
 	}
 
@@ -356,10 +388,10 @@ public class Play extends GameScene {
 	 * @return {@code true}: 1ラウンドの制限時間が経過した， {@code false}: otherwise
 	 */
 	private boolean isTimeOver() {
-		if (FlagSetting.trainingModeFlag) {
+		if (this.context.isTrainingMode()) {
 			return this.nowFrame == Integer.MAX_VALUE;
 		} else {
-			return this.nowFrame >= GameSetting.ROUND_FRAME_NUMBER - 1;
+			return this.nowFrame >= this.context.getRoundFrameNumber() - 1;
 		}
 
 	}
@@ -368,10 +400,10 @@ public class Play extends GameScene {
 	 * リプレイファイルを作成し, 使用キャラクターを表すインデックスなどのヘッダ情報を記述する.
 	 */
 	private void openReplayFile() {
-		String fileName = LogWriter.getInstance().createOutputFileName("./log/replay/", this.timeInfo);
+		String fileName = LogWriter.getInstance().createOutputFileName("./log/replay/", this.timeInfo, this.context);
 		this.dos = ResourceLoader.getInstance().openDataOutputStream(fileName + ".dat");
 
-		LogWriter.getInstance().writeHeader(this.dos);
+		LogWriter.getInstance().writeHeader(this.dos, this.context);
 	}
 
 	@Override
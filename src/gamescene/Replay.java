@@ -163,7 +163,7 @@ public class Replay extends GameScene {
 
 				// 画面をDrawerクラスで描画
 				ResourceDrawer.getInstance().drawResource(this.fighting.getCharacters(),
-						this.fighting.getProjectileDeque(), this.fighting.getHitEffectList(),
+						this.fighting.getProjectiles(), this.fighting.getHitEffectList(),
 						this.frameData.getRemainingTimeMilliseconds(), this.currentRound);
 
 				GraphicManager.getInstance().drawString("PlaySpeed:" + this.playSpeedArray[this.playSpeedIndex], 50,
@@ -14,6 +14,7 @@ import python.PyManager;
 import setting.FlagSetting;
 import setting.GameSetting;
 import setting.LaunchSetting;
+import setting.MatchContext;
 import util.LogWriter;
 
 /**
@@ -36,6 +37,11 @@ public class Result extends GameScene {
 	 */
 	private int displayedTime;
 
+	/**
+	 * 試合の設定．
+	 */
+	private MatchContext context;
+
 	/**
 	 * クラスコンストラクタ．
 	 */
@@ -50,6 +56,7 @@ public class Result extends GameScene {
 		this.roundResults = new ArrayList<RoundResult>();
 		this.timeInfo = "0";
 		this.displayedTime = 0;
+		this.context = new MatchContext();
 	}
 
 	/**
@@ -61,11 +68,26 @@ public class Result extends GameScene {
 	 *            現在の時間情報
 	 */
 	public Result(ArrayList<RoundResult> roundResults, String timeInfo) {
+		this(roundResults, timeInfo, new MatchContext());
+	}
+
+	/**
+	 * 各ラウンドの結果を格納したリスト, 現在の時間情報及び試合の設定をセットし, リプレイシーンを初期化するクラスコンストラクタ．
+	 *
+	 * @param roundResults
+	 *            各ラウンドの結果を格納したリスト
+	 * @param timeInfo
+	 *            現在の時間情報
+	 * @param context
+	 *            試合の設定
+	 */
+	public Result(ArrayList<RoundResult> roundResults, String timeInfo, MatchContext context) {
 		super();
 
 		this.roundResults = new ArrayList<RoundResult>(roundResults);
 		this.timeInfo = timeInfo;
 		this.displayedTime = 0;
+		this.context = context;
 		roundResults.clear();
 	}
 
@@ -74,7 +96,7 @@ public class Result extends GameScene {
 		InputManager.getInstance().setSceneName(GameSceneName.RESULT);
 
 		// pointファイルの書き出し
-		LogWriter.getInstance().outputResult(this.roundResults, LogWriter.CSV, this.timeInfo);
+		LogWriter.getInstance().outputResult(this.roundResults, LogWriter.CSV, this.timeInfo, this.context);
 	}
 
 	@Override
@@ -144,20 +166,34 @@ public class Result extends GameScene {
 				&& (AIContainer.p2Index + 1) == AIContainer.allAINameList.size();
 	}
 
+	/**
+	 * 次の試合を行うゲームシーンを生成する．<br>
+	 * バッチモードでは, 前の試合でリソースを読み込み済みのため, Launcherを経由せずに直接Playシーンに遷移する．
+	 *
+	 * @return 次の試合を行うゲームシーン
+	 */
+	private GameScene createNextGame() {
+		if (this.context.isBatchMode()) {
+			return new Play();
+		} else {
+			return new Launcher(GameSceneName.PLAY);
+		}
+	}
+
 	/**
 	 * Resultシーンから次のシーンに遷移する際の処理を行う.
 	 */
 	private void endProcess() {
 		// -aや-nを引数にして起動 or Repeat Countを2以上にして起動した場合の処理
 		if (FlagSetting.automationFlag || FlagSetting.allCombinationFlag || FlagSetting.py4j) {
-			if (++this.displayedTime > 300) {
+			// バッチモードでは結果画面を表示せずに次のシーンに遷移する
+			if (this.context.isBatchMode() || ++this.displayedTime > 300) {
 				// まだ繰り返し回数が残っている場合
 				if (FlagSetting.automationFlag && LaunchSetting.repeatedCount + 1 < LaunchSetting.repeatNumber) {
 					LaunchSetting.repeatedCount++;
 
-					Launcher launcher = new Launcher(GameSceneName.PLAY);
 					this.setTransitionFlag(true);
-					this.setNextGameScene(launcher);
+					this.setNextGameScene(createNextGame());
 
 					// まだ全AIの総当り対戦が終わっていない場合
 				} else if (FlagSetting.allCombinationFlag) {
@@ -168,9 +204,8 @@ public class Result extends GameScene {
 
 					// 総当り対戦が終了したかどうか
 					if (!endRoundRobin()) {
-						Launcher launcher = new Launcher(GameSceneName.PLAY);
 						this.setTransitionFlag(true);
-						this.setNextGameScene(launcher);
+						this.setNextGameScene(createNextGame());
 					} else {
 						this.setGameEndFlag(true);
 					}
@@ -1,6 +1,6 @@
 package informationcontainer;
 
-import setting.FlagSetting;
+import setting.MatchContext;
 import struct.FrameData;
 
 /**
@@ -23,6 +23,11 @@ public class RoundResult {
 	 */
 	private int elapsedFrame;
 
+	/**
+	 * P1とP2のAIが期限までに処理を終えなかったフレームの数を格納する配列．
+	 */
+	private int[] missedFrames;
+
 	/**
 	 * クラスコンストラクタ．
 	 */
@@ -30,6 +35,7 @@ public class RoundResult {
 		this.currentRound = -1;
 		this.remainingHPs = new int[2];
 		this.elapsedFrame = -1;
+		this.missedFrames = new int[2];
 	}
 
 	/**
@@ -46,20 +52,35 @@ public class RoundResult {
 		this.currentRound = round;
 		this.remainingHPs = hp;
 		this.elapsedFrame = frame;
+		this.missedFrames = new int[2];
 	}
 
 	/**
-	 * 引数として渡されたフレームデータから結果に関する情報を取得し，RoundResultを更新するクラスコンストラクタ．
+	 * 引数として渡されたフレームデータから結果に関する情報を取得し，RoundResultを更新するクラスコンストラクタ．<br>
+	 * 試合の設定には, 現在の静的な設定のコピーを用いる．
 	 *
 	 * @param frameData
 	 *            フレーム内のゲームデータ
 	 */
 	public RoundResult(FrameData frameData) {
+		this(frameData, new MatchContext());
+	}
+
+	/**
+	 * 引数として渡されたフレームデータと試合の設定から結果に関する情報を取得し，RoundResultを更新するクラスコンストラクタ．
+	 *
+	 * @param frameData
+	 *            フレーム内のゲームデータ
+	 * @param context
+	 *            試合の設定
+	 */
+	public RoundResult(FrameData frameData, MatchContext context) {
 		this.currentRound = frameData.getRound();
 		this.elapsedFrame = frameData.getFramesNumber() + 1;
 		this.remainingHPs = new int[] { frameData.getCharacter(true).getHp(), frameData.getCharacter(false).getHp() };
+		this.missedFrames = new int[2];
 
-		if (FlagSetting.limitHpFlag) {
+		if (context.isLimitHp()) {
 			this.remainingHPs[0] = Math.max(this.remainingHPs[0], 0);
 			this.remainingHPs[1] = Math.max(this.remainingHPs[1], 0);
 		}
@@ -91,4 +112,23 @@ public class RoundResult {
 	public int getElapsedFrame() {
 		return this.elapsedFrame;
 	}
+
+	/**
+	 * P1とP2のAIが期限までに処理を終えなかったフレームの数を格納した配列を返す．
+	 *
+	 * @return P1とP2のAIが期限までに処理を終えなかったフレームの数を格納した配列
+	 */
+	public int[] getMissedFrames() {
+		return this.missedFrames.clone();
+	}
+
+	/**
+	 * P1とP2のAIが期限までに処理を終えなかったフレームの数をセットする．
+	 *
+	 * @param missedFrames
+	 *            P1とP2のAIが期限までに処理を終えなかったフレームの数を格納した配列
+	 */
+	public void setMissedFrames(int[] missedFrames) {
+		this.missedFrames = missedFrames.clone();
+	}
 }
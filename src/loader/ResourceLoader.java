@@ -243,15 +243,49 @@ public class ResourceLoader {
 	 *         読み込んだAIが無ければnullを返す．
 	 */
 	public AIController loadAI(String aiName) {
+		URLClassLoader cl = createAIClassLoader(aiName);
+		return cl == null ? null : loadAI(aiName, cl);
+	}
+
+	/**
+	 * 指定されたAI名のjarファイルからクラスを読み込むクラスローダを生成する．<br>
+	 * 生成したクラスローダは, そのAIを使い終わった後に呼び出し元で閉じることができる．
+	 *
+	 * @param aiName
+	 *            読み込みたいAIの名前
+	 *
+	 * @return 生成したクラスローダ<br>
+	 *         生成できなければnullを返す．
+	 */
+	public URLClassLoader createAIClassLoader(String aiName) {
 		File file = new File("./data/ai/" + aiName + ".jar");
 
 		try {
-			ClassLoader cl = URLClassLoader.newInstance(new URL[] { file.toURI().toURL() });
+			return URLClassLoader.newInstance(new URL[] { file.toURI().toURL() });
+		} catch (MalformedURLException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * 指定されたクラスローダからAI名のクラスを読み込み、AI情報を格納したコントローラを返す．
+	 *
+	 * @param aiName
+	 *            読み込みたいAIの名前
+	 * @param cl
+	 *            AIのjarファイルを読み込むクラスローダ
+	 *
+	 * @return 読み込んだAIの情報を格納したコントローラ<br>
+	 *         読み込んだAIが無ければnullを返す．
+	 */
+	public AIController loadAI(String aiName, ClassLoader cl) {
+		try {
 			Class<?> c = cl.loadClass(aiName);
 			AIInterface ai = (AIInterface) c.newInstance();
 
 			return new AIController(ai);
-		} catch (MalformedURLException | ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+		} catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
 			e.printStackTrace();
 			return null;
 		}
@@ -7,7 +7,10 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import aiinterface.AIController;
+import aiinterface.AIExecutor;
 import aiinterface.AIInterface;
+import aiinterface.AIStatistics;
+import aiinterface.FrameScheduler;
 import aiinterface.ThreadController;
 import enumerate.GameSceneName;
 import informationcontainer.AIContainer;
@@ -18,6 +21,7 @@ import loader.ResourceLoader;
 import py4j.Py4JException;
 import setting.FlagSetting;
 import setting.LaunchSetting;
+import setting.MatchContext;
 import struct.FrameData;
 import struct.GameData;
 import struct.Key;
@@ -43,6 +47,21 @@ public class InputManager<Data> {
 	 */
 	private AIController[] ais;
 
+	/**
+	 * 現在の試合のAIコントローラのスレッドを開始し，試合の終了時にそれらの終了を待つクラス．
+	 */
+	private AIExecutor executor;
+
+	/**
+	 * 現在の試合の設定．
+	 */
+	private MatchContext context;
+
+	/**
+	 * 試合の終了時にAIコントローラのスレッドの終了を待つ時間の上限(ミリ秒)．
+	 */
+	private final static long AI_TERMINATION_TIMEOUT = 1000;
+
 	/**
 	 * ゲームのシーン名．
 	 */
@@ -73,10 +92,6 @@ public class InputManager<Data> {
 	 */
 	private char[] deviceTypes;
 
-	/**
-	 * 1フレーム分のゲームの処理が終わったことを示すオブジェクト．
-	 */
-	private Object endFrame;
 
 	/**
 	 * InputManagerクラスのクラスコンストラクタ．<br>
@@ -93,8 +108,6 @@ public class InputManager<Data> {
 		for (int i = 0; i < this.deviceTypes.length; i++) {
 			this.deviceTypes[i] = DEVICE_TYPE_KEYBOARD;
 		}
-
-		this.endFrame = ThreadController.getInstance().getEndFrame();
 	}
 
 	/**
@@ -211,6 +224,9 @@ public class InputManager<Data> {
 				} else {
 					this.ais[i] = ResourceLoader.getInstance().loadAI(aiNames[i]);
 				}
+				if (this.ais[i] != null) {
+					this.ais[i].setAIName(aiNames[i]);
+				}
 			} else {
 				this.ais[i] = null;
 			}
@@ -220,22 +236,41 @@ public class InputManager<Data> {
 	/**
 	 * AIコントローラの動作を開始させる．<br>
 	 * 引数のGameDataクラスのインスタンスを用いてAIコントローラを初期化し，AIの動作を開始する．
+	 * {@link FlagSetting#virtualThreadFlag}が{@code true}の場合は，各AIコントローラを仮想スレッドで実行する．
 	 *
 	 * @param gameData
 	 *            GameDataクラスのインスタンス
 	 * @see GameData
 	 */
 	public void startAI(GameData gameData) throws Py4JException{
+		startAI(new MatchContext(), gameData);
+	}
+
+	/**
+	 * 引数で指定した試合の設定を用いて，AIコントローラの動作を開始させる．<br>
+	 * 引数のGameDataクラスのインスタンスを用いてAIコントローラを初期化し，AIの動作を開始する．
+	 * {@link FlagSetting#virtualThreadFlag}が{@code true}の場合は，各AIコントローラを仮想スレッドで実行する．
+	 *
+	 * @param context
+	 *            試合の設定
+	 * @param gameData
+	 *            GameDataクラスのインスタンス
+	 * @see GameData
+	 */
+	public void startAI(MatchContext context, GameData gameData) throws Py4JException{
+		this.context = context;
+		this.executor = new AIExecutor(FlagSetting.virtualThreadFlag);
 		for (int i = 0; i < this.deviceTypes.length; i++) {
 			if (this.ais[i] != null) {
-				this.ais[i].initialize(ThreadController.getInstance().getAIsObject(i == 0), gameData, i == 0);
-				this.ais[i].start();// start the thread
+				this.ais[i].initialize(context, ThreadController.getInstance().getScheduler(), gameData, i == 0);
+				this.executor.start(this.ais[i]);// start the thread
 			}
 		}
 	}
 
 	/**
-	 * AIの動作を停止させる．
+	 * AIの動作を停止させる．<br>
+	 * 各AIコントローラのスレッドが終了するまで，一定時間を上限として待つ．
 	 */
 	public void closeAI() {
 		this.buffer = new KeyData();
@@ -244,6 +279,10 @@ public class InputManager<Data> {
 			if (ai != null)
 				ai.gameEnd();
 		}
+		if (this.executor != null) {
+			this.executor.close(AI_TERMINATION_TIMEOUT);
+			this.executor = null;
+		}
 		this.deviceTypes = new char[DEFAULT_DEVICE_NUMBER];
 		this.ais = null;
 	}
@@ -265,7 +304,10 @@ public class InputManager<Data> {
 	}
 
 	/**
-	 * 引数のフレームデータ及びScreenDataを各AIコントローラにセットする．
+	 * 引数のフレームデータ及びScreenDataを各AIコントローラにセットし，新たなフレームの処理を開始させる．<br>
+	 * フレームデータは各AIにコピーを渡す．ただし{@link aiinterface.ImmutableFrameDataAI}を実装したAIには, 不変なインスタンスに変換したものをコピーせずに共有して渡す．<br>
+	 * Fastmodeの場合は，全てのAIがこのフレームの処理を終えるまで待つ．
+	 * ただし{@link MatchContext#getFrameDeadlineNanos()}が正の場合は期限までしか待たず，処理を終えなかったAIは最後に入力したキーを入力し続ける．
 	 *
 	 * @param frameData
 	 *            フレームデータ
@@ -276,9 +318,15 @@ public class InputManager<Data> {
 	 * @see ScreenData
 	 */
 	public void setFrameData(FrameData frameData, ScreenData screenData) {
+		FrameData sharedFrameData = null;
 		for (int i = 0; i < this.ais.length; i++) {
 			if (this.ais[i] != null) {
-				if (!frameData.getEmptyFlag()) {
+				if (this.ais[i].isImmutableFrameDataAccepted()) {
+					if (sharedFrameData == null) {
+						sharedFrameData = (frameData.getEmptyFlag() ? new FrameData() : frameData).toImmutable();
+					}
+					this.ais[i].setFrameData(sharedFrameData);
+				} else if (!frameData.getEmptyFlag()) {
 					this.ais[i].setFrameData(new FrameData(frameData));
 				} else {
 					this.ais[i].setFrameData(new FrameData());
@@ -287,17 +335,10 @@ public class InputManager<Data> {
 			}
 		}
 
-		synchronized (this.endFrame) {
-			try {
-				ThreadController.getInstance().resetAllAIsObj();
-				if (FlagSetting.fastModeFlag) {
-					this.endFrame.wait();
-				} else {
-
-				}
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
+		FrameScheduler scheduler = ThreadController.getInstance().getScheduler();
+		long frame = scheduler.startFrame();
+		if (this.context.isFastMode()) {
+			scheduler.awaitEnd(frame, this.context.getFrameDeadlineNanos());
 		}
 	}
 
@@ -317,14 +358,49 @@ public class InputManager<Data> {
 	}
 
 	/**
-	 * 各AIコントローラ内に保持されているフレームデータをクリアする.
+	 * 各AIコントローラ内に保持されているフレームデータをクリアする.<br>
+	 * 各AIの処理時間や期限までに処理を終えなかったフレームの数の統計も，このメソッドを呼び出した時点から数え直す．
 	 */
 	public void clear() {
 		for (AIController ai : this.ais) {
 			if (ai != null) {
 				ai.clear();
+				if (ai.getStatistics() != null) {
+					ai.getStatistics().reset();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 前回{@link #clear()}を呼び出してから，各AIが期限までに処理を終えなかったフレームの数を返す．
+	 *
+	 * @return P1とP2のAIが期限までに処理を終えなかったフレームの数を格納した配列. AIでない場合は0
+	 */
+	public int[] getMissedFrames() {
+		int[] missedFrames = new int[2];
+		for (int i = 0; i < this.ais.length && i < missedFrames.length; i++) {
+			if (this.ais[i] != null && this.ais[i].getStatistics() != null) {
+				missedFrames[i] = (int) this.ais[i].getStatistics().getMissedFrames();
+			}
+		}
+		return missedFrames;
+	}
+
+	/**
+	 * 各AIの処理時間などの統計を返す．<br>
+	 * 統計は前回{@link #clear()}を呼び出した時点からのものである．
+	 *
+	 * @return P1とP2のAIの統計を格納した配列. AIでない場合やAIを開始していない場合は{@code null}
+	 */
+	public AIStatistics[] getStatistics() {
+		AIStatistics[] statistics = new AIStatistics[2];
+		for (int i = 0; i < this.ais.length && i < statistics.length; i++) {
+			if (this.ais[i] != null) {
+				statistics[i] = this.ais[i].getStatistics();
 			}
 		}
+		return statistics;
 	}
 
 	/**
@@ -75,4 +75,19 @@ public class FlagSetting {
 	 */
 	public static boolean slowmotion = false;
 
+	/**
+	 * AIコントローラを仮想スレッドで実行するかどうかのフラグ．
+	 */
+	public static boolean virtualThreadFlag = false;
+
+	/**
+	 * ウィンドウやOpenGLのコンテキストを生成せずに試合を行うかどうかのフラグ．
+	 */
+	public static boolean headlessFlag = false;
+
+	/**
+	 * ラウンド開始前のインターバルや結果画面の表示などの, 対戦以外のフレームを省略するかどうかのフラグ．
+	 */
+	public static boolean batchFlag = false;
+
 }
@@ -40,6 +40,13 @@ public final class LaunchSetting {
 	 */
 	public static int py4jPort = 4242;
 
+	/**
+	 * Fastmodeにおいて, 対戦処理が各AIの1フレーム分の処理を待つ時間の上限(ナノ秒)．<br>
+	 * 期限までに処理を終えなかったAIは, 最後に入力したキーを入力し続けたものとして扱う．
+	 * 0以下の場合は期限を設けず, 全てのAIの処理が終わるまで待つ．
+	 */
+	public static long frameDeadlineNanos = 0;
+
 	/**
 	 * 試合を繰り返して行う回数．
 	 */
@@ -50,6 +57,17 @@ public final class LaunchSetting {
 	 */
 	public static int invertedPlayer = 0;
 
+	/**
+	 * ウィンドウを生成しない総当り戦において, 並列に試合を行うワーカースレッドの数．
+	 */
+	public static int tournamentWorkers = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * ウィンドウを生成しない総当り戦で用いるキャラクター名の配列．<br>
+	 * 各キャラクター同士の試合を行う．{@code null}の場合はP1,P2のキャラクター名を用いる．
+	 */
+	public static String[] tournamentCharacters = null;
+
 	/**
 	 * 背景の種類．
 	 */
@@ -0,0 +1,450 @@
+package setting;
+
+/**
+ * 1試合分の設定を保持するクラス．<br>
+ * {@link LaunchSetting}や{@link FlagSetting}などの静的な設定の代わりにこのクラスのインスタンスを参照することで,
+ * 設定の異なる複数の試合を1つのJVMで同時に行うことができる．<br>
+ * インスタンスの生成時に現在の静的な設定をコピーするため, 既存の起動オプションはそのまま反映される．
+ * 値を変更する場合は, 試合を開始する前に各setterを呼び出す．試合の開始後に値を変更してはならない．
+ */
+public class MatchContext {
+
+	/**
+	 * 試合の名前．
+	 */
+	private String name;
+
+	/**
+	 * P1,P2のキャラクター名．
+	 */
+	private String[] characterNames;
+
+	/**
+	 * P1,P2のAI名．
+	 */
+	private String[] aiNames;
+
+	/**
+	 * P1,P2の最大HP．
+	 */
+	private int[] maxHp;
+
+	/**
+	 * P1,P2の最大エネルギー．
+	 */
+	private int[] maxEnergy;
+
+	/**
+	 * P1,P2に最大HPを設定するかどうかのフラグ．
+	 */
+	private boolean limitHp;
+
+	/**
+	 * トレーニングモードを使用するかどうかのフラグ．
+	 */
+	private boolean trainingMode;
+
+	/**
+	 * 画像の読み込みやエフェクトの生成などの, 画面表示のための処理を行うかどうかのフラグ．
+	 */
+	private boolean enableWindow;
+
+	/**
+	 * 各AIの1フレーム分の処理を待ってから次のフレームに進むかどうかのフラグ．
+	 */
+	private boolean fastMode;
+
+	/**
+	 * ラウンド開始前のインターバルなどの, 対戦以外のフレームを省略するかどうかのフラグ．
+	 */
+	private boolean batchMode;
+
+	/**
+	 * 1試合のラウンド数．
+	 */
+	private int roundMax;
+
+	/**
+	 * 1ラウンドのフレーム数．
+	 */
+	private int roundFrameNumber;
+
+	/**
+	 * 対戦処理が各AIの1フレーム分の処理を待つ時間の上限(ナノ秒)．0以下の場合は期限を設けない．
+	 */
+	private long frameDeadlineNanos;
+
+	/**
+	 * 画素を反転させるプレイヤーの番号．
+	 */
+	private int invertedPlayer;
+
+	/**
+	 * 現在の静的な設定をコピーしてインスタンスを生成するクラスコンストラクタ．
+	 */
+	public MatchContext() {
+		this.name = null;
+		this.characterNames = LaunchSetting.characterNames.clone();
+		this.aiNames = LaunchSetting.aiNames.clone();
+		this.maxHp = LaunchSetting.maxHp.clone();
+		this.maxEnergy = LaunchSetting.maxEnergy.clone();
+		this.limitHp = FlagSetting.limitHpFlag;
+		this.trainingMode = FlagSetting.trainingModeFlag;
+		this.enableWindow = FlagSetting.enableWindow;
+		this.fastMode = FlagSetting.fastModeFlag;
+		this.batchMode = FlagSetting.batchFlag;
+		this.roundMax = GameSetting.ROUND_MAX;
+		this.roundFrameNumber = GameSetting.ROUND_FRAME_NUMBER;
+		this.frameDeadlineNanos = LaunchSetting.frameDeadlineNanos;
+		this.invertedPlayer = LaunchSetting.invertedPlayer;
+	}
+
+	/**
+	 * 引数として渡されたインスタンスの設定をコピーして, 新たなインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param context
+	 *            コピー元の設定
+	 */
+	public MatchContext(MatchContext context) {
+		this.name = context.name;
+		this.characterNames = context.characterNames.clone();
+		this.aiNames = context.aiNames.clone();
+		this.maxHp = context.maxHp.clone();
+		this.maxEnergy = context.maxEnergy.clone();
+		this.limitHp = context.limitHp;
+		this.trainingMode = context.trainingMode;
+		this.enableWindow = context.enableWindow;
+		this.fastMode = context.fastMode;
+		this.batchMode = context.batchMode;
+		this.roundMax = context.roundMax;
+		this.roundFrameNumber = context.roundFrameNumber;
+		this.frameDeadlineNanos = context.frameDeadlineNanos;
+		this.invertedPlayer = context.invertedPlayer;
+	}
+
+	/**
+	 * 試合の名前を返す．<br>
+	 * 名前はJMXに登録するAIの統計の名前などに用いられる．
+	 *
+	 * @return 試合の名前. 設定していない場合は{@code null}
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * 試合の名前をセットする．
+	 *
+	 * @param name
+	 *            試合の名前
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * 指定したプレイヤーのキャラクター名を返す．
+	 *
+	 * @param index
+	 *            プレイヤー番号(0:P1 1:P2)
+	 *
+	 * @return キャラクター名
+	 */
+	public String getCharacterName(int index) {
+		return this.characterNames[index];
+	}
+
+	/**
+	 * P1,P2のキャラクター名を格納した配列のコピーを返す．
+	 *
+	 * @return P1,P2のキャラクター名
+	 */
+	public String[] getCharacterNames() {
+		return this.characterNames.clone();
+	}
+
+	/**
+	 * P1,P2のキャラクター名をセットする．
+	 *
+	 * @param p1
+	 *            P1のキャラクター名
+	 * @param p2
+	 *            P2のキャラクター名
+	 */
+	public void setCharacterNames(String p1, String p2) {
+		this.characterNames = new String[] { p1, p2 };
+	}
+
+	/**
+	 * 指定したプレイヤーのAI名を返す．
+	 *
+	 * @param index
+	 *            プレイヤー番号(0:P1 1:P2)
+	 *
+	 * @return AI名
+	 */
+	public String getAIName(int index) {
+		return this.aiNames[index];
+	}
+
+	/**
+	 * P1,P2のAI名を格納した配列のコピーを返す．
+	 *
+	 * @return P1,P2のAI名
+	 */
+	public String[] getAINames() {
+		return this.aiNames.clone();
+	}
+
+	/**
+	 * P1,P2のAI名をセットする．
+	 *
+	 * @param p1
+	 *            P1のAI名
+	 * @param p2
+	 *            P2のAI名
+	 */
+	public void setAINames(String p1, String p2) {
+		this.aiNames = new String[] { p1, p2 };
+	}
+
+	/**
+	 * 指定したプレイヤーの最大HPを返す．
+	 *
+	 * @param index
+	 *            プレイヤー番号(0:P1 1:P2)
+	 *
+	 * @return 最大HP
+	 */
+	public int getMaxHp(int index) {
+		return this.maxHp[index];
+	}
+
+	/**
+	 * P1,P2の最大HPを格納した配列のコピーを返す．
+	 *
+	 * @return P1,P2の最大HP
+	 */
+	public int[] getMaxHps() {
+		return this.maxHp.clone();
+	}
+
+	/**
+	 * P1,P2の最大HPをセットする．
+	 *
+	 * @param p1
+	 *            P1の最大HP
+	 * @param p2
+	 *            P2の最大HP
+	 */
+	public void setMaxHp(int p1, int p2) {
+		this.maxHp = new int[] { p1, p2 };
+	}
+
+	/**
+	 * 指定したプレイヤーの最大エネルギーを返す．
+	 *
+	 * @param index
+	 *            プレイヤー番号(0:P1 1:P2)
+	 *
+	 * @return 最大エネルギー
+	 */
+	public int getMaxEnergy(int index) {
+		return this.maxEnergy[index];
+	}
+
+	/**
+	 * P1,P2の最大エネルギーを格納した配列のコピーを返す．
+	 *
+	 * @return P1,P2の最大エネルギー
+	 */
+	public int[] getMaxEnergies() {
+		return this.maxEnergy.clone();
+	}
+
+	/**
+	 * P1,P2の最大エネルギーをセットする．
+	 *
+	 * @param p1
+	 *            P1の最大エネルギー
+	 * @param p2
+	 *            P2の最大エネルギー
+	 */
+	public void setMaxEnergy(int p1, int p2) {
+		this.maxEnergy = new int[] { p1, p2 };
+	}
+
+	/**
+	 * P1,P2に最大HPを設定するかどうかを返す．
+	 *
+	 * @return {@code true} 最大HPを設定する，{@code false} otherwise
+	 */
+	public boolean isLimitHp() {
+		return this.limitHp;
+	}
+
+	/**
+	 * P1,P2に最大HPを設定するかどうかをセットする．
+	 *
+	 * @param limitHp
+	 *            P1,P2に最大HPを設定するかどうかのフラグ
+	 */
+	public void setLimitHp(boolean limitHp) {
+		this.limitHp = limitHp;
+	}
+
+	/**
+	 * トレーニングモードを使用するかどうかを返す．
+	 *
+	 * @return {@code true} トレーニングモードを使用する，{@code false} otherwise
+	 */
+	public boolean isTrainingMode() {
+		return this.trainingMode;
+	}
+
+	/**
+	 * トレーニングモードを使用するかどうかをセットする．
+	 *
+	 * @param trainingMode
+	 *            トレーニングモードを使用するかどうかのフラグ
+	 */
+	public void setTrainingMode(boolean trainingMode) {
+		this.trainingMode = trainingMode;
+	}
+
+	/**
+	 * 画像の読み込みやエフェクトの生成などの, 画面表示のための処理を行うかどうかを返す．
+	 *
+	 * @return {@code true} 画面表示のための処理を行う，{@code false} otherwise
+	 */
+	public boolean isEnableWindow() {
+		return this.enableWindow;
+	}
+
+	/**
+	 * 画像の読み込みやエフェクトの生成などの, 画面表示のための処理を行うかどうかをセットする．<br>
+	 * ウィンドウを生成せずに試合を行う場合は{@code false}にする．
+	 *
+	 * @param enableWindow
+	 *            画面表示のための処理を行うかどうかのフラグ
+	 */
+	public void setEnableWindow(boolean enableWindow) {
+		this.enableWindow = enableWindow;
+	}
+
+	/**
+	 * 各AIの1フレーム分の処理を待ってから次のフレームに進むかどうかを返す．
+	 *
+	 * @return {@code true} 各AIの処理を待つ，{@code false} otherwise
+	 */
+	public boolean isFastMode() {
+		return this.fastMode;
+	}
+
+	/**
+	 * 各AIの1フレーム分の処理を待ってから次のフレームに進むかどうかをセットする．
+	 *
+	 * @param fastMode
+	 *            各AIの処理を待つかどうかのフラグ
+	 */
+	public void setFastMode(boolean fastMode) {
+		this.fastMode = fastMode;
+	}
+
+	/**
+	 * ラウンド開始前のインターバルや結果画面の表示などの, 対戦以外のフレームを省略するかどうかを返す．
+	 *
+	 * @return {@code true} 対戦以外のフレームを省略する，{@code false} otherwise
+	 */
+	public boolean isBatchMode() {
+		return this.batchMode;
+	}
+
+	/**
+	 * ラウンド開始前のインターバルや結果画面の表示などの, 対戦以外のフレームを省略するかどうかをセットする．<br>
+	 * 省略した場合, AIはラウンド開始前のダミーフレームを受け取らず, ラウンドの最初のフレームから対戦が始まる．
+	 *
+	 * @param batchMode
+	 *            対戦以外のフレームを省略するかどうかのフラグ
+	 */
+	public void setBatchMode(boolean batchMode) {
+		this.batchMode = batchMode;
+	}
+
+	/**
+	 * 1試合のラウンド数を返す．
+	 *
+	 * @return 1試合のラウンド数
+	 */
+	public int getRoundMax() {
+		return this.roundMax;
+	}
+
+	/**
+	 * 1試合のラウンド数をセットする．
+	 *
+	 * @param roundMax
+	 *            1試合のラウンド数
+	 */
+	public void setRoundMax(int roundMax) {
+		this.roundMax = roundMax;
+	}
+
+	/**
+	 * 1ラウンドのフレーム数を返す．
+	 *
+	 * @return 1ラウンドのフレーム数
+	 */
+	public int getRoundFrameNumber() {
+		return this.roundFrameNumber;
+	}
+
+	/**
+	 * 1ラウンドのフレーム数をセットする．
+	 *
+	 * @param roundFrameNumber
+	 *            1ラウンドのフレーム数
+	 */
+	public void setRoundFrameNumber(int roundFrameNumber) {
+		this.roundFrameNumber = roundFrameNumber;
+	}
+
+	/**
+	 * 対戦処理が各AIの1フレーム分の処理を待つ時間の上限を返す．
+	 *
+	 * @return 待つ時間の上限(ナノ秒). 0以下の場合は期限を設けない
+	 */
+	public long getFrameDeadlineNanos() {
+		return this.frameDeadlineNanos;
+	}
+
+	/**
+	 * 対戦処理が各AIの1フレーム分の処理を待つ時間の上限をセットする．
+	 *
+	 * @param frameDeadlineNanos
+	 *            待つ時間の上限(ナノ秒). 0以下の場合は期限を設けない
+	 */
+	public void setFrameDeadlineNanos(long frameDeadlineNanos) {
+		this.frameDeadlineNanos = frameDeadlineNanos;
+	}
+
+	/**
+	 * 画素を反転させるプレイヤーの番号を返す．
+	 *
+	 * @return 画素を反転させるプレイヤーの番号(1:P1 2:P2). 反転させない場合は0
+	 */
+	public int getInvertedPlayer() {
+		return this.invertedPlayer;
+	}
+
+	/**
+	 * 画素を反転させるプレイヤーの番号をセットする．
+	 *
+	 * @param invertedPlayer
+	 *            画素を反転させるプレイヤーの番号(1:P1 2:P2). 反転させない場合は0
+	 */
+	public void setInvertedPlayer(int invertedPlayer) {
+		this.invertedPlayer = invertedPlayer;
+	}
+
+}
@@ -5,6 +5,7 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 import aiinterface.CommandCenter;
+import command.CommandRecognizer;
 import command.CommandTable;
 import enumerate.Action;
 import fighting.Attack;
@@ -12,6 +13,8 @@ import fighting.Character;
 import fighting.Fighting;
 import fighting.LoopEffect;
 import fighting.Motion;
+import fighting.StateArena;
+import setting.MatchContext;
 import setting.GameSetting;
 import struct.AttackData;
 import struct.CharacterData;
@@ -23,6 +26,11 @@ import struct.Key;
  */
 public class SimFighting extends Fighting {
 
+	/**
+	 * 状態を読み出す際に用いる, 全てのActionを格納した配列．
+	 */
+	private static final Action[] ACTIONS = Action.values();
+
 	/**
 	 * キー入力．
 	 */
@@ -39,20 +47,90 @@ public class SimFighting extends Fighting {
 	private CommandCenter[] commandCenter;
 
 	/**
-	 * クラスコンストラクタ．
+	 * 入力されたアクションをコピーして保持するリスト．<br>
+	 * インスタンスを使い回す際に, 毎回リストを生成しないために用いる．
+	 */
+	private ArrayList<Deque<Action>> actionBuffers;
+
+	/**
+	 * クラスコンストラクタ．<br>
+	 * 試合の設定には, 現在の静的な設定のコピーを用いる．
 	 */
 	public SimFighting() {
-		this.playerCharacters = new Character[2];
-		this.projectileDeque = new LinkedList<LoopEffect>();
-		this.commandTable = new CommandTable();
+		this(new MatchContext());
+	}
+
+	/**
+	 * 引数で指定した試合の設定を用いてシミュレーションを行うインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param context
+	 *            シミュレーションに用いる試合の設定
+	 */
+	public SimFighting(MatchContext context) {
+		this(context, new CommandTable());
+	}
+
+	/**
+	 * 引数で指定した試合の設定とコマンドテーブルを用いてシミュレーションを行うインスタンスを生成するクラスコンストラクタ．
+	 *
+	 * @param context
+	 *            シミュレーションに用いる試合の設定
+	 * @param commandTable
+	 *            キー入力とそれに対応するアクションを管理するコマンドテーブル. コピーせずに共有される
+	 */
+	private SimFighting(MatchContext context, CommandTable commandTable) {
+		super(context, commandTable);
 
 		this.inputKeys = new ArrayList<Deque<Key>>(2);
 		this.inputActions = new ArrayList<Deque<Action>>(2);
 		this.commandCenter = new CommandCenter[2];
+		this.actionBuffers = new ArrayList<Deque<Action>>(2);
+		for (int i = 0; i < 2; i++) {
+			this.actionBuffers.add(new LinkedList<Action>());
+		}
 	}
 
 	/**
-	 * 初期化処理を行う．
+	 * 引数として渡されたインスタンスのシミュレーションの状態をコピーし，新たなインスタンスを生成するコピーコンストラクタ．<br>
+	 * キャラクター, 攻撃, 波動拳, 入力キー及び未実行のアクションがコピーされるため,
+	 * コピー元とコピー先はそれぞれ独立してシミュレーションを進めることができる．<br>
+	 * モーション, 試合の設定及びコマンドテーブルは変更されないため, コピー元と共有される．
+	 *
+	 * @param simFighting
+	 *            コピー元のSimFightingクラスのインスタンス
+	 */
+	public SimFighting(SimFighting simFighting) {
+		this(simFighting.context, simFighting.commandTable);
+
+		for (int i = 0; i < 2; i++) {
+			Character character = simFighting.playerCharacters[i];
+			this.playerCharacters[i] = new Character(character);
+			this.playerCharacters[i].setAttack(character.getAttack() == null ? null : new Attack(character.getAttack()));
+			this.commandCenter[i] = new CommandCenter(simFighting.commandCenter[i]);
+
+			this.inputKeys.add(new LinkedList<Key>(simFighting.inputKeys.get(i)));
+			this.recognizers[i] = new CommandRecognizer(simFighting.recognizers[i]);
+
+			Deque<Action> act = simFighting.inputActions.get(i);
+			if (act != null) {
+				Deque<Action> buffer = this.actionBuffers.get(i);
+				buffer.addAll(act);
+				this.inputActions.add(buffer);
+			} else {
+				this.inputActions.add(null);
+			}
+		}
+
+		for (int i = 0; i < simFighting.projectiles.size(); i++) {
+			LoopEffect projectile = simFighting.projectiles.get(i);
+			this.projectiles.add(new LoopEffect(new Attack(projectile.getAttack()), null, projectile.isUltimate()));
+		}
+	}
+
+	/**
+	 * 初期化処理を行う．<br>
+	 * 2回目以降の呼び出しでは, 前回生成したキャラクターやCommandCenterのインスタンスを再利用し,
+	 * その中身のみを上書きする．
 	 *
 	 * @param motionList
 	 *            P1とP2のモーションを格納したリスト
@@ -66,20 +144,110 @@ public class SimFighting extends Fighting {
 	 */
 	public void initialize(ArrayList<ArrayList<Motion>> motionList, ArrayList<Deque<Action>> actionList,
 			FrameData frameData, boolean playerNumber) {
+		initialize(motionList, actionList.get(0), actionList.get(1), frameData);
+	}
 
+	/**
+	 * 初期化処理を行う．<br>
+	 * 2回目以降の呼び出しでは, 前回生成したキャラクターやCommandCenterのインスタンスを再利用し,
+	 * その中身のみを上書きする．<br>
+	 * 引数のアクションのリストはコピーされるため, 呼び出し元のリストは変更されない．
+	 *
+	 * @param motionList
+	 *            P1とP2のモーションを格納したリスト
+	 * @param p1Act
+	 *            P1のアクションを格納したリスト. {@code null}の場合はアクションを実行しない
+	 * @param p2Act
+	 *            P2のアクションを格納したリスト. {@code null}の場合はアクションを実行しない
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 */
+	public void initialize(ArrayList<ArrayList<Motion>> motionList, Deque<Action> p1Act, Deque<Action> p2Act,
+			FrameData frameData) {
+		Motion[][] motions = new Motion[2][];
 		for (int i = 0; i < 2; i++) {
-			this.playerCharacters[i] = new Character(frameData.getCharacter(i == 0), motionList.get(i));
+			motions[i] = motionList.get(i).toArray(new Motion[motionList.get(i).size()]);
+		}
+		initialize(motions, p1Act, p2Act, frameData);
+	}
 
-			this.inputKeys.add(this.playerCharacters[i].getProcessedCommand());
-			this.inputActions.add(actionList.get(i));
+	/**
+	 * 初期化処理を行う．<br>
+	 * 2回目以降の呼び出しでは, 前回生成したキャラクターやCommandCenterのインスタンスを再利用し,
+	 * その中身のみを上書きする．<br>
+	 * モーションの配列はコピーせずにキャラクター間で共有し, 引数のアクションのリストはコピーされるため, 呼び出し元のリストは変更されない．
+	 *
+	 * @param motions
+	 *            P1とP2のモーションを, アクションの序数をインデックスとして格納した配列
+	 * @param p1Act
+	 *            P1のアクションを格納したリスト. {@code null}の場合はアクションを実行しない
+	 * @param p2Act
+	 *            P2のアクションを格納したリスト. {@code null}の場合はアクションを実行しない
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 */
+	public void initialize(Motion[][] motions, Deque<Action> p1Act, Deque<Action> p2Act, FrameData frameData) {
+		this.inputKeys.clear();
+		this.inputActions.clear();
+
+		for (int i = 0; i < 2; i++) {
+			CharacterData characterData = frameData.getCharacter(i == 0);
+			if (this.playerCharacters[i] == null) {
+				this.playerCharacters[i] = new Character(characterData, motions[i], this.context);
+				this.commandCenter[i] = new CommandCenter();
+			} else {
+				this.playerCharacters[i].reset(characterData, motions[i]);
+				this.commandCenter[i].skillCancel();
+			}
+
+			Deque<Key> keyList = this.playerCharacters[i].getProcessedCommand();
+			this.inputKeys.add(keyList);
+			this.recognizers[i].clear();
+			for (Key key : keyList) {
+				this.recognizers[i].addLast(key);
+			}
+
+			Deque<Action> act = i == 0 ? p1Act : p2Act;
+			if (act != null) {
+				Deque<Action> buffer = this.actionBuffers.get(i);
+				buffer.clear();
+				buffer.addAll(act);
+				this.inputActions.add(buffer);
+			} else {
+				this.inputActions.add(null);
+			}
 
-			this.commandCenter[i] = new CommandCenter();
 			this.commandCenter[i].setFrameData(frameData, i == 0);
 		}
 
-		Deque<AttackData> projectiles = frameData.getProjectiles();
-		for (AttackData temp : projectiles) {
-			this.projectileDeque.addLast(new LoopEffect(new Attack(temp), null));
+		this.projectiles.clear();
+		for (AttackData temp : frameData.getProjectiles()) {
+			this.projectiles.add(new LoopEffect(new Attack(temp), null));
+		}
+	}
+
+	/**
+	 * 引数のアクションを, 各プレイヤーの未実行のアクションのリストの末尾に追加する．<br>
+	 * {@code null}を渡したプレイヤーのリストは変更されない．
+	 *
+	 * @param p1Act
+	 *            P1に追加するアクション
+	 * @param p2Act
+	 *            P2に追加するアクション
+	 */
+	public void addActions(Action p1Act, Action p2Act) {
+		for (int i = 0; i < 2; i++) {
+			Action act = i == 0 ? p1Act : p2Act;
+			if (act == null) {
+				continue;
+			}
+
+			if (this.inputActions.get(i) == null) {
+				Deque<Action> buffer = this.actionBuffers.get(i);
+				buffer.clear();
+				this.inputActions.set(i, buffer);
+			}
+			this.inputActions.get(i).addLast(act);
 		}
 	}
 
@@ -116,17 +284,24 @@ public class SimFighting extends Fighting {
 			Deque<Key> keyList = this.inputKeys.get(i);
 			Deque<Action> actList = this.inputActions.get(i);
 
+			CommandRecognizer recognizer = this.recognizers[i];
+
 			if (keyList.size() > GameSetting.INPUT_LIMIT-1) {
 				keyList.removeFirst();
+				recognizer.removeFirst();
 			}
 
 			if (!this.playerCharacters[i].getInputCommand().isEmpty()) {
 				Deque<Key> temp = this.playerCharacters[i].getProcessedCommand();
-				keyList.addLast(temp.removeFirst());
+				Key processedKey = temp.removeFirst();
+				keyList.addLast(processedKey);
+				recognizer.addLast(processedKey);
 				this.playerCharacters[i].setInputCommand(temp);
-				keyList.add(new Key(this.playerCharacters[i].getInputCommand().getFirst()));
+				Key inputKey = new Key(this.playerCharacters[i].getInputCommand().getFirst());
+				keyList.add(inputKey);
+				recognizer.addLast(inputKey);
 
-				Action act = this.commandTable.interpretationCommandFromKey(this.playerCharacters[i], keyList);
+				Action act = recognizer.recognize(this.commandTable, this.playerCharacters[i]);
 				if (ableAction(this.playerCharacters[i], act)) {
 					this.playerCharacters[i].runAction(act, true);
 				}
@@ -135,15 +310,17 @@ public class SimFighting extends Fighting {
 				if (!actList.isEmpty()) {
 
 					if (ableAction(this.playerCharacters[i], actList.getFirst()) && !commandCenter[i].getSkillFlag()) {
-						this.commandCenter[i].commandCall(actList.removeFirst().name());
+						this.commandCenter[i].commandCall(actList.removeFirst());
 
 					} else if (this.playerCharacters[i].isControl() && !this.commandCenter[i].getSkillFlag()) {
 						actList.removeFirst();
 					}
 				}
 
-				this.inputKeys.get(i).add(this.commandCenter[i].getSkillKey());
-				Action act = this.commandTable.interpretationCommandFromKey(this.playerCharacters[i], keyList);
+				Key skillKey = this.commandCenter[i].getSkillKey();
+				keyList.add(skillKey);
+				recognizer.addLast(skillKey);
+				Action act = recognizer.recognize(this.commandTable, this.playerCharacters[i]);
 				this.playerCharacters[i].setInputCommand(this.commandCenter[i].getSkillKeys());
 
 				if (ableAction(this.playerCharacters[i], act)) {
@@ -158,9 +335,9 @@ public class SimFighting extends Fighting {
 		boolean[] isHit = { false, false };
 
 		// 波動拳の処理
-		int dequeSize = this.projectileDeque.size();
-		for (int i = 0; i < dequeSize; i++) {
-			LoopEffect projectile = this.projectileDeque.removeFirst();
+		int remaining = 0;
+		for (int i = 0; i < this.projectiles.size(); i++) {
+			LoopEffect projectile = this.projectiles.get(i);
 			int opponentIndex = projectile.getAttack().isPlayerNumber() ? 1 : 0;
 
 			if (detectionHit(this.playerCharacters[opponentIndex], projectile.getAttack())) {
@@ -169,9 +346,10 @@ public class SimFighting extends Fighting {
 						currentFrame);
 
 			} else {
-				this.projectileDeque.addLast(projectile);
+				this.projectiles.set(remaining++, projectile);
 			}
 		}
+		this.projectiles.truncate(remaining);
 
 		// 通常攻撃の処理
 		for (int i = 0; i < 2; i++) {
@@ -181,7 +359,6 @@ public class SimFighting extends Fighting {
 			if (detectionHit(this.playerCharacters[opponentIndex], attack)) {
 				isHit[i] = true;
 				// HP等のパラメータの更新
-				// Fightingと共通してcharacterを用いているため、音が鳴る処理が実行されてしまう
 				this.playerCharacters[opponentIndex].hitAttack(this.playerCharacters[i], attack, currentFrame);
 			}
 		}
@@ -201,14 +378,14 @@ public class SimFighting extends Fighting {
 	@Override
 	protected void updateAttackParameter() {
 		// Updates the parameters of all of projectiles appearing in the stage
-		int dequeSize = this.projectileDeque.size();
-		for (int i = 0; i < dequeSize; i++) {
-
-			LoopEffect projectile = this.projectileDeque.removeFirst();
+		int remaining = 0;
+		for (int i = 0; i < this.projectiles.size(); i++) {
+			LoopEffect projectile = this.projectiles.get(i);
 			if (projectile.getAttack().updateProjectileAttack()) {
-				this.projectileDeque.addLast(projectile);
+				this.projectiles.set(remaining++, projectile);
 			}
 		}
+		this.projectiles.truncate(remaining);
 
 		// Updates the parameters of all of attacks excepted projectile
 		// conducted by both characters
@@ -231,7 +408,8 @@ public class SimFighting extends Fighting {
 			if (this.playerCharacters[i].getAttack() != null) {
 				if (this.playerCharacters[i].getAttack().isProjectile()) {
 
-					this.projectileDeque.addLast(new LoopEffect(this.playerCharacters[i].getAttack(), null));
+					boolean ultimate = this.playerCharacters[i].getAction() == Action.STAND_D_DF_FC;
+					this.projectiles.add(createProjectile(this.playerCharacters[i].getAttack(), ultimate));
 					this.playerCharacters[i].destroyAttackInstance();
 				}
 			}
@@ -250,20 +428,79 @@ public class SimFighting extends Fighting {
 
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * シミュレーション開始時に渡されたキー入力とアクションのうち未処理のもの, 及びCommandCenterの未実行のキーも書き込む．
+	 */
+	@Override
+	protected void encode(StateArena arena) {
+		super.encode(arena);
+
+		for (int i = 0; i < 2; i++) {
+			arena.putKeys(this.inputKeys.get(i));
+
+			Deque<Action> actList = this.inputActions.get(i);
+			arena.putInt(actList == null ? -1 : actList.size());
+			if (actList != null) {
+				for (Action act : actList) {
+					arena.putInt(act.ordinal());
+				}
+			}
+
+			arena.putKeys(this.commandCenter[i].getSkillKeys());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * {@link #initialize}を呼び出した後のインスタンスに対してのみ呼び出すことができる．
+	 */
+	@Override
+	protected void decode(StateArena arena) {
+		super.decode(arena);
+
+		for (int i = 0; i < 2; i++) {
+			Deque<Key> keyList = new LinkedList<Key>();
+			arena.getKeys(keyList);
+			this.inputKeys.set(i, keyList);
+			this.recognizers[i].clear();
+			for (Key key : keyList) {
+				this.recognizers[i].addLast(key);
+			}
+
+			int actSize = arena.getInt();
+			if (actSize < 0) {
+				this.inputActions.set(i, null);
+			} else {
+				Deque<Action> buffer = this.actionBuffers.get(i);
+				buffer.clear();
+				for (int j = 0; j < actSize; j++) {
+					buffer.addLast(ACTIONS[arena.getInt()]);
+				}
+				this.inputActions.set(i, buffer);
+			}
+
+			Deque<Key> skillKeys = new LinkedList<Key>();
+			arena.getKeys(skillKeys);
+			this.commandCenter[i].setSkillKeys(skillKeys);
+		}
+	}
+
 	@Override
 	public FrameData createFrameData(int nowFrame, int round) {
 		CharacterData[] characterData = new CharacterData[2];
 		for (int i = 0; i < 2; i++) {
 			characterData[i] = new CharacterData(this.playerCharacters[i]);
-			characterData[i].setProcessedCommand(this.inputKeys.get(i));
+			// 使い回されるリストを参照させないよう, コピーをセットする
+			characterData[i].setProcessedCommand(new LinkedList<Key>(this.inputKeys.get(i)));
 		}
 
 		Deque<AttackData> newAttackDeque = new LinkedList<AttackData>();
-		for (LoopEffect loopEffect : this.projectileDeque) {
-			newAttackDeque.addLast(new AttackData(loopEffect.getAttack()));
+		for (int i = 0; i < this.projectiles.size(); i++) {
+			newAttackDeque.addLast(new AttackData(this.projectiles.get(i).getAttack()));
 		}
 
-		return new FrameData(characterData, nowFrame, round, newAttackDeque);
+		return new FrameData(characterData, nowFrame, round, newAttackDeque, this.context);
 	}
 
 }
@@ -0,0 +1,302 @@
+package simulator;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import enumerate.Action;
+import struct.FrameData;
+
+/**
+ * The bounded cache of simulation results used by {@link Simulator}.<br>
+ * A result is stored with the state hash, frame number and round of the frame
+ * data at the start of simulation, the actions of both players and the number
+ * of simulated frames. When the cache is full, the least recently used result
+ * is evicted.<br>
+ * An instance of this class is thread-safe, and can be shared by several
+ * simulators as long as they simulate the same pair of characters.
+ *
+ * @see Simulator#setCache(SimulationCache)
+ * @see FrameData#getStateHash()
+ */
+public class SimulationCache {
+
+	/**
+	 * The maximum number of results stored in this cache.
+	 */
+	private final int capacity;
+
+	/**
+	 * The map storing the results in the order of access.
+	 */
+	private final LinkedHashMap<CacheKey, FrameData> results;
+
+	/**
+	 * The number of lookups which found a stored result.
+	 */
+	private long hitCount;
+
+	/**
+	 * The number of lookups which found no stored result.
+	 */
+	private long missCount;
+
+	/**
+	 * The number of results evicted because the cache was full.
+	 */
+	private long evictionCount;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param capacity
+	 *            the maximum number of results stored in this cache
+	 */
+	public SimulationCache(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+		}
+
+		this.capacity = capacity;
+		this.results = new LinkedHashMap<CacheKey, FrameData>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CacheKey, FrameData> eldest) {
+				if (size() > SimulationCache.this.capacity) {
+					SimulationCache.this.evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the stored result of the simulation, or {@code null} if it has
+	 * not been stored.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2
+	 * @param myAct
+	 *            actions performed by the player
+	 * @param oppAct
+	 *            actions performed by the opponent
+	 * @param simulationLimit
+	 *            the number of simulated frames
+	 *
+	 * @return the frame data after the simulation, or {@code null}
+	 */
+	public synchronized FrameData get(FrameData frameData, boolean playerNumber, Deque<Action> myAct,
+			Deque<Action> oppAct, int simulationLimit) {
+		FrameData result = this.results
+				.get(new CacheKey(frameData, playerNumber, myAct, oppAct, simulationLimit));
+		if (result != null) {
+			this.hitCount++;
+		} else {
+			this.missCount++;
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the result of the simulation.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2
+	 * @param myAct
+	 *            actions performed by the player
+	 * @param oppAct
+	 *            actions performed by the opponent
+	 * @param simulationLimit
+	 *            the number of simulated frames
+	 * @param result
+	 *            the frame data after the simulation
+	 */
+	public synchronized void put(FrameData frameData, boolean playerNumber, Deque<Action> myAct, Deque<Action> oppAct,
+			int simulationLimit, FrameData result) {
+		this.results.put(new CacheKey(frameData, playerNumber, myAct, oppAct, simulationLimit), result);
+	}
+
+	/**
+	 * Removes all the stored results. The statistics are not reset.
+	 */
+	public synchronized void clear() {
+		this.results.clear();
+	}
+
+	/**
+	 * Returns the maximum number of results stored in this cache.
+	 *
+	 * @return the maximum number of results stored in this cache
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the number of results currently stored in this cache.
+	 *
+	 * @return the number of results currently stored in this cache
+	 */
+	public synchronized int size() {
+		return this.results.size();
+	}
+
+	/**
+	 * Returns the number of lookups which found a stored result.
+	 *
+	 * @return the number of cache hits
+	 */
+	public synchronized long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Returns the number of lookups which found no stored result.
+	 *
+	 * @return the number of cache misses
+	 */
+	public synchronized long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Returns the number of results evicted because the cache was full.
+	 *
+	 * @return the number of evictions
+	 */
+	public synchronized long getEvictionCount() {
+		return this.evictionCount;
+	}
+
+	/**
+	 * Returns the ratio of the lookups which found a stored result.
+	 *
+	 * @return the hit rate between 0 and 1, or 0 if there has been no lookup
+	 */
+	public synchronized double getHitRate() {
+		long total = this.hitCount + this.missCount;
+		return total == 0 ? 0 : (double) this.hitCount / total;
+	}
+
+	/**
+	 * The key identifying a simulation.
+	 */
+	private static final class CacheKey {
+
+		/**
+		 * The state hash of the frame data at the start of simulation.
+		 */
+		private final long stateHash;
+
+		/**
+		 * The frame number at the start of simulation.
+		 */
+		private final int framesNumber;
+
+		/**
+		 * The round number.
+		 */
+		private final int round;
+
+		/**
+		 * The boolean value which identifies P1/P2.
+		 */
+		private final boolean playerNumber;
+
+		/**
+		 * The actions performed by the player.
+		 */
+		private final Action[] myAct;
+
+		/**
+		 * The actions performed by the opponent.
+		 */
+		private final Action[] oppAct;
+
+		/**
+		 * The number of simulated frames.
+		 */
+		private final int simulationLimit;
+
+		/**
+		 * The cached hash code of this key.
+		 */
+		private final int hashCode;
+
+		/**
+		 * The class constructor.
+		 *
+		 * @param frameData
+		 *            frame data at the start of simulation
+		 * @param playerNumber
+		 *            boolean value which identifies P1/P2
+		 * @param myAct
+		 *            actions performed by the player
+		 * @param oppAct
+		 *            actions performed by the opponent
+		 * @param simulationLimit
+		 *            the number of simulated frames
+		 */
+		CacheKey(FrameData frameData, boolean playerNumber, Deque<Action> myAct, Deque<Action> oppAct,
+				int simulationLimit) {
+			this.stateHash = frameData.getStateHash();
+			this.framesNumber = frameData.getFramesNumber();
+			this.round = frameData.getRound();
+			this.playerNumber = playerNumber;
+			this.myAct = toArray(myAct);
+			this.oppAct = toArray(oppAct);
+			this.simulationLimit = simulationLimit;
+
+			int result = Long.hashCode(this.stateHash);
+			result = 31 * result + this.framesNumber;
+			result = 31 * result + this.round;
+			result = 31 * result + (this.playerNumber ? 1 : 0);
+			result = 31 * result + Arrays.hashCode(this.myAct);
+			result = 31 * result + Arrays.hashCode(this.oppAct);
+			result = 31 * result + this.simulationLimit;
+			this.hashCode = result;
+		}
+
+		/**
+		 * Copies the actions into an array.
+		 *
+		 * @param act
+		 *            the actions, or {@code null}
+		 *
+		 * @return the array of the actions, or {@code null} if the argument is
+		 *         {@code null}
+		 */
+		private static Action[] toArray(Deque<Action> act) {
+			return act == null ? null : act.toArray(new Action[act.size()]);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CacheKey)) {
+				return false;
+			}
+
+			CacheKey other = (CacheKey) obj;
+			return this.stateHash == other.stateHash && this.framesNumber == other.framesNumber
+					&& this.round == other.round && this.playerNumber == other.playerNumber
+					&& this.simulationLimit == other.simulationLimit && Arrays.equals(this.myAct, other.myAct)
+					&& Arrays.equals(this.oppAct, other.oppAct);
+		}
+	}
+
+}
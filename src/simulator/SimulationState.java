@@ -0,0 +1,123 @@
+package simulator;
+
+import enumerate.Action;
+import struct.FrameData;
+
+/**
+ * The class of a simulated game state that can be advanced step by step and
+ * branched.<br>
+ * Unlike {@link Simulator#simulate}, which always starts from a given
+ * {@link FrameData} instance, this class keeps the simulated state between the
+ * calls of {@link #step(Action, Action, int)}, so that a search AI can expand a
+ * node by simulating only the new frames.<br>
+ * An instance of this class is not thread-safe, but instances created by
+ * {@link #fork()} are independent of each other and can be used by different
+ * threads.
+ *
+ * @see Simulator#createState(FrameData)
+ */
+public class SimulationState {
+
+	/**
+	 * The fighting process holding the simulated state.
+	 */
+	private SimFighting simFighting;
+
+	/**
+	 * The current frame number of the simulated state.
+	 */
+	private int currentFrame;
+
+	/**
+	 * The round number of the simulated state.
+	 */
+	private int round;
+
+	/**
+	 * The class constructor.
+	 *
+	 * @param simFighting
+	 *            the fighting process holding the simulated state
+	 * @param currentFrame
+	 *            the current frame number of the simulated state
+	 * @param round
+	 *            the round number of the simulated state
+	 */
+	SimulationState(SimFighting simFighting, int currentFrame, int round) {
+		this.simFighting = simFighting;
+		this.currentFrame = currentFrame;
+		this.round = round;
+	}
+
+	/**
+	 * Adds the given actions to the actions waiting to be executed by both
+	 * players, and advances the simulation by the specified number of
+	 * frames.<br>
+	 * The actions are executed in the same way as
+	 * {@link Simulator#simulate}: an action which cannot be executed when the
+	 * character is under control is discarded, and the character does nothing
+	 * after all of its actions have been executed.
+	 *
+	 * @param p1Act
+	 *            the action to be performed by P1. If {@code null}, no action
+	 *            is added to P1.
+	 * @param p2Act
+	 *            the action to be performed by P2. If {@code null}, no action
+	 *            is added to P2.
+	 * @param frames
+	 *            the number of frames to be simulated
+	 */
+	public void step(Action p1Act, Action p2Act, int frames) {
+		this.simFighting.addActions(p1Act, p2Act);
+
+		for (int i = 0; i < frames; i++) {
+			this.simFighting.processingFight(this.currentFrame);
+			this.currentFrame++;
+		}
+	}
+
+	/**
+	 * Creates a copy of this simulated state.<br>
+	 * The characters, their attacks, the projectiles and the actions waiting
+	 * to be executed are copied, so that advancing either state does not
+	 * affect the other one.
+	 *
+	 * @return a copy of this simulated state
+	 */
+	public SimulationState fork() {
+		return new SimulationState(new SimFighting(this.simFighting), this.currentFrame, this.round);
+	}
+
+	/**
+	 * Returns the frame data of the current simulated state.
+	 *
+	 * @return the frame data of the current simulated state
+	 */
+	public FrameData getFrameData() {
+		return this.simFighting.createFrameData(this.currentFrame, this.round);
+	}
+
+	/**
+	 * Returns the 64-bit hash value of the simulated state.<br>
+	 * The hash covers both characters, their attacks, the projectiles, the
+	 * key histories and the actions waiting to be executed, but not the
+	 * frame number. States reached by different paths have the same hash
+	 * value if they are the same, so the value can be used as a key of a
+	 * transposition table.
+	 *
+	 * @return the hash value of the simulated state
+	 */
+	public long getStateHash() {
+		return this.simFighting.getStateHash();
+	}
+
+	/**
+	 * Returns the current frame number of the simulated state.
+	 *
+	 * @return the current frame number of the simulated state
+	 */
+	public int getFramesNumber() {
+		return this.currentFrame;
+	}
+
+}
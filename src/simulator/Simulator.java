@@ -2,10 +2,14 @@ package simulator;
 
 import java.util.ArrayList;
 import java.util.Deque;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 import enumerate.Action;
 import fighting.Motion;
+import setting.MatchContext;
 import struct.FrameData;
 import struct.GameData;
 
@@ -19,15 +23,59 @@ public class Simulator {
 	 */
 	private GameData gameData;
 
+	/**
+	 * The motions of both characters used in the simulation.<br>
+	 * They are created from {@link GameData} only once and shared by all
+	 * simulations, because the simulator never modifies them.
+	 */
+	private Motion[][] motions;
+
+	/**
+	 * The settings of the match used in the simulation.<br>
+	 * This is a copy owned by the simulator, so AIs cannot change it through
+	 * {@link GameData#getMatchContext()}.
+	 *
+	 * @see GameData#getMatchContext()
+	 */
+	private final MatchContext context;
+
+	/**
+	 * The reusable simulation session of each thread calling this simulator.
+	 * <br>
+	 * The session keeps its characters and command centers, and resets them in
+	 * place at the start of every simulation.
+	 *
+	 * @see SimFighting
+	 */
+	private ThreadLocal<SimFighting> simFighting;
+
+	/**
+	 * The cache of simulation results, or {@code null} if the results are not
+	 * cached.
+	 *
+	 * @see SimulationCache
+	 */
+	private volatile SimulationCache cache;
+
 	/**
 	 * The class constructor that creates an instance of the Simulator class by
-	 * using an instance of the GameData class.
+	 * using an instance of the GameData class.<br>
+	 * The simulation uses the settings of the match held by the GameData
+	 * instance, or a copy of the current static settings if it has none.
 	 *
 	 * @param gameData
 	 *            an instance of the GameData class
 	 */
 	public Simulator(GameData gameData) {
 		this.gameData = gameData;
+		MatchContext matchContext = gameData.getMatchContext();
+		this.context = matchContext != null ? matchContext : new MatchContext();
+		this.simFighting = new ThreadLocal<SimFighting>() {
+			@Override
+			protected SimFighting initialValue() {
+				return new SimFighting(context);
+			}
+		};
 	}
 
 	/**
@@ -70,34 +118,224 @@ public class Simulator {
 	public FrameData simulate(FrameData frameData, boolean playerNumber, Deque<Action> myAct, Deque<Action> oppAct,
 			int simulationLimit) {
 
-		// Creates deep copy of each action's list
-		ArrayList<Deque<Action>> tempActionList = new ArrayList<Deque<Action>>(2);
-		Deque<Action> tempP1Act = ((playerNumber ? myAct : oppAct) == null) ? null
-				: new LinkedList<Action>(playerNumber ? myAct : oppAct);
-		Deque<Action> tempP2Act = ((!playerNumber ? myAct : oppAct) == null) ? null
-				: new LinkedList<Action>(!playerNumber ? myAct : oppAct);
-		tempActionList.add(tempP1Act);
-		tempActionList.add(tempP2Act);
-
-		ArrayList<ArrayList<Motion>> tempMotionList = new ArrayList<ArrayList<Motion>>(2);
-//		ArrayList<Motion> p1MotionData = this.gameData.getMotion(playerNumber ? true : false);
-//		ArrayList<Motion> p2MotionData = this.gameData.getMotion(!playerNumber ? true : false);
-		ArrayList<Motion> p1MotionData = this.gameData.getMotion(true);
-		ArrayList<Motion> p2MotionData = this.gameData.getMotion(false);
-		tempMotionList.add(p1MotionData);
-		tempMotionList.add(p2MotionData);
+		// Empty frame data have no state hash and cannot be identified in the cache
+		SimulationCache cache = this.cache;
+		boolean cacheable = cache != null && frameData.getStateHash() != 0;
+		if (cacheable) {
+			FrameData result = cache.get(frameData, playerNumber, myAct, oppAct, simulationLimit);
+			if (result != null) {
+				return result;
+			}
+		}
 
 		int nowFrame = frameData.getFramesNumber();
 
-		SimFighting simFighting = new SimFighting();
-		simFighting.initialize(tempMotionList, tempActionList, new FrameData(frameData), playerNumber);
+		// The session copies the actions, so the given lists are left as they are
+		SimFighting simFighting = this.simFighting.get();
+		simFighting.initialize(getMotions(), playerNumber ? myAct : oppAct, playerNumber ? oppAct : myAct,
+				frameData);
 
 		for (int i = 0; i < simulationLimit; i++) {
 			simFighting.processingFight(nowFrame);
 			nowFrame++;
 		}
 
-		return simFighting.createFrameData(nowFrame, frameData.getRound());
+		FrameData result = simFighting.createFrameData(nowFrame, frameData.getRound());
+		if (cacheable) {
+			cache.put(frameData, playerNumber, myAct, oppAct, simulationLimit, result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Sets the cache of simulation results used by
+	 * {@link #simulate(FrameData, boolean, Deque, Deque, int)}.<br>
+	 * When the cache is set, a simulation whose frame data, actions and number
+	 * of frames are the same as those of a previous simulation returns the
+	 * stored result without simulating again. Only frame data with a state
+	 * hash, i.e. frame data given by the game or returned by the simulator,
+	 * are cached.<br>
+	 * The cache can be shared by the simulators of several AIs in the same
+	 * game. By default, no cache is used.
+	 *
+	 * @param cache
+	 *            the cache of simulation results, or {@code null} to disable
+	 *            caching
+	 *
+	 * @see SimulationCache
+	 * @see FrameData#getStateHash()
+	 */
+	public void setCache(SimulationCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Returns the cache of simulation results used by this simulator.
+	 *
+	 * @return the cache of simulation results, or {@code null} if no cache is
+	 *         used
+	 */
+	public SimulationCache getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Creates a simulated state starting from a given {@link FrameData}
+	 * instance.<br>
+	 * The returned state can be advanced by
+	 * {@link SimulationState#step(Action, Action, int)} and branched by
+	 * {@link SimulationState#fork()}, without simulating again from the given
+	 * frame data.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 *
+	 * @return the simulated state at the given frame data
+	 *
+	 * @see SimulationState
+	 */
+	public SimulationState createState(FrameData frameData) {
+		SimFighting simFighting = new SimFighting(this.context);
+		simFighting.initialize(getMotions(), null, null, frameData);
+
+		return new SimulationState(simFighting, frameData.getFramesNumber(), frameData.getRound());
+	}
+
+	/**
+	 * Simulates many pairs of action sequences starting from the same
+	 * {@link FrameData} instance in parallel.<br>
+	 * The i-th pair consists of {@code myActs.get(i)} and
+	 * {@code oppActs.get(i)}, and is simulated in the same way as
+	 * {@link #simulate(FrameData, boolean, Deque, Deque, int)}. The
+	 * simulations are run on the common {@link ForkJoinPool}, and each worker
+	 * thread uses its own simulation session.<br>
+	 * The given lists and action sequences are not modified.
+	 *
+	 * @param frameData
+	 *            frame data at the start of simulation
+	 * @param playerNumber
+	 *            boolean value which identifies P1/P2. {@code true} if the
+	 *            player is P1, or {@code false} if P2.
+	 * @param myActs
+	 *            the action sequences to be performed by the player
+	 *            identified by the parameter `playerNumber`
+	 * @param oppActs
+	 *            the action sequences to be performed by the opponent. It
+	 *            must have the same size as `myActs`.
+	 * @param simulationLimit
+	 *            the number of frames to be simulated in each simulation
+	 *
+	 * @return the frame data after each simulation, in the same order as the
+	 *         given action sequences
+	 *
+	 * @see #simulate(FrameData, boolean, Deque, Deque, int)
+	 */
+	public List<FrameData> simulateBatch(FrameData frameData, boolean playerNumber, List<Deque<Action>> myActs,
+			List<Deque<Action>> oppActs, int simulationLimit) {
+		if (myActs.size() != oppActs.size()) {
+			throw new IllegalArgumentException(
+					"The number of action sequences differs: " + myActs.size() + " and " + oppActs.size());
+		}
+
+		// Creates the motions before forking so that the workers only read them
+		getMotions();
+
+		int size = myActs.size();
+		ArrayList<SimulationTask> tasks = new ArrayList<SimulationTask>(size);
+		for (int i = 0; i < size; i++) {
+			tasks.add(new SimulationTask(frameData, playerNumber, myActs.get(i), oppActs.get(i), simulationLimit));
+		}
+
+		// Outside a ForkJoinPool, the forked tasks are run on the common pool
+		ForkJoinTask.invokeAll(tasks);
+
+		ArrayList<FrameData> results = new ArrayList<FrameData>(size);
+		for (SimulationTask task : tasks) {
+			results.add(task.join());
+		}
+
+		return results;
+	}
+
+	/**
+	 * Returns the motions of both characters used in the simulation.<br>
+	 * The motions are created from {@link GameData} at the first call.
+	 *
+	 * @return the motions of both characters. Index 0 is P1, index 1 is P2.
+	 */
+	private synchronized Motion[][] getMotions() {
+		if (this.motions == null) {
+			Motion[][] motions = new Motion[2][];
+			for (int i = 0; i < 2; i++) {
+				ArrayList<Motion> motionList = this.gameData.getMotion(i == 0);
+				motions[i] = motionList.toArray(new Motion[motionList.size()]);
+			}
+			this.motions = motions;
+		}
+		return this.motions;
+	}
+
+	/**
+	 * The task that runs one simulation of
+	 * {@link Simulator#simulateBatch(FrameData, boolean, List, List, int)}.
+	 */
+	private class SimulationTask extends RecursiveTask<FrameData> {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Frame data at the start of simulation.
+		 */
+		private final FrameData frameData;
+
+		/**
+		 * The boolean value which identifies P1/P2.
+		 */
+		private final boolean playerNumber;
+
+		/**
+		 * The actions performed by the player.
+		 */
+		private final Deque<Action> myAct;
+
+		/**
+		 * The actions performed by the opponent.
+		 */
+		private final Deque<Action> oppAct;
+
+		/**
+		 * The number of frames to be simulated.
+		 */
+		private final int simulationLimit;
+
+		/**
+		 * The class constructor.
+		 *
+		 * @param frameData
+		 *            frame data at the start of simulation
+		 * @param playerNumber
+		 *            boolean value which identifies P1/P2
+		 * @param myAct
+		 *            actions to be performed by the player
+		 * @param oppAct
+		 *            actions to be performed by the opponent
+		 * @param simulationLimit
+		 *            the number of frames to be simulated
+		 */
+		SimulationTask(FrameData frameData, boolean playerNumber, Deque<Action> myAct, Deque<Action> oppAct,
+				int simulationLimit) {
+			this.frameData = frameData;
+			this.playerNumber = playerNumber;
+			this.myAct = myAct;
+			this.oppAct = oppAct;
+			this.simulationLimit = simulationLimit;
+		}
+
+		@Override
+		protected FrameData compute() {
+			return simulate(this.frameData, this.playerNumber, this.myAct, this.oppAct, this.simulationLimit);
+		}
 	}
 
 }
@@ -1,6 +1,9 @@
 package struct;
 
+import java.nio.ByteBuffer;
+
 import fighting.Attack;
+import fighting.StateArena;
 
 /**
  * The class dealing with data on the attack such as damage amount and required
@@ -8,6 +11,11 @@ import fighting.Attack;
  */
 public class AttackData {
 
+	/**
+	 * The number of bytes written by {@link #writeTo(ByteBuffer)}.
+	 */
+	static final int BYTES = 100;
+
 	/**
 	 * TheHitArea's information of this attack hit box set in Motion.csv.
 	 *
@@ -717,4 +725,106 @@ public class AttackData {
 		this.isProjectile = isProjectile;
 	}
 
+	/**
+	 * Writes this attack data to the buffer in the fixed layout described in
+	 * {@link FrameData#toByteBuffer()}.
+	 *
+	 * @param buffer
+	 *            the buffer with at least {@link #BYTES} bytes remaining
+	 */
+	void writeTo(ByteBuffer buffer) {
+		buffer.put((byte) ((this.playerNumber ? 1 : 0) | (this.downProp ? 2 : 0) | (this.isProjectile ? 4 : 0)));
+		buffer.put((byte) this.attackType);
+		buffer.putShort((short) 0);
+		writeHitArea(buffer, this.settingHitArea);
+		writeHitArea(buffer, this.currentHitArea);
+		buffer.putInt(this.settingSpeedX);
+		buffer.putInt(this.settingSpeedY);
+		buffer.putInt(this.currentFrame);
+		buffer.putInt(this.speedX);
+		buffer.putInt(this.speedY);
+		buffer.putInt(this.startUp);
+		buffer.putInt(this.active);
+		buffer.putInt(this.hitDamage);
+		buffer.putInt(this.guardDamage);
+		buffer.putInt(this.startAddEnergy);
+		buffer.putInt(this.hitAddEnergy);
+		buffer.putInt(this.guardAddEnergy);
+		buffer.putInt(this.giveEnergy);
+		buffer.putInt(this.impactX);
+		buffer.putInt(this.impactY);
+		buffer.putInt(this.giveGuardRecov);
+	}
+
+	/**
+	 * Writes the left, right, top and bottom coordinates of the hit area to
+	 * the buffer, or four zeros if the hit area is not set.
+	 *
+	 * @param buffer
+	 *            the buffer to write to
+	 * @param hitArea
+	 *            the hit area, or {@code null}
+	 */
+	private static void writeHitArea(ByteBuffer buffer, HitArea hitArea) {
+		if (hitArea == null) {
+			buffer.putLong(0).putLong(0);
+		} else {
+			buffer.putInt(hitArea.getLeft());
+			buffer.putInt(hitArea.getRight());
+			buffer.putInt(hitArea.getTop());
+			buffer.putInt(hitArea.getBottom());
+		}
+	}
+
+	/**
+	 * Writes this attack data to the arena to compute the hash value of the
+	 * frame data.
+	 *
+	 * @param arena
+	 *            the arena to write to
+	 *
+	 * @see FrameData#getStateHash()
+	 */
+	void encode(StateArena arena) {
+		arena.putInt((this.playerNumber ? 1 : 0) | (this.downProp ? 2 : 0) | (this.isProjectile ? 4 : 0));
+		arena.putInt(this.attackType);
+		encodeHitArea(arena, this.settingHitArea);
+		encodeHitArea(arena, this.currentHitArea);
+		arena.putInt(this.settingSpeedX);
+		arena.putInt(this.settingSpeedY);
+		arena.putInt(this.currentFrame);
+		arena.putInt(this.speedX);
+		arena.putInt(this.speedY);
+		arena.putInt(this.startUp);
+		arena.putInt(this.active);
+		arena.putInt(this.hitDamage);
+		arena.putInt(this.guardDamage);
+		arena.putInt(this.startAddEnergy);
+		arena.putInt(this.hitAddEnergy);
+		arena.putInt(this.guardAddEnergy);
+		arena.putInt(this.giveEnergy);
+		arena.putInt(this.impactX);
+		arena.putInt(this.impactY);
+		arena.putInt(this.giveGuardRecov);
+	}
+
+	/**
+	 * Writes the hit area to the arena, or four zeros if the hit area is not
+	 * set.
+	 *
+	 * @param arena
+	 *            the arena to write to
+	 * @param hitArea
+	 *            the hit area, or {@code null}
+	 */
+	private static void encodeHitArea(StateArena arena, HitArea hitArea) {
+		if (hitArea == null) {
+			for (int i = 0; i < 4; i++) {
+				arena.putInt(0);
+			}
+		} else {
+			arena.putHitArea(hitArea);
+		}
+	}
+
 }
@@ -1,11 +1,13 @@
 package struct;
 
+import java.nio.ByteBuffer;
 import java.util.Deque;
 import java.util.LinkedList;
 
 import enumerate.Action;
 import enumerate.State;
 import fighting.Character;
+import fighting.StateArena;
 
 /**
  * The class dealing with data on the character such as the character's HP,
@@ -13,6 +15,11 @@ import fighting.Character;
  */
 public class CharacterData {
 
+	/**
+	 * The number of bytes written by {@link #writeTo(ByteBuffer, CharacterData)}.
+	 */
+	static final int BYTES = 68 + AttackData.BYTES;
+
 	/**
 	 * The character's side flag.<br>
 	 * {@code true} if the character is P1, or {@code false} if P2.
@@ -504,6 +511,73 @@ public class CharacterData {
 		return temp;
 	}
 
+	/**
+	 * Adds the keys of the action that the character will be executing in the
+	 * simulator to the end of the list passed as the argument.<br>
+	 * Unlike {@link #getInputCommand()}, this method does not create a new
+	 * list. This method is used only for processing of the simulator.
+	 *
+	 * @param keys
+	 *            the list to which the keys are added
+	 */
+	public void addInputCommandTo(Deque<Key> keys) {
+		for (Key key : this.inputCommands) {
+			keys.addLast(key);
+		}
+	}
+
+	/**
+	 * Adds up to 30 keys that the character executed in the simulator to the
+	 * end of the list passed as the argument.<br>
+	 * Unlike {@link #getProcessedCommand()}, this method does not create a new
+	 * list. This method is used only for processing of the simulator.
+	 *
+	 * @param keys
+	 *            the list to which the keys are added
+	 */
+	public void addProcessedCommandTo(Deque<Key> keys) {
+		for (Key key : this.processedCommands) {
+			keys.addLast(key);
+		}
+	}
+
+	/**
+	 * Returns an array storing copies of the keys of the action that the
+	 * character will be executing in the simulator.
+	 *
+	 * @return an array storing copies of the keys
+	 */
+	Key[] copyInputCommand() {
+		return copyKeys(this.inputCommands);
+	}
+
+	/**
+	 * Returns an array storing copies of up to 30 keys that the character
+	 * executed in the simulator.
+	 *
+	 * @return an array storing copies of the keys
+	 */
+	Key[] copyProcessedCommand() {
+		return copyKeys(this.processedCommands);
+	}
+
+	/**
+	 * Returns an array storing copies of the keys in the list passed as the
+	 * argument.
+	 *
+	 * @param keys
+	 *            a list of keys
+	 * @return an array storing copies of the keys
+	 */
+	private static Key[] copyKeys(Deque<Key> keys) {
+		Key[] copies = new Key[keys.size()];
+		int i = 0;
+		for (Key key : keys) {
+			copies[i++] = new Key(key);
+		}
+		return copies;
+	}
+
 	/**
 	 * Sets the character's HP.
 	 *
@@ -740,4 +814,83 @@ public class CharacterData {
 		this.processedCommands = new LinkedList<Key>(inputCommand);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Writes the character data to the buffer in the fixed layout described in
+	 * {@link FrameData#toByteBuffer()}.<br>
+	 * If the character data is {@code null}, zeros are written instead.
+	 *
+	 * @param buffer
+	 *            the buffer with at least {@link #BYTES} bytes remaining
+	 * @param characterData
+	 *            the character data, or {@code null}
+	 */
+	static void writeTo(ByteBuffer buffer, CharacterData characterData) {
+		if (characterData == null) {
+			buffer.put(new byte[BYTES]);
+			return;
+		}
+
+		buffer.put((byte) (1 | (characterData.playerNumber ? 2 : 0) | (characterData.front ? 4 : 0)
+				| (characterData.control ? 8 : 0) | (characterData.hitConfirm ? 16 : 0)));
+		buffer.put((byte) (characterData.state == null ? -1 : characterData.state.ordinal()));
+		buffer.putShort((short) (characterData.action == null ? -1 : characterData.action.ordinal()));
+		buffer.putInt(characterData.hp);
+		buffer.putInt(characterData.energy);
+		buffer.putInt(characterData.x);
+		buffer.putInt(characterData.y);
+		buffer.putInt(characterData.left);
+		buffer.putInt(characterData.right);
+		buffer.putInt(characterData.top);
+		buffer.putInt(characterData.bottom);
+		buffer.putInt(characterData.speedX);
+		buffer.putInt(characterData.speedY);
+		buffer.putInt(characterData.remainingFrame);
+		buffer.putInt(characterData.graphicSizeX);
+		buffer.putInt(characterData.graphicSizeY);
+		buffer.putInt(characterData.graphicAdjustX);
+		buffer.putInt(characterData.hitCount);
+		buffer.putInt(characterData.lastHitFrame);
+		(characterData.attackData == null ? new AttackData() : characterData.attackData).writeTo(buffer);
+	}
+
+	/**
+	 * Writes the character data and its key histories to the arena to compute
+	 * the hash value of the frame data.<br>
+	 * If the character data is {@code null}, a single zero is written instead.
+	 *
+	 * @param arena
+	 *            the arena to write to
+	 * @param characterData
+	 *            the character data, or {@code null}
+	 *
+	 * @see FrameData#getStateHash()
+	 */
+	static void encode(StateArena arena, CharacterData characterData) {
+		if (characterData == null) {
+			arena.putInt(0);
+			return;
+		}
+
+		arena.putInt(1 | (characterData.playerNumber ? 2 : 0) | (characterData.front ? 4 : 0)
+				| (characterData.control ? 8 : 0) | (characterData.hitConfirm ? 16 : 0));
+		arena.putInt(characterData.state == null ? -1 : characterData.state.ordinal());
+		arena.putInt(characterData.action == null ? -1 : characterData.action.ordinal());
+		arena.putInt(characterData.hp);
+		arena.putInt(characterData.energy);
+		arena.putInt(characterData.x);
+		arena.putInt(characterData.y);
+		arena.putInt(characterData.left);
+		arena.putInt(characterData.right);
+		arena.putInt(characterData.top);
+		arena.putInt(characterData.bottom);
+		arena.putInt(characterData.speedX);
+		arena.putInt(characterData.speedY);
+		arena.putInt(characterData.remainingFrame);
+		arena.putInt(characterData.hitCount);
+		arena.putInt(characterData.lastHitFrame);
+		(characterData.attackData == null ? new AttackData() : characterData.attackData).encode(arena);
+		arena.putKeys(characterData.inputCommands);
+		arena.putKeys(characterData.processedCommands);
+	}
+
+}
@@ -1,54 +1,123 @@
 package struct;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 
+import fighting.StateArena;
 import input.KeyData;
 import setting.FlagSetting;
 import setting.GameSetting;
+import setting.MatchContext;
 
 /**
  * The class dealing with the information in the game such as the current frame
- * number, number of rounds and character information.
+ * number, number of rounds and character information.<br>
+ * The getters of a normal instance return deep copies of the character and
+ * projectile data, so an AI may modify them freely. An immutable instance
+ * created by {@link #toImmutable()} instead holds read-only
+ * {@link ImmutableCharacterData} and {@link ImmutableAttackData} instances and
+ * returns them without copying. Such an instance can be shared between both
+ * AIs and their threads; modifying the returned data throws
+ * {@link UnsupportedOperationException}, so an AI that needs to modify them has
+ * to copy them first.
  */
 public class FrameData {
 
+	/**
+	 * The version of the binary layout written by {@link #toByteBuffer()}.
+	 * <br>
+	 * The version is incremented whenever the layout changes.
+	 */
+	public static final byte BINARY_FORMAT_VERSION = 1;
+
+	/**
+	 * The number of bytes of the header of the binary layout written by
+	 * {@link #toByteBuffer()}.
+	 */
+	public static final int BINARY_HEADER_BYTES = 24;
+
+	/**
+	 * The number of bytes of each character block of the binary layout written
+	 * by {@link #toByteBuffer()}.
+	 */
+	public static final int BINARY_CHARACTER_BYTES = CharacterData.BYTES;
+
+	/**
+	 * The number of bytes of each attack block of the binary layout written by
+	 * {@link #toByteBuffer()}.
+	 */
+	public static final int BINARY_ATTACK_BYTES = AttackData.BYTES;
+
 	/**
 	 * The character's data of both characters<br>
 	 * Index 0 is P1, index 1 is P2.
 	 */
-	private CharacterData[] characterData;
+	private final CharacterData[] characterData;
 
 	/**
 	 * The current frame of the round.
 	 */
-	private int currentFrameNumber;
+	private final int currentFrameNumber;
 
 	/**
 	 * The current round number.
 	 */
-	private int currentRound;
+	private final int currentRound;
 
 	/**
-	 * The projectile data of both characters.
+	 * The projectile data of both characters.<br>
+	 * The list is unmodifiable if this instance is immutable.
 	 */
-	private Deque<AttackData> projectileData;
+	private final List<AttackData> projectileData;
 
 	/**
 	 * If this value is true, no data are available or they are dummy data.
 	 */
-	private boolean emptyFlag;
+	private final boolean emptyFlag;
+
+	/**
+	 * The 64-bit hash value of the game state held by this frame data, or 0 if
+	 * it has not been computed yet.
+	 *
+	 * @see #getStateHash()
+	 */
+	private volatile long stateHash;
+
+	/**
+	 * If this value is true, the character and projectile data are read-only
+	 * and returned without copying.
+	 */
+	private final boolean immutable;
+
+	/**
+	 * The number of frames in a round of the match.
+	 */
+	private final int roundFrameNumber;
+
+	/**
+	 * If this value is true, the match is played in the training mode.
+	 */
+	private final boolean trainingMode;
 
 	/**
-	 * The class constructor.
+	 * The class constructor.<br>
+	 * The number of frames in a round and the training mode are taken from the
+	 * current static settings.
 	 */
 	public FrameData() {
 		this.characterData = new CharacterData[] { null, null };
 		this.currentFrameNumber = -1;
 		this.currentRound = -1;
-		this.projectileData = new LinkedList<AttackData>();
+		this.projectileData = new ArrayList<AttackData>(0);
 		this.emptyFlag = true;
-
+		this.stateHash = 0;
+		this.immutable = false;
+		this.roundFrameNumber = GameSetting.ROUND_FRAME_NUMBER;
+		this.trainingMode = FlagSetting.trainingModeFlag;
 	}
 
 	/**
@@ -69,48 +138,201 @@ public class FrameData {
 	 */
 	public FrameData(CharacterData[] characterData, int currentFrame, int currentRound,
 			Deque<AttackData> projectileData) {
+		this(characterData, currentFrame, currentRound, projectileData, 0);
+	}
+
+	/**
+	 * The class constructor that creates a new instance of the FrameData class
+	 * by copying the data passed as the arguments, and sets the hash value of
+	 * the game state.<br>
+	 * If the given hash value is 0, it is computed when
+	 * {@link #getStateHash()} is first called. The number of frames in a round
+	 * and the training mode are taken from the current static settings.
+	 *
+	 * @param characterData
+	 *            an instance of the CharacterData class
+	 * @param currentFrame
+	 *            the frame number of the current frame
+	 * @param currentRound
+	 *            the round number of the current round
+	 * @param projectileData
+	 *            the queue that stores information on projectiles of P1 and P2
+	 * @param stateHash
+	 *            the 64-bit hash value of the game state, or 0 to compute it
+	 *            from the data
+	 *
+	 * @see #getStateHash()
+	 */
+	public FrameData(CharacterData[] characterData, int currentFrame, int currentRound,
+			Deque<AttackData> projectileData, long stateHash) {
+		this(characterData, currentFrame, currentRound, projectileData, stateHash, GameSetting.ROUND_FRAME_NUMBER,
+				FlagSetting.trainingModeFlag);
+	}
+
+	/**
+	 * The class constructor that creates a new instance of the FrameData class
+	 * by copying the data passed as the arguments.<br>
+	 * The number of frames in a round and the training mode are taken from the
+	 * settings of the match.
+	 *
+	 * @param characterData
+	 *            an instance of the CharacterData class
+	 * @param currentFrame
+	 *            the frame number of the current frame
+	 * @param currentRound
+	 *            the round number of the current round
+	 * @param projectileData
+	 *            the queue that stores information on projectiles of P1 and P2
+	 * @param context
+	 *            the settings of the match
+	 *
+	 * @see MatchContext
+	 */
+	public FrameData(CharacterData[] characterData, int currentFrame, int currentRound,
+			Deque<AttackData> projectileData, MatchContext context) {
+		this(characterData, currentFrame, currentRound, projectileData, 0, context.getRoundFrameNumber(),
+				context.isTrainingMode());
+	}
+
+	/**
+	 * The class constructor that creates a new instance of the FrameData class
+	 * by copying the data passed as the arguments.
+	 *
+	 * @param characterData
+	 *            an instance of the CharacterData class
+	 * @param currentFrame
+	 *            the frame number of the current frame
+	 * @param currentRound
+	 *            the round number of the current round
+	 * @param projectileData
+	 *            the queue that stores information on projectiles of P1 and P2
+	 * @param stateHash
+	 *            the 64-bit hash value of the game state, or 0 to compute it
+	 *            from the data
+	 * @param roundFrameNumber
+	 *            the number of frames in a round
+	 * @param trainingMode
+	 *            whether the match is played in the training mode
+	 */
+	private FrameData(CharacterData[] characterData, int currentFrame, int currentRound,
+			Deque<AttackData> projectileData, long stateHash, int roundFrameNumber, boolean trainingMode) {
 		this.characterData = new CharacterData[] { characterData[0], characterData[1] };
 		this.currentFrameNumber = currentFrame;
 		this.currentRound = currentRound;
 
 		// make deep copy of the attacks list
-		this.projectileData = new LinkedList<AttackData>();
+		this.projectileData = new ArrayList<AttackData>(projectileData.size());
 		for (AttackData attack : projectileData) {
 			this.projectileData.add(new AttackData(attack));
 		}
 
 		this.emptyFlag = false;
+		this.stateHash = stateHash;
+		this.immutable = false;
+		this.roundFrameNumber = roundFrameNumber;
+		this.trainingMode = trainingMode;
 	}
 
 	/**
 	 * A copy constructor that creates a copy of an instance of the FrameData
 	 * class by copying the values of the variables from an instance of the
-	 * FrameData class passed as the argument.
+	 * FrameData class passed as the argument.<br>
+	 * The created instance is always modifiable, even if the given instance is
+	 * immutable.
 	 *
 	 * @param frameData
 	 *            an instance of the FrameData class
 	 */
 	public FrameData(FrameData frameData) {
 		this.characterData = new CharacterData[2];
-		this.characterData[0] = frameData.getCharacter(true);
-		this.characterData[1] = frameData.getCharacter(false);
+		for (int i = 0; i < 2; i++) {
+			CharacterData temp = frameData.characterData[i];
+			this.characterData[i] = temp == null ? null : new CharacterData(temp);
+		}
 		this.currentFrameNumber = frameData.getFramesNumber();
 		this.currentRound = frameData.getRound();
 
 		// make deep copy of the attacks list
-		this.projectileData = new LinkedList<AttackData>();
-		Deque<AttackData> temp = frameData.getProjectiles();
-		for (AttackData attack : temp) {
+		this.projectileData = new ArrayList<AttackData>(frameData.projectileData.size());
+		for (AttackData attack : frameData.projectileData) {
 			this.projectileData.add(new AttackData(attack));
 		}
 
 		this.emptyFlag = frameData.getEmptyFlag();
+		this.stateHash = frameData.stateHash;
+		this.immutable = false;
+		this.roundFrameNumber = frameData.roundFrameNumber;
+		this.trainingMode = frameData.trainingMode;
+	}
+
+	/**
+	 * The class constructor that creates an immutable copy of an instance of
+	 * the FrameData class.
+	 *
+	 * @param frameData
+	 *            an instance of the FrameData class
+	 * @param immutable
+	 *            the dummy parameter distinguishing this constructor from the
+	 *            copy constructor
+	 *
+	 * @see #toImmutable()
+	 */
+	private FrameData(FrameData frameData, boolean immutable) {
+		this.characterData = new CharacterData[2];
+		for (int i = 0; i < 2; i++) {
+			CharacterData temp = frameData.characterData[i];
+			this.characterData[i] = temp == null ? null : new ImmutableCharacterData(temp);
+		}
+		this.currentFrameNumber = frameData.getFramesNumber();
+		this.currentRound = frameData.getRound();
+
+		ArrayList<AttackData> projectiles = new ArrayList<AttackData>(frameData.projectileData.size());
+		for (AttackData attack : frameData.projectileData) {
+			projectiles.add(new ImmutableAttackData(attack));
+		}
+		this.projectileData = Collections.unmodifiableList(projectiles);
+
+		this.emptyFlag = frameData.getEmptyFlag();
+		this.stateHash = frameData.stateHash;
+		this.immutable = true;
+		this.roundFrameNumber = frameData.roundFrameNumber;
+		this.trainingMode = frameData.trainingMode;
+	}
+
+	/**
+	 * Returns an immutable version of this frame data.<br>
+	 * The getters of the returned instance do not copy the character and
+	 * projectile data, so the instance can be shared between AIs and threads
+	 * cheaply. If this instance is already immutable, this method returns it as
+	 * it is.
+	 *
+	 * @return the immutable version of this frame data
+	 *
+	 * @see ImmutableCharacterData
+	 * @see ImmutableAttackData
+	 */
+	public FrameData toImmutable() {
+		return this.immutable ? this : new FrameData(this, true);
+	}
 
+	/**
+	 * Returns whether this instance is immutable.
+	 *
+	 * @return {@code true} if the character and projectile data of this
+	 *         instance are read-only and returned without copying, or
+	 *         {@code false} if they are copied on every call
+	 *
+	 * @see #toImmutable()
+	 */
+	public boolean isImmutable() {
+		return this.immutable;
 	}
 
 	/**
 	 * Returns an instance of the CharacterData class of the player specified by
-	 * an argument.
+	 * an argument.<br>
+	 * If this instance is immutable, the shared read-only instance is returned
+	 * without copying.
 	 *
 	 * @param playerNumber
 	 *            the number of the player. {@code true} if the player is P1, or
@@ -120,19 +342,19 @@ public class FrameData {
 	public CharacterData getCharacter(boolean playerNumber) {
 		CharacterData temp = this.characterData[playerNumber ? 0 : 1];
 
-		return temp == null ? null : new CharacterData(temp);
+		return temp == null || this.immutable ? temp : new CharacterData(temp);
 	}
 
 	/**
 	 * Returns the expected remaining time in milliseconds of the current round.
 	 * <br>
-	 * When FightingICE was launched with the training mode, this method returns
-	 * the max value of integer.
+	 * When the match is played in the training mode, this method returns the
+	 * max value of integer.
 	 *
 	 * @return the expected remaining time in milliseconds of the current round
 	 */
 	public int getRemainingTimeMilliseconds() {
-		if (FlagSetting.trainingModeFlag) {
+		if (this.trainingMode) {
 			return Integer.MAX_VALUE;
 		} else {
 			return GameSetting.ROUND_TIME - (int) (((float) this.currentFrameNumber / GameSetting.FPS) * 1000);
@@ -141,15 +363,15 @@ public class FrameData {
 
 	/**
 	 * Returns the expected remaining time in seconds of the current round.<br>
-	 * When FightingICE was launched with the training mode, this method returns
-	 * the max value of integer.
+	 * When the match is played in the training mode, this method returns the
+	 * max value of integer.
 	 *
 	 * @return the expected remaining time in seconds of the current round
 	 * @deprecated Use {@link #getRemainingTimeMilliseconds()} instead. This
 	 *             method has been renamed to more clearly reflect its purpose.
 	 */
 	public int getRemainingTime() {
-		if (FlagSetting.trainingModeFlag) {
+		if (this.trainingMode) {
 			return Integer.MAX_VALUE;
 		} else {
 			return (int) Math.ceil((float) getRemainingTimeMilliseconds() / 1000);
@@ -158,16 +380,16 @@ public class FrameData {
 
 	/**
 	 * Returns the number of remaining frames of the round. <br>
-	 * When FightingICE was launched with the training mode, this method returns
-	 * the max value of integer.
+	 * When the match is played in the training mode, this method returns the
+	 * max value of integer.
 	 *
 	 * @return the number of remaining frames of the round
 	 */
 	public int getRemainingFramesNumber() {
-		if (FlagSetting.trainingModeFlag) {
+		if (this.trainingMode) {
 			return Integer.MAX_VALUE;
 		} else {
-			return (GameSetting.ROUND_FRAME_NUMBER - currentFrameNumber);
+			return (this.roundFrameNumber - currentFrameNumber);
 		}
 	}
 
@@ -190,19 +412,41 @@ public class FrameData {
 	}
 
 	/**
-	 * Returns the projectile data of both characters.
+	 * Returns the projectile data of both characters.<br>
+	 * The returned queue is always a new one. If this instance is immutable,
+	 * it holds the shared read-only projectile data instead of their copies.
 	 *
 	 * @return the projectile data of both characters
 	 */
 	public Deque<AttackData> getProjectiles() {
-		// create a deep copy of the attacks list
+		// copy the attacks list, and the attacks themselves unless immutable
 		LinkedList<AttackData> attackList = new LinkedList<AttackData>();
 		for (AttackData attack : this.projectileData) {
-			attackList.add(new AttackData(attack));
+			attackList.add(copyAttack(attack));
 		}
 		return attackList;
 	}
 
+	/**
+	 * Returns the unmodifiable list of the projectile data of both
+	 * characters.<br>
+	 * If this instance is immutable, the list and the projectile data are
+	 * shared and returned without copying.
+	 *
+	 * @return the unmodifiable list of the projectile data of both characters
+	 */
+	public List<AttackData> getProjectileList() {
+		if (this.immutable) {
+			return this.projectileData;
+		}
+
+		ArrayList<AttackData> attackList = new ArrayList<AttackData>(this.projectileData.size());
+		for (AttackData attack : this.projectileData) {
+			attackList.add(new AttackData(attack));
+		}
+		return Collections.unmodifiableList(attackList);
+	}
+
 	/**
 	 * Returns the projectile data of player 1.
 	 *
@@ -212,7 +456,7 @@ public class FrameData {
 		LinkedList<AttackData> attackList = new LinkedList<AttackData>();
 		for (AttackData attack : this.projectileData) {
 			if (attack.isPlayerNumber()) {
-				attackList.add(new AttackData(attack));
+				attackList.add(copyAttack(attack));
 			}
 		}
 		return attackList;
@@ -227,7 +471,7 @@ public class FrameData {
 		LinkedList<AttackData> attackList = new LinkedList<AttackData>();
 		for (AttackData attack : this.projectileData) {
 			if (!attack.isPlayerNumber()) {
-				attackList.add(new AttackData(attack));
+				attackList.add(copyAttack(attack));
 			}
 		}
 		return attackList;
@@ -244,6 +488,50 @@ public class FrameData {
 		return this.emptyFlag;
 	}
 
+	/**
+	 * Returns the 64-bit hash value of the game state held by this frame
+	 * data.<br>
+	 * The hash covers both characters, their attacks, the projectiles and the
+	 * key histories, but not the frame number or the round. Frame data holding
+	 * the same game state have the same hash value, so the value can be used
+	 * to detect transpositions in a search tree. To take into account the
+	 * actions waiting to be executed in a simulation, use
+	 * {@link simulator.SimulationState#getStateHash()} instead.<br>
+	 * The value is computed from the data on the first call and cached, so
+	 * frame data whose hash is never requested cost nothing. If the frame data
+	 * is empty, this method returns 0.
+	 *
+	 * @return the hash value of the game state
+	 */
+	public long getStateHash() {
+		long hash = this.stateHash;
+		if (hash == 0 && !this.emptyFlag) {
+			// Computing the same value twice in a race is harmless
+			hash = computeStateHash();
+			this.stateHash = hash;
+		}
+		return hash;
+	}
+
+	/**
+	 * Computes the 64-bit hash value of the game state held by this frame
+	 * data.
+	 *
+	 * @return the hash value of the game state
+	 *
+	 * @see #getStateHash()
+	 */
+	private long computeStateHash() {
+		StateArena arena = new StateArena();
+		CharacterData.encode(arena, this.characterData[0]);
+		CharacterData.encode(arena, this.characterData[1]);
+		arena.putInt(this.projectileData.size());
+		for (AttackData attack : this.projectileData) {
+			attack.encode(arena);
+		}
+		return arena.hash();
+	}
+
 	/**
 	 * Returns the horizontal distance between P1 and P2.
 	 *
@@ -262,4 +550,97 @@ public class FrameData {
 		return Math.abs((this.characterData[0].getCenterY() - this.characterData[1].getCenterY()));
 	}
 
+	/**
+	 * Returns the frame data encoded in a compact binary layout.<br>
+	 * An AI running in another process, e.g. a Python AI connected through
+	 * py4j, can obtain the whole frame data in a single transfer instead of
+	 * calling a getter for every value. python/frame_data_decoder.py decodes
+	 * the returned bytes.<br>
+	 * All the values are big-endian. Booleans are packed into flag bytes, and
+	 * the state and the action are encoded as the ordinals of {@link enumerate.State}
+	 * and {@link enumerate.Action}, or -1 if not set. The key histories of the
+	 * characters are not included. The layout is as follows:
+	 *
+	 * <pre>
+	 * header (24 bytes)
+	 *   byte   format version ({@link #BINARY_FORMAT_VERSION})
+	 *   byte   flags: 1 = empty
+	 *   short  number of projectiles N
+	 *   int    frame number, round, remaining frames
+	 *   long   state hash
+	 * character block (168 bytes) for P1, then for P2
+	 *   byte   flags: 1 = present, 2 = P1, 4 = front, 8 = control, 16 = hit confirm
+	 *   byte   state
+	 *   short  action
+	 *   int    hp, energy, x, y, left, right, top, bottom, speed x, speed y,
+	 *          remaining frame, graphic size x, graphic size y, graphic adjust x,
+	 *          hit count, last hit frame
+	 *   attack block of the character's attack
+	 * attack block (100 bytes) for each of the N projectiles
+	 *   byte   flags: 1 = P1, 2 = down prop, 4 = projectile
+	 *   byte   attack type
+	 *   short  reserved (0)
+	 *   int    setting hit area left, right, top, bottom,
+	 *          current hit area left, right, top, bottom,
+	 *          setting speed x, setting speed y, current frame, speed x, speed y,
+	 *          start up, active, hit damage, guard damage, start add energy,
+	 *          hit add energy, guard add energy, give energy, impact x, impact y,
+	 *          give guard recov
+	 * </pre>
+	 *
+	 * If a character is not set, e.g. this frame data is empty, its block is
+	 * filled with zeros.
+	 *
+	 * @return a new buffer positioned at zero and containing exactly the
+	 *         encoded frame data
+	 *
+	 * @see #toByteArray()
+	 */
+	public ByteBuffer toByteBuffer() {
+		ByteBuffer buffer = ByteBuffer.allocate(BINARY_HEADER_BYTES + 2 * BINARY_CHARACTER_BYTES
+				+ this.projectileData.size() * BINARY_ATTACK_BYTES);
+
+		buffer.put(BINARY_FORMAT_VERSION);
+		buffer.put((byte) (this.emptyFlag ? 1 : 0));
+		buffer.putShort((short) this.projectileData.size());
+		buffer.putInt(this.currentFrameNumber);
+		buffer.putInt(this.currentRound);
+		buffer.putInt(getRemainingFramesNumber());
+		buffer.putLong(getStateHash());
+
+		CharacterData.writeTo(buffer, this.characterData[0]);
+		CharacterData.writeTo(buffer, this.characterData[1]);
+		for (AttackData attack : this.projectileData) {
+			attack.writeTo(buffer);
+		}
+
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Returns the frame data encoded in the binary layout described in
+	 * {@link #toByteBuffer()}.<br>
+	 * py4j passes the returned array to Python as a bytes object in a single
+	 * transfer.
+	 *
+	 * @return the encoded frame data
+	 */
+	public byte[] toByteArray() {
+		return toByteBuffer().array();
+	}
+
+	/**
+	 * Returns the projectile data to be returned to the caller, copying it only
+	 * if this instance is modifiable.
+	 *
+	 * @param attack
+	 *            the projectile data held by this instance
+	 *
+	 * @return the projectile data to be returned
+	 */
+	private AttackData copyAttack(AttackData attack) {
+		return this.immutable ? attack : new AttackData(attack);
+	}
+
 }
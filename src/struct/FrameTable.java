@@ -0,0 +1,547 @@
+package struct;
+
+import java.util.List;
+
+import enumerate.Action;
+import enumerate.State;
+import setting.GameSetting;
+
+/**
+ * The immutable table of the frame data of one character's motions.<br>
+ * For each action, the table holds the number of startup, active and recovery
+ * frames, and the attack hit area on every frame of the action. The hit areas
+ * are relative to the character: x is measured from the character's x
+ * coordinate ({@link CharacterData#getX()}) towards the direction the character
+ * faces, and y from the character's y coordinate ({@link CharacterData#getY()}).
+ * <br>
+ * This class lets an AI answer questions such as "does this attack hit the
+ * opponent at the current distance" by a table lookup instead of running
+ * {@link simulator.Simulator}. The hit areas include the movement of
+ * projectiles and the movement caused by the motions themselves, including
+ * jumps under gravity and landing, but assume that the opponent does not move
+ * and that the attacker is standing still on the ground when the action
+ * starts.<br>
+ * The actions executed in the air, i.e. the ones whose names start with AIR,
+ * cannot be predicted by this table, because their movement depends on the
+ * height and the speed of the character at that time. The methods returning
+ * hit areas throw an exception for such actions, so check
+ * {@link #isPredictable(Action)} first.<br>
+ * The frame offset used by this class is the number of frames elapsed since the
+ * frame on which the action was executed, so the action is executed at frame
+ * offset 0 and the first hit check of the attack occurs at the offset equal to
+ * its startup frames.
+ *
+ * @see GameData#getFrameTable(boolean)
+ */
+public class FrameTable {
+
+	/**
+	 * The number of frames of each motion.<br>
+	 * The index is the ordinal of the action. The same applies to the following
+	 * arrays.
+	 */
+	private final int[] frameNumbers;
+
+	/**
+	 * The number of startup frames of each motion's attack.
+	 */
+	private final int[] startUps;
+
+	/**
+	 * The number of active frames of each motion's attack.
+	 */
+	private final int[] actives;
+
+	/**
+	 * The boolean values indicating whether each motion's attack is a
+	 * projectile.
+	 */
+	private final boolean[] projectiles;
+
+	/**
+	 * The boolean values indicating whether the hit areas of each motion's
+	 * attack can be predicted, that is, whether the motion is executed on the
+	 * ground.
+	 */
+	private final boolean[] predictables;
+
+	/**
+	 * The relative left edge of the attack hit area on each frame offset.<br>
+	 * The first index is the ordinal of the action and the second one is the
+	 * frame offset. The length of the second dimension is the number of frame
+	 * offsets until the last hit check of the attack, or 0 if the motion has no
+	 * attack. The same applies to the following arrays.
+	 */
+	private final int[][] attackLefts;
+
+	/**
+	 * The relative right edge of the attack hit area on each frame offset.
+	 */
+	private final int[][] attackRights;
+
+	/**
+	 * The relative top edge of the attack hit area on each frame offset.
+	 */
+	private final int[][] attackTops;
+
+	/**
+	 * The relative bottom edge of the attack hit area on each frame offset.
+	 */
+	private final int[][] attackBottoms;
+
+	/**
+	 * The left edge of the character's own hit area in each motion, measured
+	 * from the character's x coordinate while facing right.<br>
+	 * The index is the ordinal of the action. The same applies to the
+	 * following arrays.
+	 */
+	private final int[] characterLefts;
+
+	/**
+	 * The right edge of the character's own hit area in each motion.
+	 */
+	private final int[] characterRights;
+
+	/**
+	 * The top edge of the character's own hit area in each motion, measured
+	 * from the character's y coordinate.
+	 */
+	private final int[] characterTops;
+
+	/**
+	 * The class constructor that builds the table from the motion data of a
+	 * character.
+	 *
+	 * @param motionDataList
+	 *            the motion data of the character, in the order of the ordinal
+	 *            of the actions
+	 *
+	 * @see GameData#getMotionData(boolean)
+	 */
+	public FrameTable(List<MotionData> motionDataList) {
+		int size = motionDataList.size();
+
+		this.frameNumbers = new int[size];
+		this.startUps = new int[size];
+		this.actives = new int[size];
+		this.projectiles = new boolean[size];
+		this.predictables = new boolean[size];
+		this.attackLefts = new int[size][];
+		this.attackRights = new int[size][];
+		this.attackTops = new int[size][];
+		this.attackBottoms = new int[size][];
+		this.characterLefts = new int[size];
+		this.characterRights = new int[size];
+		this.characterTops = new int[size];
+
+		// The character starts the action standing on the ground
+		int groundY = GameSetting.STAGE_HEIGHT
+				- motionDataList.get(Action.STAND.ordinal()).getCharacterHitArea().getBottom();
+
+		for (int i = 0; i < size; i++) {
+			MotionData motionData = motionDataList.get(i);
+			int frameNumber = motionData.getFrameNumber();
+			int startUp = motionData.getAttackStartUp();
+			int active = motionData.getAttackActive();
+			int speedX = motionData.getAttackSpeedX();
+			int speedY = motionData.getAttackSpeedY();
+			boolean projectile = speedX + speedY != 0;
+			// The command table executes the actions named AIR only in the air
+			boolean predictable = !motionData.getActionName().startsWith("AIR");
+
+			this.frameNumbers[i] = frameNumber;
+			this.startUps[i] = startUp;
+			this.actives[i] = active;
+			this.projectiles[i] = projectile;
+			this.predictables[i] = predictable;
+
+			HitArea characterHitArea = motionData.getCharacterHitArea();
+			this.characterLefts[i] = characterHitArea.getLeft();
+			this.characterRights[i] = characterHitArea.getRight();
+			this.characterTops[i] = characterHitArea.getTop();
+
+			// The attack is created only when the motion has startup frames. It
+			// is checked on the frames from startup to startup + active, and an
+			// attack other than a projectile disappears when the motion ends. The
+			// hit areas of an action executed in the air are not computed.
+			int length = 0;
+			if (startUp > 0 && predictable) {
+				length = startUp + active + 1;
+				if (!projectile) {
+					length = Math.min(length, frameNumber);
+				}
+			}
+
+			int[] movesX = new int[length];
+			int[] movesY = new int[length];
+			int landing = computeMoves(motionData, groundY, movesX, movesY);
+			if (landing >= 0 && (!projectile || landing < startUp)) {
+				// Landing cancels the motion together with its attack, or
+				// before its projectile is created
+				length = Math.min(length, landing + 1);
+			}
+
+			HitArea hitArea = motionData.getAttackHitArea();
+			this.attackLefts[i] = new int[length];
+			this.attackRights[i] = new int[length];
+			this.attackTops[i] = new int[length];
+			this.attackBottoms[i] = new int[length];
+			for (int offset = startUp; offset < length; offset++) {
+				// The hit area checked on a frame was set on the previous
+				// frame, before the character moved on that frame. A
+				// projectile leaves the character when it is created.
+				int move;
+				int elapsed;
+				if (projectile) {
+					move = startUp - 1;
+					elapsed = offset - startUp;
+				} else {
+					move = Math.max(offset - 2, startUp - 1);
+					elapsed = 0;
+				}
+
+				int moveX = movesX[move] + speedX * elapsed;
+				int moveY = movesY[move] + speedY * elapsed;
+				this.attackLefts[i][offset] = hitArea.getLeft() + moveX;
+				this.attackRights[i][offset] = hitArea.getRight() + moveX;
+				this.attackTops[i][offset] = hitArea.getTop() + moveY;
+				this.attackBottoms[i][offset] = hitArea.getBottom() + moveY;
+			}
+		}
+	}
+
+	/**
+	 * Computes the distance the character moves by the motion itself, from the
+	 * start of the motion to the end of each frame offset.<br>
+	 * This follows {@link fighting.Character#update()}: the motion sets the
+	 * character's speed, and then friction reduces the horizontal speed while
+	 * the character is on the ground, and gravity increases the vertical speed
+	 * while it is in the air. The character is put back on the ground when it
+	 * falls below it, and a motion with the landing flag is cancelled then.
+	 *
+	 * @param motionData
+	 *            the motion data
+	 * @param groundY
+	 *            the y coordinate of the character standing on the ground
+	 * @param movesX
+	 *            the array to store the horizontal distance moved towards the
+	 *            direction the character faces at the end of each frame offset
+	 * @param movesY
+	 *            the array to store the vertical distance moved at the end of
+	 *            each frame offset
+	 *
+	 * @return the frame offset on which the motion is cancelled by landing, or
+	 *         -1 if it is not cancelled within the arrays
+	 */
+	private static int computeMoves(MotionData motionData, int groundY, int[] movesX, int[] movesY) {
+		HitArea characterHitArea = motionData.getCharacterHitArea();
+		int speedX = motionData.getSpeedX();
+		int speedY = motionData.getSpeedY();
+		int x = 0;
+		int y = groundY;
+
+		for (int offset = 0; offset < movesX.length; offset++) {
+			x += speedX;
+			y += speedY;
+
+			boolean grounded = characterHitArea.getBottom() + y >= GameSetting.STAGE_HEIGHT;
+			if (grounded) {
+				if (speedX > 0) {
+					speedX -= GameSetting.FRICTION;
+				} else if (speedX < 0) {
+					speedX += GameSetting.FRICTION;
+				}
+				speedY = 0;
+			} else if (characterHitArea.getTop() + y <= 0) {
+				speedY = GameSetting.GRAVITY;
+			} else {
+				speedY += GameSetting.GRAVITY;
+			}
+
+			if (grounded) {
+				if (motionData.isLandingFlag()) {
+					return offset;
+				}
+				y = GameSetting.STAGE_HEIGHT - characterHitArea.getBottom();
+			}
+
+			movesX[offset] = x;
+			movesY[offset] = y - groundY;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns whether the attack of the specified action can hit the specified
+	 * point on the specified frame offset.
+	 *
+	 * @param action
+	 *            the action performed by the character
+	 * @param dx
+	 *            the horizontal position of the point, measured from the
+	 *            character's x coordinate towards the direction the character
+	 *            faces
+	 * @param dy
+	 *            the vertical position of the point, measured from the
+	 *            character's y coordinate
+	 * @param frameOffset
+	 *            the number of frames elapsed since the action was executed
+	 *
+	 * @return {@code true} if the attack is checked on the frame offset and its
+	 *         hit area contains the point, {@code false} otherwise
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the action is not predictable
+	 *
+	 * @see #isPredictable(Action)
+	 */
+	public boolean canHit(Action action, int dx, int dy, int frameOffset) {
+		int index = checkPredictable(action);
+		if (!isActive(index, frameOffset)) {
+			return false;
+		}
+
+		return this.attackLefts[index][frameOffset] <= dx && dx <= this.attackRights[index][frameOffset]
+				&& this.attackTops[index][frameOffset] <= dy && dy <= this.attackBottoms[index][frameOffset];
+	}
+
+	/**
+	 * Returns whether the attack of the specified action can hit the specified
+	 * hit area on the specified frame offset.
+	 *
+	 * @param action
+	 *            the action performed by the character
+	 * @param target
+	 *            the hit area of the opponent relative to the character
+	 * @param frameOffset
+	 *            the number of frames elapsed since the action was executed
+	 *
+	 * @return {@code true} if the attack is checked on the frame offset and its
+	 *         hit area overlaps the target, {@code false} otherwise
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the action is not predictable
+	 *
+	 * @see #isPredictable(Action)
+	 * @see #toRelative(CharacterData, CharacterData)
+	 */
+	public boolean canHit(Action action, HitArea target, int frameOffset) {
+		int index = checkPredictable(action);
+		if (!isActive(index, frameOffset)) {
+			return false;
+		}
+
+		return this.attackLefts[index][frameOffset] <= target.getRight()
+				&& this.attackRights[index][frameOffset] >= target.getLeft()
+				&& this.attackTops[index][frameOffset] <= target.getBottom()
+				&& this.attackBottoms[index][frameOffset] >= target.getTop();
+	}
+
+	/**
+	 * Returns the first frame offset on which the attack of the specified
+	 * action can hit the specified hit area.
+	 *
+	 * @param action
+	 *            the action performed by the character
+	 * @param target
+	 *            the hit area of the opponent relative to the character
+	 *
+	 * @return the first frame offset on which the attack can hit the target,
+	 *         or -1 if the attack cannot hit it
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the action is not predictable
+	 *
+	 * @see #isPredictable(Action)
+	 * @see #toRelative(CharacterData, CharacterData)
+	 */
+	public int getFirstHitFrame(Action action, HitArea target) {
+		int index = checkPredictable(action);
+		int length = this.attackLefts[index].length;
+		for (int offset = this.startUps[index]; offset < length; offset++) {
+			if (canHit(action, target, offset)) {
+				return offset;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the attack hit area of the specified action on the specified
+	 * frame offset, relative to the character.
+	 *
+	 * @param action
+	 *            the action performed by the character
+	 * @param frameOffset
+	 *            the number of frames elapsed since the action was executed
+	 *
+	 * @return the relative attack hit area, or {@code null} if the attack is
+	 *         not checked on the frame offset
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the action is not predictable
+	 *
+	 * @see #isPredictable(Action)
+	 */
+	public HitArea getAttackHitArea(Action action, int frameOffset) {
+		int index = checkPredictable(action);
+		if (!isActive(index, frameOffset)) {
+			return null;
+		}
+
+		return new HitArea(this.attackLefts[index][frameOffset], this.attackRights[index][frameOffset],
+				this.attackTops[index][frameOffset], this.attackBottoms[index][frameOffset]);
+	}
+
+	/**
+	 * Returns the ordinal of the specified action after checking that the hit
+	 * areas of its attack can be predicted.
+	 *
+	 * @param action
+	 *            the action
+	 *
+	 * @return the ordinal of the action
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the action is not predictable
+	 */
+	private int checkPredictable(Action action) {
+		int index = action.ordinal();
+		if (!this.predictables[index]) {
+			throw new IllegalArgumentException("The hit areas of an action executed in the air are unknown: " + action);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns whether the attack of the motion is checked on the frame offset.
+	 *
+	 * @param index
+	 *            the ordinal of the action
+	 * @param frameOffset
+	 *            the number of frames elapsed since the action was executed
+	 *
+	 * @return {@code true} if the attack is checked on the frame offset,
+	 *         {@code false} otherwise
+	 */
+	private boolean isActive(int index, int frameOffset) {
+		return frameOffset >= this.startUps[index] && frameOffset < this.attackLefts[index].length;
+	}
+
+	/**
+	 * Returns the number of frames of the specified action.
+	 *
+	 * @param action
+	 *            the action
+	 *
+	 * @return the number of frames of the action
+	 */
+	public int getFrameNumber(Action action) {
+		return this.frameNumbers[action.ordinal()];
+	}
+
+	/**
+	 * Returns the number of startup frames of the specified action's attack.
+	 *
+	 * @param action
+	 *            the action
+	 *
+	 * @return the number of startup frames
+	 */
+	public int getStartUp(Action action) {
+		return this.startUps[action.ordinal()];
+	}
+
+	/**
+	 * Returns the number of active frames of the specified action's attack.
+	 *
+	 * @param action
+	 *            the action
+	 *
+	 * @return the number of active frames
+	 */
+	public int getActive(Action action) {
+		return this.actives[action.ordinal()];
+	}
+
+	/**
+	 * Returns the number of recovery frames of the specified action, that is,
+	 * the frames of the motion after the startup and active frames of its
+	 * attack.
+	 *
+	 * @param action
+	 *            the action
+	 *
+	 * @return the number of recovery frames, or 0 if the attack lasts until
+	 *         the end of the motion
+	 */
+	public int getRecovery(Action action) {
+		int index = action.ordinal();
+		return Math.max(0, this.frameNumbers[index] - this.startUps[index] - this.actives[index]);
+	}
+
+	/**
+	 * Returns whether the specified action's attack is a projectile.
+	 *
+	 * @param action
+	 *            the action
+	 *
+	 * @return {@code true} if the attack is a projectile, {@code false}
+	 *         otherwise
+	 */
+	public boolean isProjectile(Action action) {
+		return this.projectiles[action.ordinal()];
+	}
+
+	/**
+	 * Returns whether this table can predict the hit areas of the specified
+	 * action's attack.<br>
+	 * The actions executed in the air, i.e. the ones whose names start with
+	 * AIR, are not predictable, because their movement depends on the height
+	 * and the speed of the character at that time.
+	 *
+	 * @param action
+	 *            the action
+	 *
+	 * @return {@code true} if the hit areas can be predicted, {@code false}
+	 *         otherwise
+	 */
+	public boolean isPredictable(Action action) {
+		return this.predictables[action.ordinal()];
+	}
+
+	/**
+	 * Returns the hit area of the target character relative to the attacking
+	 * character, in the coordinates used by this table.<br>
+	 * This table must be the one of the attacking character. The attacker's
+	 * coordinates are derived from its hit area and the hit area of its
+	 * current motion in this table.
+	 *
+	 * @param attacker
+	 *            the attacking character
+	 * @param target
+	 *            the target character
+	 *
+	 * @return the hit area of the target relative to the attacker
+	 */
+	public HitArea toRelative(CharacterData attacker, CharacterData target) {
+		int index = attacker.getAction().ordinal();
+		int left;
+		int right;
+
+		if (attacker.isFront()) {
+			int originX = attacker.getLeft() - this.characterLefts[index];
+			left = target.getLeft() - originX;
+			right = target.getRight() - originX;
+		} else {
+			// The origin is mirrored to the right edge of the character's image
+			int originX = attacker.getLeft() + this.characterRights[index];
+			left = originX - target.getRight();
+			right = originX - target.getLeft();
+		}
+
+		int originY = attacker.getTop() - this.characterTops[index];
+		return new HitArea(left, right, target.getTop() - originY, target.getBottom() - originY);
+	}
+
+}
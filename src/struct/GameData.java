@@ -5,7 +5,7 @@ import java.util.ArrayList;
 import fighting.Character;
 import fighting.Motion;
 import setting.GameSetting;
-import setting.LaunchSetting;
+import setting.MatchContext;
 import simulator.Simulator;
 
 /**
@@ -42,6 +42,15 @@ public class GameData {
 	 */
 	private ArrayList<ArrayList<MotionData>> characterMotions;
 
+	/**
+	 * The frame data tables of both characters, built from their motion
+	 * data.<br>
+	 * Index 0 is P1, index 1 is P2.
+	 *
+	 * @see FrameTable
+	 */
+	private FrameTable[] frameTables;
+
 	/**
 	 * The both characters' names.<br>
 	 * Index 0 is P1, index 1 is P2.
@@ -63,6 +72,13 @@ public class GameData {
 	 */
 	private Simulator simulator;
 
+	/**
+	 * The copy of the settings of the match, used by the simulator.
+	 *
+	 * @see MatchContext
+	 */
+	private MatchContext context;
+
 	/**
 	 * The class constructor.
 	 */
@@ -70,13 +86,18 @@ public class GameData {
 		this.maxHPs = new int[2];
 		this.maxEnergies = new int[2];
 		this.characterMotions = new ArrayList<ArrayList<MotionData>>(2);
+		this.frameTables = new FrameTable[2];
 		this.characterNames = new String[2];
 		this.aiNames = new String[2];
+		this.context = null;
 	}
 
 	/**
 	 * The class constructor that creates an instance of the GameData class by
-	 * using character information.
+	 * using character information.<br>
+	 * The maximum HPs, character names and AI names are taken from the match
+	 * settings of the characters, and the simulator uses a copy of the same
+	 * settings.
 	 *
 	 * @param players
 	 *            character information of P1 and P2
@@ -88,20 +109,22 @@ public class GameData {
 
 		for (int i = 0; i < 2; i++) {
 			ArrayList<MotionData> motionDataList = new ArrayList<MotionData>();
-			ArrayList<Motion> temp = players[i].getMotionList();
-			for (Motion motion : temp) {
+			for (Motion motion : players[i].getMotions()) {
 				motionDataList.add(new MotionData(motion));
 			}
 
 			this.characterMotions.add(motionDataList);
+			this.frameTables[i] = new FrameTable(motionDataList);
 		}
 
 		this.stageWidth = GameSetting.STAGE_WIDTH;
 		this.stageHeight = GameSetting.STAGE_HEIGHT;
-		this.maxHPs = LaunchSetting.maxHp.clone();
-		this.maxEnergies = LaunchSetting.maxEnergy.clone();
-		this.characterNames = LaunchSetting.characterNames.clone();
-		this.aiNames = LaunchSetting.aiNames.clone();
+		MatchContext context = players[0].getContext();
+		this.maxHPs = context.getMaxHps();
+		this.maxEnergies = context.getMaxEnergies();
+		this.characterNames = context.getCharacterNames();
+		this.aiNames = context.getAINames();
+		this.context = new MatchContext(context);
 
 		this.simulator = new Simulator(this);
 	}
@@ -148,6 +171,19 @@ public class GameData {
 		return temp;
 	}
 
+	/**
+	 * Returns the frame data table of the player specified by the argument.
+	 *
+	 * @param playerNumber
+	 *            the player side's flag. {@code true} if the player is P1, or
+	 *            {@code false} if P2.
+	 * @return the frame data table of the player specified by the argument
+	 * @see FrameTable
+	 */
+	public FrameTable getFrameTable(boolean playerNumber) {
+		return playerNumber ? this.frameTables[0] : this.frameTables[1];
+	}
+
 	/**
 	 * Returns the width of the game stage.
 	 *
@@ -223,4 +259,19 @@ public class GameData {
 	public Simulator getSimulator() {
 		return this.simulator;
 	}
+
+	/**
+	 * Returns a copy of the settings of the match, such as the training mode
+	 * and the number of frames in a round.<br>
+	 * The simulator simulates the fight with these settings. A new copy is
+	 * returned on every call, so modifying it affects neither the match nor
+	 * the simulator.
+	 *
+	 * @return a copy of the settings of the match, or {@code null} if this
+	 *         instance was not created from the characters
+	 * @see MatchContext
+	 */
+	public MatchContext getMatchContext() {
+		return this.context == null ? null : new MatchContext(this.context);
+	}
 }
@@ -0,0 +1,261 @@
+package struct;
+
+/**
+ * The read-only version of {@link AttackData}.<br>
+ * All the setters throw {@link UnsupportedOperationException}, so a single
+ * instance can be shared between AIs and threads without copying it. Use
+ * {@link AttackData#AttackData(AttackData)} to obtain a modifiable copy.
+ *
+ * @see FrameData#toImmutable()
+ */
+public class ImmutableAttackData extends AttackData {
+
+	/**
+	 * The message of the exception thrown by the setters.
+	 */
+	private static final String MESSAGE = "The attack data is immutable. "
+			+ "Copy it with new AttackData(AttackData) to modify it.";
+
+	/**
+	 * The class constructor that creates a read-only copy of the attack data
+	 * passed as the argument.
+	 *
+	 * @param attackData
+	 *            an instance of the AttackData class
+	 */
+	public ImmutableAttackData(AttackData attackData) {
+		super(attackData);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setSettingHitArea(HitArea settingHitArea) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setSettingSpeedX(int settingSpeedX) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setSettingSpeedY(int settingSpeedY) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setCurrentFrame(int nowFrame) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setPlayerNumber(boolean playerNumber) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setSpeedX(int speedX) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setSpeedY(int speedY) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setStartUp(int startUp) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setActive(int active) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setHitDamage(int hitDamage) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setGuardDamage(int guardDamage) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setStartAddEnergy(int startAddEnergy) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setHitAddEnergy(int hitAddEnergy) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setGuardAddEnergy(int guardAddEnergy) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setGiveEnergy(int giveEnergy) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setImpactX(int impactX) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setImpactY(int impactY) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setGiveGuardRecov(int giveGuardRecov) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setAttackType(int attackType) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setDownProp(boolean downProp) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setIsProjectile(boolean isProjectile) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+}
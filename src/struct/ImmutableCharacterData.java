@@ -0,0 +1,386 @@
+package struct;
+
+import java.util.Deque;
+import java.util.LinkedList;
+
+import enumerate.Action;
+import enumerate.State;
+
+/**
+ * The read-only version of {@link CharacterData}.<br>
+ * All the setters throw {@link UnsupportedOperationException}, and
+ * {@link #getAttack()} returns the shared {@link ImmutableAttackData} instance
+ * instead of a copy, so a single instance can be shared between AIs and
+ * threads without copying it. The key histories are held as copies and are
+ * copied again each time they are returned. Use {@link CharacterData#CharacterData(CharacterData)}
+ * to obtain a modifiable copy.
+ *
+ * @see FrameData#toImmutable()
+ */
+public class ImmutableCharacterData extends CharacterData {
+
+	/**
+	 * The message of the exception thrown by the setters.
+	 */
+	private static final String MESSAGE = "The character data is immutable. "
+			+ "Copy it with new CharacterData(CharacterData) to modify it.";
+
+	/**
+	 * The attack data that the character is using.
+	 */
+	private final AttackData attack;
+
+	/**
+	 * Copies of the keys of the action that the character will be executing
+	 * in the simulator.
+	 */
+	private final Key[] inputCommands;
+
+	/**
+	 * Copies of up to 30 keys that the character executed in the simulator.
+	 */
+	private final Key[] processedCommands;
+
+	/**
+	 * The class constructor that creates a read-only copy of the character data
+	 * passed as the argument.
+	 *
+	 * @param characterData
+	 *            an instance of the CharacterData class
+	 */
+	public ImmutableCharacterData(CharacterData characterData) {
+		super(characterData);
+		this.attack = new ImmutableAttackData(characterData.getAttack());
+		this.inputCommands = characterData.copyInputCommand();
+		this.processedCommands = characterData.copyProcessedCommand();
+	}
+
+	/**
+	 * Returns a list storing copies of the keys in the array passed as the
+	 * argument, so that the caller cannot modify the keys held by this
+	 * instance.
+	 *
+	 * @param keys
+	 *            an array of keys
+	 * @return a list storing copies of the keys
+	 */
+	private static Deque<Key> toDeque(Key[] keys) {
+		LinkedList<Key> temp = new LinkedList<Key>();
+		for (Key key : keys) {
+			temp.add(new Key(key));
+		}
+		return temp;
+	}
+
+	/**
+	 * Returns the attack data that the character is using.<br>
+	 * The returned instance is shared and cannot be modified.
+	 *
+	 * @return the attack data that the character is using
+	 */
+	@Override
+	public AttackData getAttack() {
+		return this.attack;
+	}
+
+	/**
+	 * Returns a list storing copies of the keys of the action that the
+	 * character will be executing in the simulator.
+	 *
+	 * @deprecated This method is used only for processing of the simulator. You
+	 *             should not use this method for AI development.
+	 *
+	 * @return a list storing copies of the keys of the action that the
+	 *         character will be executing in the simulator
+	 */
+	@Deprecated
+	@Override
+	public Deque<Key> getInputCommand() {
+		return toDeque(this.inputCommands);
+	}
+
+	/**
+	 * Returns a list storing copies of up to 30 keys that the character
+	 * executed in the simulator.
+	 *
+	 * @deprecated This method is used only for processing of the simulator. You
+	 *             should not use this method for AI development.
+	 *
+	 * @return a list storing copies of up to 30 keys that the character
+	 *         executed in the simulator
+	 */
+	@Deprecated
+	@Override
+	public Deque<Key> getProcessedCommand() {
+		return toDeque(this.processedCommands);
+	}
+
+	/**
+	 * Adds copies of the keys of the action that the character will be
+	 * executing in the simulator to the end of the list passed as the
+	 * argument.
+	 *
+	 * @param keys
+	 *            the list to which the copies of the keys are added
+	 */
+	@Override
+	public void addInputCommandTo(Deque<Key> keys) {
+		for (Key key : this.inputCommands) {
+			keys.addLast(new Key(key));
+		}
+	}
+
+	/**
+	 * Adds copies of up to 30 keys that the character executed in the
+	 * simulator to the end of the list passed as the argument.
+	 *
+	 * @param keys
+	 *            the list to which the copies of the keys are added
+	 */
+	@Override
+	public void addProcessedCommandTo(Deque<Key> keys) {
+		for (Key key : this.processedCommands) {
+			keys.addLast(new Key(key));
+		}
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setHp(int hp) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setEnergy(int energy) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setX(int x) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setY(int y) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setSpeedX(int speedX) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setSpeedY(int speedY) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setState(State state) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setAction(Action action) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setFront(boolean front) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setControl(boolean control) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setRemainingFrame(int remainingFrame) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setTop(int top) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setBottom(int bottom) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setLeft(int left) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setRight(int right) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setAttack(AttackData attack) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setHitCount(int hitCount) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setLastHitFrame(int lastHitFrame) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void setHitConfirm(boolean hitConfirm) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @deprecated This method is used only for processing of the simulator. You
+	 *             should not use this method for AI development.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Deprecated
+	@Override
+	public void setInputCommand(Deque<Key> inputCommand) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+	/**
+	 * Always throws an exception, because this instance cannot be modified.
+	 *
+	 * @deprecated This method is used only for processing of the simulator. You
+	 *             should not use this method for AI development.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Deprecated
+	@Override
+	public void setProcessedCommand(Deque<Key> inputCommand) {
+		throw new UnsupportedOperationException(MESSAGE);
+	}
+
+}
@@ -49,6 +49,34 @@ public class ScreenData {
 
 	}
 
+	/**
+	 * The class constructor that creates screen information from the given
+	 * pixel data without reading the screen.
+	 *
+	 * @param displayByteBuffer
+	 *            the RGB data of the screen, or {@code null}
+	 * @param displayBufferedImage
+	 *            the image of the screen, or {@code null}
+	 */
+	private ScreenData(ByteBuffer displayByteBuffer, BufferedImage displayBufferedImage) {
+		this.displayByteBuffer = displayByteBuffer;
+		this.displayBufferedImage = displayBufferedImage;
+	}
+
+	/**
+	 * Returns screen information that holds no pixel data.<br>
+	 * It is used when the game runs without a window or an OpenGL context, in
+	 * which case the screen cannot be read. {@link #getDisplayByteBuffer()}
+	 * and {@link #getDisplayBufferedImage()} return {@code null}, and
+	 * {@link #getDisplayByteBufferAsBytes(int, int, boolean)} returns
+	 * {@code null}.
+	 *
+	 * @return screen information without pixel data
+	 */
+	public static ScreenData createEmpty() {
+		return new ScreenData(null, null);
+	}
+
 	/**
 	 * The class constructor that creates pixel information of the game screen
 	 * by using the specified data.
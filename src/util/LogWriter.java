@@ -14,13 +14,15 @@ import java.util.logging.Logger;
 import javax.json.Json;
 import javax.json.stream.JsonGenerator;
 
+import aiinterface.AIStatistics;
+import aiinterface.LatencyHistogram;
 import fighting.Character;
 import informationcontainer.RoundResult;
 import input.KeyData;
 import loader.ResourceLoader;
-import setting.FlagSetting;
 import setting.GameSetting;
 import setting.LaunchSetting;
+import setting.MatchContext;
 import struct.AttackData;
 import struct.CharacterData;
 import struct.FrameData;
@@ -95,8 +97,26 @@ public class LogWriter {
 	 *            現在の時間情報
 	 */
 	public void outputResult(ArrayList<RoundResult> roundResults, int extension, String timeInfo) {
+		outputResult(roundResults, extension, timeInfo, new MatchContext());
+	}
+
+	/**
+	 * 引数で指定した試合の設定を用いて，試合結果を引数で指定した拡張子のファイルへ出力する．<br>
+	 * 引数の現在の時間情報は出力ファイル名に用いられる．
+	 *
+	 * @param roundResults
+	 *            各ラウンドの結果を格納しているリスト
+	 * @param extension
+	 *            指定拡張子
+	 * @param timeInfo
+	 *            現在の時間情報
+	 * @param context
+	 *            試合の設定
+	 */
+	public void outputResult(ArrayList<RoundResult> roundResults, int extension, String timeInfo,
+			MatchContext context) {
 		String path = "./log/point/";
-		String fileName = createOutputFileName(path, timeInfo);
+		String fileName = createOutputFileName(path, timeInfo, context);
 
 		PrintWriter pw;
 		switch (extension) {
@@ -114,7 +134,62 @@ public class LogWriter {
 		for (RoundResult roundResult : roundResults) {
 			int[] score = roundResult.getRemainingHPs();
 
-			pw.println(roundResult.getRound() + "," + score[0] + "," + score[1] + "," + roundResult.getElapsedFrame());
+			String line = roundResult.getRound() + "," + score[0] + "," + score[1] + "," + roundResult.getElapsedFrame();
+			// 期限を設けた場合のみ, 期限までに処理を終えなかったフレームの数を出力する
+			if (context.getFrameDeadlineNanos() > 0) {
+				int[] missedFrames = roundResult.getMissedFrames();
+				line += "," + missedFrames[0] + "," + missedFrames[1];
+			}
+			pw.println(line);
+		}
+
+		pw.close();
+	}
+
+	/**
+	 * 引数で指定したラウンドにおける各AIの処理時間の統計を，試合結果と同じディレクトリのCSVファイルに追記する．<br>
+	 * 1行は1つのAIの1つの処理に対応し，処理時間はナノ秒単位で出力する．<br>
+	 * 引数の現在の時間情報は出力ファイル名に用いられる．
+	 *
+	 * @param round
+	 *            ラウンド数
+	 * @param statistics
+	 *            P1とP2のAIの統計を格納した配列. AIでない場合は{@code null}
+	 * @param timeInfo
+	 *            現在の時間情報
+	 * @param context
+	 *            試合の設定
+	 */
+	public void outputLatency(int round, AIStatistics[] statistics, String timeInfo, MatchContext context) {
+		boolean hasAI = false;
+		for (AIStatistics s : statistics) {
+			hasAI |= s != null;
+		}
+		if (!hasAI) {
+			return;
+		}
+
+		String fileName = createOutputFileName("./log/point/", timeInfo, context) + "_latency.csv";
+		boolean exists = new File(fileName).exists();
+		PrintWriter pw = ResourceLoader.getInstance().openWriteFile(fileName, true);
+		if (pw == null) {
+			return;
+		}
+
+		if (!exists) {
+			pw.println("round,player,ai,callback,count,mean_ns,p50_ns,p99_ns,max_ns,missed_frames");
+		}
+		for (int i = 0; i < statistics.length; i++) {
+			if (statistics[i] == null) {
+				continue;
+			}
+
+			for (int j = 0; j < AIStatistics.CALLBACKS.length; j++) {
+				LatencyHistogram histogram = statistics[i].getHistogram(j);
+				pw.println(round + ",P" + (i + 1) + "," + statistics[i].getAIName() + "," + AIStatistics.CALLBACKS[j]
+						+ "," + histogram.getCount() + "," + histogram.getMean() + "," + histogram.getPercentile(50) + ","
+						+ histogram.getPercentile(99) + "," + histogram.getMax() + "," + statistics[i].getMissedFrames());
+			}
 		}
 
 		pw.close();
@@ -165,14 +240,26 @@ public class LogWriter {
 	 *            リプレイファイルに書き込みを行うためのデータ出力ストリーム
 	 */
 	public void writeHeader(DataOutputStream dos) {
+		writeHeader(dos, new MatchContext());
+	}
+
+	/**
+	 * 引数で指定した試合の設定を用いて，リプレイファイルにゲームモード(HP mode or Time mode)や使用キャラといったヘッダ情報を記述する．
+	 *
+	 * @param dos
+	 *            リプレイファイルに書き込みを行うためのデータ出力ストリーム
+	 * @param context
+	 *            試合の設定
+	 */
+	public void writeHeader(DataOutputStream dos, MatchContext context) {
 		try {
 			for (int i = 0; i < 2; i++) {
-				if (FlagSetting.limitHpFlag) {
+				if (context.isLimitHp()) {
 					dos.writeInt(-1);
-					dos.writeInt(LaunchSetting.maxHp[i]);
+					dos.writeInt(context.getMaxHp(i));
 				}
 
-				dos.writeInt(Arrays.asList(GameSetting.CHARACTERS).indexOf(LaunchSetting.characterNames[i]));
+				dos.writeInt(Arrays.asList(GameSetting.CHARACTERS).indexOf(context.getCharacterName(i)));
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -191,9 +278,26 @@ public class LogWriter {
 	 * @return 出力ファイル名
 	 */
 	public String createOutputFileName(String path, String timeInfo) {
-		String mode = FlagSetting.limitHpFlag ? "HPMode" : "TimeMode";
+		return createOutputFileName(path, timeInfo, new MatchContext());
+	}
+
+	/**
+	 * 引数で指定した試合の設定を用いて，出力ファイルの名前を生成する．<br>
+	 * "ファイル出力場所のパス+ゲームモード+P1のAI名+P2のAI名+現在時間"をファイル名として返す．
+	 *
+	 * @param path
+	 *            ファイルを出力する場所のパス
+	 * @param timeInfo
+	 *            現在の時間情報
+	 * @param context
+	 *            試合の設定
+	 *
+	 * @return 出力ファイル名
+	 */
+	public String createOutputFileName(String path, String timeInfo, MatchContext context) {
+		String mode = context.isLimitHp() ? "HPMode" : "TimeMode";
 
-		return path + mode + "_" + LaunchSetting.aiNames[0] + "_" + LaunchSetting.aiNames[1] + "_" + timeInfo;
+		return path + mode + "_" + context.getAIName(0) + "_" + context.getAIName(1) + "_" + timeInfo;
 	}
 
 	/**
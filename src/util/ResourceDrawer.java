@@ -3,7 +3,6 @@ package util;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
-import java.util.Deque;
 import java.util.LinkedList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -12,6 +11,7 @@ import fighting.Attack;
 import fighting.Character;
 import fighting.HitEffect;
 import fighting.LoopEffect;
+import fighting.ProjectilePool;
 import image.Image;
 import manager.GraphicManager;
 import setting.FlagSetting;
@@ -53,7 +53,7 @@ public class ResourceDrawer {
 	 * @param characters
 	 *            P1とP2のキャラクターデータを格納した配列
 	 * @param projectiles
-	 *            波動拳のループエフェクトを格納した両端キュー
+	 *            波動拳のループエフェクトを格納したプール
 	 * @param hitEffects
 	 *            ヒットエフェクトのリストを格納したリスト
 	 * @param remainingTime
@@ -61,7 +61,7 @@ public class ResourceDrawer {
 	 * @param round
 	 *            ラウンド
 	 */
-	public void drawResource(Character[] characters, Deque<LoopEffect> projectiles,
+	public void drawResource(Character[] characters, ProjectilePool projectiles,
 			LinkedList<LinkedList<HitEffect>> hitEffects, int remainingTime, int round) {
 
 		GraphicManager.getInstance().resetScreen();
@@ -136,14 +136,15 @@ public class ResourceDrawer {
 	 * Draws attack's images.
 	 *
 	 * @param projectiles
-	 *            波動拳のループエフェクトを格納した両端キュー
+	 *            波動拳のループエフェクトを格納したプール
 	 * @param characters
 	 *            P1とP2のキャラクターデータを格納した配列
 	 */
-	private void drawAttackImage(Deque<LoopEffect> projectiles, Character[] characters) {
+	private void drawAttackImage(ProjectilePool projectiles, Character[] characters) {
 
 		// Is displayed according to the orientation image attack.
-		for (LoopEffect projectile : projectiles) {
+		for (int i = 0; i < projectiles.size(); i++) {
+			LoopEffect projectile = projectiles.get(i);
 			Attack attack = projectile.getAttack();
 
 			if (attack.getCurrentFrame() > attack.getStartUp()) {
@@ -288,9 +289,9 @@ public class ResourceDrawer {
 	 * @param playerCharacters
 	 *            P1とP2のキャラクターデータを格納した配列
 	 * @param projectiles
-	 *            波動拳のループエフェクトを格納した両端キュー
+	 *            波動拳のループエフェクトを格納したプール
 	 */
-	private void drawHitArea(Character[] playerCharacters, Deque<LoopEffect> projectiles) {
+	private void drawHitArea(Character[] playerCharacters, ProjectilePool projectiles) {
 		for (int i = 0; i < 2; ++i) {
 
 			// キャラクターの当たり判定ボックスの描画
@@ -319,8 +320,8 @@ public class ResourceDrawer {
 		}
 
 		// 波動拳の当たり判定ボックスの描画
-		for (LoopEffect loopEffect : projectiles) {
-			Attack temp = loopEffect.getAttack();
+		for (int i = 0; i < projectiles.size(); i++) {
+			Attack temp = projectiles.get(i).getAttack();
 
 			if (temp.getCurrentFrame() > temp.getStartUp()) {
 				HitArea area = temp.getCurrentHitArea();